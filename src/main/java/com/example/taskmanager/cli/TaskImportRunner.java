@@ -0,0 +1,68 @@
+package com.example.taskmanager.cli;
+
+import com.example.taskmanager.dto.TaskFileFormat;
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.service.TaskImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Imports a task file from the command line and exits, for loads too large to upload over HTTP:
+ * {@code java -jar taskmanager.jar --import-tasks=tasks.csv [--import-format=csv|ndjson]}.
+ * The format defaults to the file extension. Without {@code --import-tasks} the application starts normally.
+ */
+@Component
+public class TaskImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportRunner.class);
+
+    private final TaskImportService taskImportService;
+    private final ApplicationContext applicationContext;
+
+    public TaskImportRunner(TaskImportService taskImportService, ApplicationContext applicationContext) {
+        this.taskImportService = taskImportService;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> files = args.getOptionValues("import-tasks");
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        Path file = Path.of(files.get(0));
+        List<String> formats = args.getOptionValues("import-format");
+        String format = formats != null && !formats.isEmpty() ? formats.get(0) : extension(file);
+
+        int exitCode;
+        try (InputStream in = Files.newInputStream(file)) {
+            TaskImportResult result = taskImportService.importTasks(in, TaskFileFormat.fromParameter(format));
+            logger.info("Imported {}: {} rows, {} created, {} updated, {} rejected, {} assigned in {} ms ({} rows/s)",
+                    file, result.received(), result.inserted(), result.updated(), result.rejected(), result.assigned(),
+                    result.elapsedMillis(), result.rowsPerSecond());
+            result.errors().forEach(error -> logger.warn("Line {}: {}", error.line(), error.error()));
+            exitCode = 0;
+        } catch (Exception e) {
+            logger.error("Import of {} failed", file, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1) : "";
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.taskmanager.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the executors used to run independent work in parallel
+ * and to write streamed responses.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private static final long STREAMING_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Provides the executor that runs the sections of a dashboard in parallel.
+     * The pool is kept below the size of the connection pool, because every section holds a
+     * database connection while it runs and request threads still need connections of their own.
+     * When the queue is full the section is rejected and the dashboard reports it as partial:
+     * running it on the request thread instead would take a connection outside the pool limit and ignore the section timeout.
+     *
+     * @return the dashboard executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(6);
+        executor.setMaxPoolSize(6);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Provides the executor that writes streamed response bodies such as task exports.
+     * Each running stream holds a database connection for its whole duration, so only a few run at once.
+     *
+     * @return the streaming executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("streaming-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Provides the executor that hashes passwords of imported users.
+     * BCrypt is pure CPU work, so the pool has one thread per core and holds no database connections;
+     * when the queue is full the importing thread hashes the password itself.
+     *
+     * @return the password hashing executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Runs streamed responses on the streaming executor and gives them enough time for exports of millions of rows.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor());
+        configurer.setDefaultTimeout(STREAMING_TIMEOUT_MS);
+    }
+}
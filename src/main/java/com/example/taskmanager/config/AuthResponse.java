@@ -1,13 +1,16 @@
 package com.example.taskmanager.config;
 
 /**
- * Represents an authentication response containing a JWT token.
+ * Represents an authentication response containing a short-lived access token
+ * and the refresh token used to obtain a new one.
  */
 public class AuthResponse {
     private String token;
+    private String refreshToken;
 
-    public AuthResponse(String token) {
+    public AuthResponse(String token, String refreshToken) {
         this.token = token;
+        this.refreshToken = refreshToken;
     }
 
     public String getToken() {
@@ -17,4 +20,12 @@ public class AuthResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
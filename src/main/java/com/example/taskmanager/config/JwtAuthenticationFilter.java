@@ -1,5 +1,8 @@
 package com.example.taskmanager.config;
 
+import com.example.taskmanager.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +10,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -28,7 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenRevocationService tokenRevocationService;
 
     /**
      * Processes incoming requests, extracts and validates the JWT token,
@@ -45,27 +48,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String role = null;
-        String jwtToken = null;
+        Claims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwtToken = authHeader.substring(7);
-            username = jwtUtil.extractUsername(jwtToken);
-            role = jwtUtil.extractRole(jwtToken);
+            try {
+                claims = jwtUtil.extractAllClaims(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Invalid or expired token, the request stays unauthenticated
+            }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && jwtUtil.isAccessToken(claims)
+                && !tokenRevocationService.isRevoked(claims.getId(), jwtUtil.extractUserId(claims), claims.getIssuedAt())) {
+            String role = claims.get("role", String.class);
+            var authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
+            UserDetails userDetails = new User(claims.getSubject(), "", authorities);
 
-            if (jwtUtil.isTokenValid(jwtToken, userDetails.getUsername(), role)) {
-                var authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
-                var authenticationToken = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            var authenticationToken = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                    userDetails, null, authorities);
+            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
         }
 
         filterChain.doFilter(request, response);
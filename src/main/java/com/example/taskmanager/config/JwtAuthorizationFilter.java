@@ -1,5 +1,8 @@
 package com.example.taskmanager.config;
 
+import com.example.taskmanager.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +10,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,6 +24,8 @@ import java.util.Collections;
 /**
  * JWT authorization filter that processes incoming requests, extracts the JWT token,
  * validates it, and sets the authentication context.
+ * The user details are built from the token claims and checked against the in-memory
+ * revocation list, so no database lookup is made per request.
  */
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
@@ -28,22 +33,23 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthorizationFilter.class);
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Constructs a new JwtAuthorizationFilter.
      *
-     * @param jwtUtil           utility for handling JWT tokens
-     * @param userDetailsService service to load user details
+     * @param jwtUtil                utility for handling JWT tokens
+     * @param tokenRevocationService service that tracks revoked tokens
      */
-    public JwtAuthorizationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthorizationFilter(JwtUtil jwtUtil, TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
      * Filters the incoming request, extracts and validates the JWT token,
      * and sets the authentication in the security context if valid.
+     * Expired, malformed, revoked, and refresh tokens leave the request unauthenticated.
      *
      * @param request     the HTTP request
      * @param response    the HTTP response
@@ -57,20 +63,28 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
         String token = getJwtFromRequest(request);
 
-        if (token != null && jwtUtil.isTokenValid(token, jwtUtil.extractUsername(token), jwtUtil.extractRole(token))) {
-            String username = jwtUtil.extractUsername(token);
-            String role = jwtUtil.extractRole(token);
+        if (token != null) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(token);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (jwtUtil.isAccessToken(claims)
+                        && !tokenRevocationService.isRevoked(claims.getId(), jwtUtil.extractUserId(claims), claims.getIssuedAt())) {
+                    String username = claims.getSubject();
+                    String role = claims.get("role", String.class);
 
-            var authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
+                    var authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
+                    UserDetails userDetails = new User(username, "", authorities);
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, authorities);
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, authorities);
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            logger.info("User '{}' authenticated successfully", username);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    logger.info("User '{}' authenticated successfully", username);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Rejected JWT token: {}", e.getMessage());
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -89,4 +103,4 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -8,31 +8,66 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Utility class for handling JWT (JSON Web Tokens) operations.
  * Provides methods for generating, validating, and extracting claims from JWTs.
+ * Two kinds of tokens are issued: short-lived access tokens sent with every request,
+ * and long-lived refresh tokens that are only accepted by the refresh endpoint.
  */
 @Component
 public class JwtUtil {
 
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    public static final long ACCESS_TOKEN_VALIDITY_MS = 1000 * 60 * 15; // 15 minutes
+    public static final long REFRESH_TOKEN_VALIDITY_MS = 1000L * 60 * 60 * 24 * 7; // 7 days
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256); // Generates a secret key for signing JWTs
 
     /**
-     * Generates a JWT token for a given username and role.
-     * The token includes the username, role, issue date, and expiration time (10 hours).
+     * Generates an access token for a given user.
+     * The token includes the username, user ID, role, a unique token ID, issue date, and expiration time (15 minutes).
      *
+     * @param userId   the ID of the user for which the token is generated
      * @param username the username for which the token is generated
      * @param role     the role associated with the user
      * @return the generated JWT token
      */
-    public String generateToken(String username, String role) {
+    public String generateToken(Integer userId, String username, String role) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim("uid", userId)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours expiration
+                .claim("type", TOKEN_TYPE_ACCESS)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ACCESS_TOKEN_VALIDITY_MS))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Generates a refresh token for a given user.
+     * The token carries no role, so a new access token always picks up the user's current role.
+     *
+     * @param userId   the ID of the user for which the token is generated
+     * @param username the username for which the token is generated
+     * @return the generated refresh token
+     */
+    public String generateRefreshToken(Integer userId, String username) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim("uid", userId)
+                .claim("type", TOKEN_TYPE_REFRESH)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + REFRESH_TOKEN_VALIDITY_MS))
                 .signWith(key)
                 .compact();
     }
@@ -69,6 +104,36 @@ public class JwtUtil {
         return extractRole(token).equals(role) && extractUsername(token).equals(username) && !isTokenExpired(token);
     }
 
+    /**
+     * Checks whether the parsed claims belong to an access token.
+     *
+     * @param claims the claims of a parsed token
+     * @return true if the token is an access token, false otherwise
+     */
+    public boolean isAccessToken(Claims claims) {
+        return TOKEN_TYPE_ACCESS.equals(claims.get("type", String.class));
+    }
+
+    /**
+     * Checks whether the parsed claims belong to a refresh token.
+     *
+     * @param claims the claims of a parsed token
+     * @return true if the token is a refresh token, false otherwise
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get("type", String.class));
+    }
+
+    /**
+     * Extracts the user ID from the parsed claims.
+     *
+     * @param claims the claims of a parsed token
+     * @return the user ID, or {@code null} if the token does not carry one
+     */
+    public Integer extractUserId(Claims claims) {
+        return claims.get("uid", Integer.class);
+    }
+
     /**
      * Checks if the JWT token is expired.
      *
@@ -104,15 +169,18 @@ public class JwtUtil {
 
     /**
      * Extracts all claims from the JWT token.
+     * The signature and expiration are verified while parsing, so callers that need
+     * several claims should parse the token once with this method.
      *
      * @param token the JWT token from which all claims are extracted
      * @return all claims contained in the token
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with, or expired
      */
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(key)
                 .build()
                 .parseClaimsJws(token)
                 .getBody();
     }
-}
\ No newline at end of file
+}
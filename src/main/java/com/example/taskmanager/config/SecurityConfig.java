@@ -3,6 +3,7 @@ package com.example.taskmanager.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -40,6 +41,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
                                 .requestMatchers("/api/login", "/api/login/**").permitAll() // Allow unauthenticated access to login endpoints
+                                .requestMatchers("/api/logout").permitAll() // Logout checks the tokens it revokes itself
+                                .requestMatchers("/actuator/**").hasAuthority("ADMIN") // Metrics are for admins only
+                                .requestMatchers(HttpMethod.POST, "/api/tasks/import", "/api/users/import").hasAuthority("ADMIN") // Bulk imports are for admins only
                                 .anyRequest().authenticated() // All other requests require authentication
                 )
                 .addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter before the authentication filter
@@ -50,7 +54,8 @@ public class SecurityConfig {
     /**
      * Configures CORS (Cross-Origin Resource Sharing) settings.
      * Allows requests from the front-end application running on "http://localhost:3000".
-     * Configures allowed methods (GET, POST, PUT, DELETE, OPTIONS) and headers.
+     * Configures allowed methods (GET, POST, PUT, PATCH, DELETE, OPTIONS) and headers, and exposes the ETag
+     * response header so the front end can send it back in If-Match.
      *
      * @return the configured CORS configuration source
      */
@@ -64,7 +69,9 @@ public class SecurityConfig {
         configuration.addAllowedMethod("GET"); // Allow GET method
         configuration.addAllowedMethod("POST"); // Allow POST method
         configuration.addAllowedMethod("PUT"); // Allow PUT method
+        configuration.addAllowedMethod("PATCH"); // Allow PATCH method
         configuration.addAllowedMethod("DELETE"); // Allow DELETE method
+        configuration.addExposedHeader("ETag"); // Let the front end read the ETag for If-Match
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration); // Apply CORS configuration to all endpoints
         return source;
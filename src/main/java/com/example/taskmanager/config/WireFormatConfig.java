@@ -0,0 +1,107 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskChanges;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.dto.UserSummary;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configures the wire formats of the REST API.
+ * Besides JSON, clients can ask for Smile ({@code Accept: application/x-jackson-smile}) or CBOR
+ * ({@code Accept: application/cbor}), binary encodings of the same data model that are smaller and cheaper
+ * to write and parse; they are meant for internal service-to-service consumers. All three formats are written
+ * with the application's Jackson settings, so dates and ignored properties look the same in each.
+ * Writers for the hot response types are built once per type with their root serializer already
+ * resolved, instead of per response. Compression of large responses is configured in application.properties.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /**
+     * Response types written often enough that their writers are kept, matched on the raw class so that
+     * every parameterization of a generic page type is covered.
+     */
+    private static final Set<Class<?>> HOT_TYPES = Set.of(Task.class, User.class, CursorPage.class, TaskChanges.class,
+            TaskSummary.class, TaskSearchHit.class, UserSummary.class, List.class);
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        HotWriters writers = new HotWriters(objectMapper);
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType, @Nullable MediaType contentType) {
+                return writers.get(writer, javaType);
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper objectMapper = builder.createXmlMapper(false).factory(new SmileFactory()).build();
+        HotWriters writers = new HotWriters(objectMapper);
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType, @Nullable MediaType contentType) {
+                return writers.get(writer, javaType);
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper objectMapper = builder.createXmlMapper(false).factory(new CBORFactory()).build();
+        HotWriters writers = new HotWriters(objectMapper);
+        return new MappingJackson2CborHttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType, @Nullable MediaType contentType) {
+                return writers.get(writer, javaType);
+            }
+        };
+    }
+
+    /**
+     * Writers of one object mapper for the hot response types, created on first use of each type.
+     */
+    private static final class HotWriters {
+
+        private final ObjectMapper objectMapper;
+        private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        HotWriters(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        /**
+         * Returns the kept writer for a hot type, or the converter's writer if the type is not hot or the
+         * converter has set up a view or filters for this response, which the kept writers do not carry.
+         */
+        ObjectWriter get(ObjectWriter writer, @Nullable JavaType javaType) {
+            if (javaType == null || !HOT_TYPES.contains(javaType.getRawClass())
+                    || writer.getConfig().getActiveView() != null || writer.getConfig().getFilterProvider() != null) {
+                return writer;
+            }
+            return writers.computeIfAbsent(javaType, objectMapper::writerFor);
+        }
+    }
+}
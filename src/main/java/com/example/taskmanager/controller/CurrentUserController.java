@@ -3,12 +3,15 @@ package com.example.taskmanager.controller;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Controller for handling requests related to the current authenticated user.
@@ -25,15 +28,28 @@ public class CurrentUserController {
      * Endpoint to retrieve the current authenticated user.
      * Uses the @AuthenticationPrincipal annotation to get the authenticated user's details.
      *
+     * Answers 304 Not Modified without loading the user if the client's If-None-Match still matches the user's ETag.
+     *
      * @param userDetails the details of the currently authenticated user
+     * @param request     the request, for the conditional headers
      * @return a ResponseEntity containing the current user's data, or an error message if the user is not found
      */
     @GetMapping("")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = userService.getUserETag(userDetails.getUsername()); // Version stamps only, without loading the user
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
+        }
         User currentUser = userService.findByUsername(userDetails.getUsername()); // Retrieve the user by username
         if (currentUser == null) {
             return ResponseEntity.status(404).body("User not found"); // Return error if user not found
         }
-        return ResponseEntity.ok(currentUser); // Return the current user's data
+        return ResponseEntity.ok()
+                .eTag(userService.getUserETag(currentUser))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(currentUser); // Return the current user's data
     }
 }
@@ -1,14 +1,19 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.dto.UserSummary;
 import com.example.taskmanager.entity.Department;
-import com.example.taskmanager.entity.Task;
-import com.example.taskmanager.entity.User;
 import com.example.taskmanager.service.DepartmentService;
 import com.example.taskmanager.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -54,12 +59,21 @@ public class DepartmentController {
 
     /**
      * Retrieves a list of all departments.
+     * Answers 304 Not Modified without loading the departments if the client's If-None-Match still matches the list's ETag.
+     * @param request The request, for the conditional headers.
      * @return A list of all departments with HTTP status OK (200).
      */
     @GetMapping
-    public ResponseEntity<List<Department>> getAllDepartments() {
+    public ResponseEntity<List<Department>> getAllDepartments(WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(departmentService.getDepartmentsETag())) {
+            return null;
+        }
         List<Department> departments = departmentService.getAllDepartments();
-        return ResponseEntity.ok(departments);
+        return ResponseEntity.ok()
+                .eTag(departmentService.getDepartmentsETag(departments))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(departments);
     }
 
     /**
@@ -68,17 +82,31 @@ public class DepartmentController {
      * @return A list of users in the specified department.
      */
     @GetMapping("/{departmentId}/users")
-    public List<User> getUsersByDepartment(@PathVariable int departmentId) {
+    public List<UserSummary> getUsersByDepartment(@PathVariable int departmentId) {
         return departmentService.getUsersByDepartmentId(departmentId);
     }
 
     /**
-     * Retrieves a list of all tasks assigned to a specific department.
+     * Retrieves one page of the tasks belonging to a specific department, including unassigned tasks.
+     * Pages are fetched with a cursor, the same way as for the task list.
      * @param departmentId The ID of the department whose tasks are to be retrieved.
-     * @return A list of tasks for the specified department.
+     * @param sort The sort field: id, createdAt, updatedAt or dueDate.
+     * @param direction The sort direction: asc or desc.
+     * @param cursor The cursor returned with the previous page, omitted for the first page.
+     * @param limit The maximum number of tasks per page.
+     * @return A page of tasks for the specified department.
      */
     @GetMapping("/{departmentId}/tasks")
-    public List<Task> getTasksByDepartment(@PathVariable int departmentId) {
-        return departmentService.getTasksByDepartmentId(departmentId);
+    public ResponseEntity<?> getTasksByDepartment(@PathVariable int departmentId,
+                                                  @RequestParam(defaultValue = "id") String sort,
+                                                  @RequestParam(defaultValue = "asc") String direction,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+            return ResponseEntity.badRequest().body("Direction must be asc or desc");
+        }
+        CursorPage<TaskSummary> page = departmentService.getTasksByDepartmentId(departmentId, TaskSort.fromParameter(sort),
+                "desc".equalsIgnoreCase(direction), cursor, limit);
+        return ResponseEntity.ok(page);
     }
 }
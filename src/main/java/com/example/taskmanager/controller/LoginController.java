@@ -3,8 +3,13 @@ package com.example.taskmanager.controller;
 import com.example.taskmanager.config.AuthResponse;
 import com.example.taskmanager.config.JwtUtil;
 import com.example.taskmanager.entity.LoginRequest;
+import com.example.taskmanager.entity.RefreshTokenRequest;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.service.TokenRevocationService;
 import com.example.taskmanager.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,7 +21,7 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller for handling user authentication.
- * Provides endpoints for logging in and handling preflight requests.
+ * Provides endpoints for logging in, refreshing and revoking tokens, and handling preflight requests.
  */
 @RestController
 @RequestMapping("/api")
@@ -31,11 +36,14 @@ public class LoginController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     /**
-     * Logs in a user by authenticating the provided credentials and returning a JWT token.
+     * Logs in a user by authenticating the provided credentials and returning an access and a refresh token.
      *
      * @param loginRequest Contains the username and password for login.
-     * @return ResponseEntity containing the JWT token if authentication is successful,
+     * @return ResponseEntity containing the JWT tokens if authentication is successful,
      *         or an error message if authentication fails.
      */
     @PostMapping("/login")
@@ -48,16 +56,121 @@ public class LoginController {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             User user = userService.findByUsername(userDetails.getUsername());
 
-            String token = jwtUtil.generateToken(userDetails.getUsername(), user.getRole().toString());
+            String token = jwtUtil.generateToken(user.getId(), userDetails.getUsername(), user.getRole().toString());
+            String refreshToken = jwtUtil.generateRefreshToken(user.getId(), userDetails.getUsername());
 
             userService.updateUserLastLogin(userDetails.getUsername());
 
-            return ResponseEntity.ok(new AuthResponse(token));
+            return ResponseEntity.ok(new AuthResponse(token, refreshToken));
         } catch (AuthenticationException e) {
             return ResponseEntity.status(401).body("Invalid username or password");
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented refresh token is revoked, so each refresh token can be used only once.
+     * The revocation is what claims the token: when two refreshes with the same token race,
+     * only the one that inserts the revocation gets new tokens and the other is rejected.
+     * The user is looked up again, so deleted users cannot refresh and role changes are picked up.
+     *
+     * @param refreshTokenRequest Contains the refresh token issued at login or by a previous refresh.
+     * @return ResponseEntity containing the new JWT tokens, or an error message if the refresh token is not accepted.
+     */
+    @PostMapping("/login/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(refreshTokenRequest.getRefreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+
+        Integer userId = jwtUtil.extractUserId(claims);
+        if (!jwtUtil.isRefreshToken(claims) || tokenRevocationService.isRevoked(claims.getId(), userId, claims.getIssuedAt())) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+
+        User user = userService.findByUsername(claims.getSubject());
+        if (user == null || !user.getId().equals(userId)) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+
+        if (!tokenRevocationService.revokeToken(claims.getId(), userId, claims.getExpiration())) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().toString());
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getUsername());
+        return ResponseEntity.ok(new AuthResponse(token, refreshToken));
+    }
+
+    /**
+     * Logs out a session by revoking its access token, its refresh token, or both.
+     * The endpoint does not require authentication, so a client whose access token has already expired
+     * can still revoke its refresh token. Expired tokens need no revocation and are skipped.
+     *
+     * @param authorization Optionally the Authorization header carrying the access token as a Bearer token.
+     * @param refreshTokenRequest Optionally contains the refresh token to revoke.
+     * @return ResponseEntity with status 204 No Content, 400 Bad Request if the Authorization header is not
+     *         a Bearer token or no token is given, or 401 Unauthorized if a token is malformed or of the wrong type.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        if (authorization != null && !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Authorization header must carry a Bearer token");
+        }
+        String refreshToken = refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null;
+        if (authorization == null && refreshToken == null) {
+            return ResponseEntity.badRequest().body("No token to revoke");
+        }
+
+        // Both tokens are checked before either is revoked, so a rejected request revokes nothing
+        Claims accessClaims;
+        Claims refreshClaims;
+        try {
+            accessClaims = authorization != null ? claimsUnlessExpired(authorization.substring(7)) : null;
+            refreshClaims = refreshToken != null ? claimsUnlessExpired(refreshToken) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(401).body("Invalid token");
+        }
+        if ((accessClaims != null && !jwtUtil.isAccessToken(accessClaims))
+                || (refreshClaims != null && !jwtUtil.isRefreshToken(refreshClaims))) {
+            return ResponseEntity.status(401).body("Invalid token");
+        }
+
+        revoke(accessClaims);
+        revoke(refreshClaims);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Reads the claims of a token that is still valid.
+     *
+     * @param token The token.
+     * @return The claims, or null if the token has expired.
+     * @throws JwtException if the token is malformed or tampered with.
+     */
+    private Claims claimsUnlessExpired(String token) {
+        try {
+            return jwtUtil.extractAllClaims(token);
+        } catch (ExpiredJwtException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Revokes the token with the given claims, if any.
+     *
+     * @param claims The claims of the token, or null.
+     */
+    private void revoke(Claims claims) {
+        if (claims != null) {
+            tokenRevocationService.revokeToken(claims.getId(), jwtUtil.extractUserId(claims), claims.getExpiration());
+        }
+    }
+
     /**
      * Handles preflight OPTIONS requests for the /login endpoint, used in CORS handling.
      *
@@ -1,5 +1,7 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.NotificationField;
 import com.example.taskmanager.entity.Notification;
 import com.example.taskmanager.service.NotificationService;
 import com.example.taskmanager.service.UserService;
@@ -34,12 +36,18 @@ public class NotificationController {
 
     /**
      * Retrieves all unread notifications for the currently authenticated user.
+     * With "fields", e.g. fields=id,message, only the named fields of each notification are read and returned.
+     * @param fields Optional comma-separated list of the fields to return.
      * @return A list of unread notifications.
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications() {
+    public ResponseEntity<?> getUnreadNotifications(@RequestParam(required = false) String fields) {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
+        FieldSet<NotificationField> fieldSet = FieldSet.parse(fields, NotificationField.class);
+        if (fieldSet != null) {
+            return ResponseEntity.ok(notificationService.findNotificationFields(username, true, fieldSet));
+        }
         List<Notification> notifications = notificationService.getUnreadNotifications(username);
         return ResponseEntity.ok(notifications);
     }
@@ -74,12 +82,18 @@ public class NotificationController {
 
     /**
      * Retrieves all notifications for the currently authenticated user.
+     * With "fields", e.g. fields=id,message, only the named fields of each notification are read and returned.
+     * @param fields Optional comma-separated list of the fields to return.
      * @return A list of all notifications for the user.
      */
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications() {
+    public ResponseEntity<?> getAllNotifications(@RequestParam(required = false) String fields) {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
+        FieldSet<NotificationField> fieldSet = FieldSet.parse(fields, NotificationField.class);
+        if (fieldSet != null) {
+            return ResponseEntity.ok(notificationService.findNotificationFields(username, false, fieldSet));
+        }
         List<Notification> notifications = notificationService.findNotificationsByUsername(username);
 
         notifications.forEach(n -> {
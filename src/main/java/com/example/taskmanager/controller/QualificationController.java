@@ -4,9 +4,12 @@ import com.example.taskmanager.entity.Qualification;
 import com.example.taskmanager.service.QualificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -50,12 +53,21 @@ public class QualificationController {
 
     /**
      * Retrieves all qualifications.
+     * Answers 304 Not Modified without loading the qualifications if the client's If-None-Match still matches the list's ETag.
+     * @param request The request, for the conditional headers.
      * @return A list of all qualifications.
      */
     @GetMapping
-    public ResponseEntity<List<Qualification>> getAllQualifications() {
+    public ResponseEntity<List<Qualification>> getAllQualifications(WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(qualificationService.getQualificationsETag())) {
+            return null;
+        }
         List<Qualification> qualifications = qualificationService.getAllQualifications();
-        return new ResponseEntity<>(qualifications, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(qualificationService.getQualificationsETag(qualifications))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(qualifications);
     }
 
     /**
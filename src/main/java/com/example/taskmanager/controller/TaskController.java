@@ -1,25 +1,51 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskBulkRequest;
+import com.example.taskmanager.dto.TaskBulkResult;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.TaskChanges;
+import com.example.taskmanager.dto.TaskField;
+import com.example.taskmanager.dto.TaskFileFormat;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.Notification;
+import com.example.taskmanager.entity.Qualification;
 import com.example.taskmanager.entity.Task;
 import com.example.taskmanager.entity.TaskComment;
 import com.example.taskmanager.entity.User;
+import com.example.taskmanager.exception.ResourceNotFoundException;
 import com.example.taskmanager.service.NotificationService;
+import com.example.taskmanager.service.TaskBulkService;
+import com.example.taskmanager.service.TaskExportService;
+import com.example.taskmanager.service.TaskImportService;
 import com.example.taskmanager.service.TaskService;
 import com.example.taskmanager.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +66,15 @@ public class TaskController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskBulkService taskBulkService;
+
     public TaskController(TaskService taskService, NotificationService notificationService) {
         this.taskService = taskService;
         this.notificationService = notificationService;
@@ -57,86 +92,241 @@ public class TaskController {
     }
 
     /**
-     * Retrieves all tasks assigned to the currently authenticated user.
+     * Retrieves one page of the tasks visible to the currently authenticated user.
      * The tasks returned depend on the role of the user:
      * - Admin: Retrieves all tasks.
      * - Department head: Retrieves tasks for the specific department.
      * - Employee: Retrieves tasks assigned to the user.
+     * Pages are fetched with a cursor: the response carries "nextCursor", which is passed back
+     * as the cursor parameter to fetch the following page, and is null on the last page.
      * @param userDetails The authenticated user's details.
-     * @return A list of tasks based on the user's role.
+     * @param status Optional status filter.
+     * @param priority Optional priority filter.
+     * @param assignedTo Optional assigned user ID filter.
+     * @param department Optional department ID filter.
+     * @param dueFrom Optional earliest due date (inclusive).
+     * @param dueTo Optional latest due date (inclusive).
+     * @param qualification Optional required qualification filter.
+     * @param sort The sort field: id, createdAt, updatedAt or dueDate.
+     * @param direction The sort direction: asc or desc.
+     * @param cursor The cursor returned with the previous page, omitted for the first page.
+     * @param limit The maximum number of tasks per page.
+     * @param fields Optional comma-separated list of the fields to return, e.g. id,title,status,dueDate;
+     *               only those columns are read.
+     * @return A page of tasks based on the user's role and the filters.
      */
     @GetMapping
-    public ResponseEntity<?> getTasks(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getTasks(@AuthenticationPrincipal UserDetails userDetails,
+                                      @RequestParam(required = false) Task.TaskStatus status,
+                                      @RequestParam(required = false) Task.TaskPriority priority,
+                                      @RequestParam(required = false) Integer assignedTo,
+                                      @RequestParam(required = false) Integer department,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                      @RequestParam(required = false) Qualification.QualificationType qualification,
+                                      @RequestParam(defaultValue = "id") String sort,
+                                      @RequestParam(defaultValue = "asc") String direction,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") int limit,
+                                      @RequestParam(required = false) String fields) {
         if (userDetails != null) {
             User currentUser = userService.findByUsername(userDetails.getUsername());
             if (currentUser == null) {
                 return ResponseEntity.status(404).body("User not found");
             }
-
-            List<Task> tasks;
-            if (currentUser.getRole() == User.UserRole.ADMIN){
-                tasks = taskService.getAllTasks();
-            }
-            else if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD) {
-                tasks = taskService.findTasksByDepartment(currentUser.getDepartment().getId());
-            } else {
-                tasks = taskService.findTasksByUser(currentUser.getId());
+            if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+                return ResponseEntity.badRequest().body("Direction must be asc or desc");
             }
 
-            return ResponseEntity.ok(tasks);
+            TaskFilter filter = new TaskFilter(status, priority, assignedTo, department, dueFrom, dueTo, qualification);
+            FieldSet<TaskField> fieldSet = FieldSet.parse(fields, TaskField.class);
+            if (fieldSet != null) {
+                return ResponseEntity.ok(taskService.findTaskPage(currentUser, filter, TaskSort.fromParameter(sort),
+                        "desc".equalsIgnoreCase(direction), cursor, limit, fieldSet));
+            }
+            CursorPage<TaskSummary> page = taskService.findTaskPage(currentUser, filter, TaskSort.fromParameter(sort),
+                    "desc".equalsIgnoreCase(direction), cursor, limit);
+            return ResponseEntity.ok(page);
         }
         return ResponseEntity.status(401).body("Unauthorized");
     }
 
     /**
-     * Retrieves a task by its ID.
-     * @param id The ID of the task.
-     * @return The task with the specified ID.
+     * Searches the tasks visible to the currently authenticated user by title, description and comments.
+     * Results are ranked by relevance and fetched page by page with the "nextCursor" of the response.
+     * Queries matching more than 10,000 tasks only rank the newest of them, so they should be narrowed down.
+     * @param userDetails The authenticated user's details.
+     * @param q The search query.
+     * @param cursor The cursor returned with the previous page, omitted for the first page.
+     * @param limit The maximum number of results per page.
+     * @return A page of matching tasks, best match first.
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Integer id) {
-        Task task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(@AuthenticationPrincipal UserDetails userDetails,
+                                         @RequestParam String q,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        if (userDetails != null) {
+            User currentUser = userService.findByUsername(userDetails.getUsername());
+            if (currentUser == null) {
+                return ResponseEntity.status(404).body("User not found");
+            }
+            CursorPage<TaskSearchHit> page = taskService.searchTasks(currentUser, q, cursor, limit);
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.status(401).body("Unauthorized");
     }
 
     /**
-     * Updates a task's status, description, or adds a comment.
-     * The description can only be updated by Admin or Department Head.
-     * @param id The ID of the task to update.
-     * @param updates A map containing the fields to update (status, description, comments).
+     * Retrieves the changes to the tasks visible to the currently authenticated user since the last sync.
+     * Clients keep a local copy of their task list and poll with the returned cursor, so each poll
+     * transfers only what changed; without a cursor all tasks are returned as changed.
      * @param userDetails The authenticated user's details.
-     * @return The updated task.
+     * @param since The cursor returned by the previous sync.
+     * @param limit The maximum number of changed and of removed tasks in the response.
+     * @return The changed tasks, the IDs of removed tasks and the cursor for the next sync.
      */
-    @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Integer id, @RequestBody Map<String, Object> updates, @AuthenticationPrincipal UserDetails userDetails) {
-        Task task = taskService.findTaskById(id);
-
-        if (task == null) {
-            return ResponseEntity.status(404).body(null);
+    @GetMapping("/changes")
+    public ResponseEntity<?> getTaskChanges(@AuthenticationPrincipal UserDetails userDetails,
+                                            @RequestParam(required = false) String since,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        if (userDetails != null) {
+            User currentUser = userService.findByUsername(userDetails.getUsername());
+            if (currentUser == null) {
+                return ResponseEntity.status(404).body("User not found");
+            }
+            TaskChanges changes = taskService.getTaskChanges(currentUser, since, limit);
+            return ResponseEntity.ok(changes);
         }
+        return ResponseEntity.status(401).body("Unauthorized");
+    }
 
-        if (updates.containsKey("status")) {
-            task.setStatus(Task.TaskStatus.valueOf((String) updates.get("status")));
+    /**
+     * Streams all tasks visible to the currently authenticated user as a file, for reporting.
+     * Rows are written while they are read from the database, so exports of any size use constant memory.
+     * @param userDetails The authenticated user's details.
+     * @param format The file format: ndjson (one JSON object per line) or csv.
+     * @return The streamed export.
+     */
+    // Declared as StreamingResponseBody, which is what makes Spring MVC write the body asynchronously
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@AuthenticationPrincipal UserDetails userDetails,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        if (userDetails != null) {
+            User currentUser = userService.findByUsername(userDetails.getUsername());
+            if (currentUser == null) {
+                throw new ResourceNotFoundException("User not found");
+            }
+            TaskFileFormat fileFormat = TaskFileFormat.fromParameter(format);
+            StreamingResponseBody body = out -> taskExportService.exportTasks(currentUser, fileFormat, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(fileFormat.contentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + fileFormat.parameter() + "\"")
+                    .body(body);
         }
+        return ResponseEntity.status(401).build();
+    }
 
-        if (updates.containsKey("comments")) {
-            taskService.addComment(task.getId(), (String) updates.get("comments"));
-            notificationService.sendNotification("New comment on task: " + task.getTitle() + " - " + updates.get("comments"), task.getAssignedTo().getUsername(), Notification.NotificationType.TASK, task.getId());
-        }
+    /**
+     * Imports tasks from a file uploaded as the request body, creating new tasks and updating the tasks
+     * whose external reference already exists. Created tasks without an assignee are assigned automatically.
+     * Only admins may import tasks; invalid rows are skipped and reported in the result.
+     * @param format The file format: csv (with a header line) or ndjson (one JSON object per line).
+     * @param body The file contents.
+     * @return The import result with the number of imported and rejected rows.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<TaskImportResult> importTasks(@RequestParam(defaultValue = "csv") String format,
+                                                        InputStream body) throws IOException {
+        TaskImportResult result = taskImportService.importTasks(body, TaskFileFormat.fromParameter(format));
+        return ResponseEntity.ok(result);
+    }
 
-        String role = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
+    /**
+     * Changes the status of, reassigns or deletes many tasks in one request, selected by ID, by a filter, or both.
+     * Only the tasks visible to the user are changed. Employees may only change the status of their own tasks;
+     * reassigning and deleting is for admins and department heads.
+     * Each affected user receives one notification summarizing the change instead of one per task.
+     * @param request The operation, the tasks to apply it to, and the new status or assignee.
+     * @param userDetails The authenticated user's details.
+     * @return The number of selected and changed tasks.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkUpdateTasks(@RequestBody TaskBulkRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails != null) {
+            User currentUser = userService.findByUsername(userDetails.getUsername());
+            if (currentUser == null) {
+                return ResponseEntity.status(404).body("User not found");
+            }
+            if (request.operation() != TaskBulkRequest.Operation.SET_STATUS && currentUser.getRole() == User.UserRole.EMPLOYEE) {
+                return ResponseEntity.status(403).body("Only admins and department heads can reassign or delete tasks");
+            }
+            TaskBulkResult result = taskBulkService.apply(currentUser, request);
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.status(401).body("Unauthorized");
+    }
 
-        if ("ROLE_ADMIN".equals(role) || "ROLE_DEPARTMENT_HEAD".equals(role)) {
-            if (updates.containsKey("description")) {
-                task.setDescription((String) updates.get("description"));
+    /**
+     * Retrieves a task by its ID.
+     * Answers 304 Not Modified without loading the task if the client's If-None-Match still matches its ETag.
+     * With "fields", e.g. fields=id,title,status,dueDate, only the named fields are read and returned.
+     * @param id The ID of the task.
+     * @param fields Optional comma-separated list of the fields to return.
+     * @param request The request, for the conditional headers.
+     * @return The task with the specified ID.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getTaskById(@PathVariable Integer id, @RequestParam(required = false) String fields, WebRequest request) {
+        FieldSet<TaskField> fieldSet = FieldSet.parse(fields, TaskField.class);
+        if (fieldSet != null) {
+            // The tag covers the whole task; a sparse response is cached under its own URL
+            String eTag = taskService.getTaskETag(id);
+            if (request.checkNotModified(eTag)) {
+                return null;
             }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(taskService.getTaskFields(id, fieldSet));
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(taskService.getTaskETag(id))) {
+            return null;
         }
+        Task task = taskService.getTaskById(id);
+        return ResponseEntity.ok()
+                .eTag(taskService.getTaskETag(task))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT) // Same tag for every wire format, so caches must keep them apart
+                .body(task);
+    }
 
-        Task updatedTask = taskService.updateTask(id, task);
-        return ResponseEntity.ok(updatedTask);
+    /**
+     * Updates some fields of a task and optionally adds a comment; fields left out of the request are not changed.
+     * Any user may change the status and comment, while the title, description, priority and due date
+     * can only be changed by an admin or department head.
+     * With an If-Match header carrying the ETag the task was read with, the update is only applied if nobody
+     * changed the task since: otherwise the answer is 412 Precondition Failed, or 409 Conflict if the other change
+     * is committed while this one is in progress.
+     * @param id The ID of the task to update.
+     * @param patch The fields to change, and in "comments" the text of a comment to add.
+     * @param ifMatch The ETag the client last read, optional.
+     * @param userDetails The authenticated user's details.
+     * @return The updated task, with its new ETag.
+     */
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    public ResponseEntity<?> updateTask(@PathVariable Integer id, @Valid @RequestBody TaskPatch patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @AuthenticationPrincipal UserDetails userDetails) {
+        if (patch.changesDetails() && !hasRole(userDetails, User.UserRole.ADMIN, User.UserRole.DEPARTMENT_HEAD)) {
+            return ResponseEntity.status(403).body("Only admins and department heads can change task details");
+        }
+        Task updatedTask = taskService.patchTask(id, patch, ifMatch);
+        return ResponseEntity.ok()
+                .eTag(taskService.getTaskETag(updatedTask))
+                .body(updatedTask);
     }
 
     /**
@@ -175,6 +365,22 @@ public class TaskController {
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * Tells whether the authenticated user has one of the given roles.
+     * Roles are granted as authorities named after the role, with or without the "ROLE_" prefix.
+     */
+    private static boolean hasRole(UserDetails userDetails, User.UserRole... roles) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority().startsWith("ROLE_") ? authority.getAuthority().substring(5) : authority.getAuthority();
+            for (User.UserRole role : roles) {
+                if (role.name().equals(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Handles validation exceptions and returns error messages.
      * @param ex The exception containing validation errors.
@@ -1,13 +1,23 @@
 package com.example.taskmanager.controller;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.UserDirectoryEntry;
+import com.example.taskmanager.dto.UserField;
+import com.example.taskmanager.dto.UserImportResult;
+import com.example.taskmanager.dto.UserPatch;
 import com.example.taskmanager.entity.*;
+import com.example.taskmanager.exception.PreconditionFailedException;
 import com.example.taskmanager.exception.ResourceNotFoundException;
 import com.example.taskmanager.service.NotificationService;
+import com.example.taskmanager.service.UserImportService;
 import com.example.taskmanager.service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,6 +25,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -29,6 +41,9 @@ public class UserController {
     @Autowired
     public NotificationService notificationService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     @Autowired
     public UserController(UserService userService) {
         this.userService = userService;
@@ -55,24 +70,51 @@ public class UserController {
     }
 
     /**
-     * Updates an existing user's data.
+     * Creates many users from a CSV file uploaded as the request body, with a header line listing
+     * {@link UserImportService#COLUMNS}. Only admins may import users; invalid rows and rows whose username
+     * or email already exists are skipped and reported in the result.
+     * @param body The file contents.
+     * @return The import result with the number of created and rejected users.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<UserImportResult> importUsers(InputStream body) throws IOException {
+        UserImportResult result = userImportService.importUsers(body);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Updates some fields of an existing user; fields left out of the request are not changed.
+     *
+     * With an If-Match header, the update is only applied if the user still has that ETag.
      *
      * @param id The ID of the user to update.
-     * @param userData The updated data for the user.
-     * @return ResponseEntity with the updated user and HTTP status code.
+     * @param patch The fields to change.
+     * @param ifMatch The ETag the client last read, optional.
+     * @return ResponseEntity with the updated user and HTTP status code: 412 if the If-Match header no longer
+     * matches, 409 if the user was changed concurrently.
      */
-    @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Integer id, @RequestBody Map<String, Object> userData) {
+    @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
+    public ResponseEntity<?> updateUser(@PathVariable Integer id, @Valid @RequestBody UserPatch patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            User updatedUser = userService.updateUser(id, userData);
+            User updatedUser = userService.patchUser(id, patch, ifMatch);
             logger.info("Updated user: {}", updatedUser.toString());
             // Send notification to admin about the user update
             notificationService.sendAdminNotification("New user update registered: " + updatedUser.getUsername(), Notification.NotificationType.USER, updatedUser.getId());
 
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok()
+                    .eTag(userService.getUserETag(updatedUser))
+                    .body(updatedUser);
         } catch (ResourceNotFoundException e) {
             logger.error("User not found with id: {}", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("The user was changed concurrently, reload it and try again");
         } catch (Exception e) {
             logger.error("Error updating user with id: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -82,20 +124,27 @@ public class UserController {
     /**
      * Gets a list of users based on the current user's role.
      *
+     * With "fields", e.g. fields=id,username, only the named fields of each user are read and returned.
+     *
      * @param userDetails The details of the currently authenticated user.
+     * @param fields Optional comma-separated list of the fields to return.
      * @return ResponseEntity with the list of users or an error message.
      */
     @GetMapping
-    public ResponseEntity<?> getUsers(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getUsers(@AuthenticationPrincipal UserDetails userDetails,
+                                      @RequestParam(required = false) String fields) {
         if (userDetails != null) {
             User currentUser = userService.findByUsername(userDetails.getUsername());
-            List<User> users;
+            FieldSet<UserField> fieldSet = FieldSet.parse(fields, UserField.class);
+            List<?> users;
 
             // Logic to get users based on the role
             if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD) {
-                users = userService.findUsersByDepartment(currentUser.getDepartment().getId());
+                Integer departmentId = currentUser.getDepartment().getId();
+                users = fieldSet != null ? userService.findUserFields(fieldSet, departmentId)
+                        : userService.findUserSummariesByDepartment(departmentId);
             } else if (currentUser.getRole() == User.UserRole.ADMIN) {
-                users = userService.getAllUsers();
+                users = fieldSet != null ? userService.findUserFields(fieldSet, null) : userService.getAllUserSummaries();
             } else {
                 // Deny access if role doesn't match
                 return ResponseEntity.status(403).body("Access Denied");
@@ -107,16 +156,49 @@ public class UserController {
         return ResponseEntity.status(401).body("Unauthorized");
     }
 
+    /**
+     * Gets one page of the user directory, for example to pick an assignee, optionally searching by prefix.
+     * Admins page through all users, department heads through the users of their department.
+     * Further pages are fetched with the "nextCursor" of the response.
+     *
+     * @param userDetails The details of the currently authenticated user.
+     * @param q Optional prefix of the username, first name or last name; "first last" matches both names.
+     * @param department Optional department ID to narrow the directory to, for admins.
+     * @param cursor The cursor returned with the previous page, omitted for the first page.
+     * @param limit The maximum number of users per page.
+     * @return ResponseEntity with a page of users in username order or an error message.
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<?> getUserDirectory(@AuthenticationPrincipal UserDetails userDetails,
+                                              @RequestParam(required = false) String q,
+                                              @RequestParam(required = false) Integer department,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        if (userDetails != null) {
+            User currentUser = userService.findByUsername(userDetails.getUsername());
+            if (currentUser == null) {
+                return ResponseEntity.status(404).body("User not found");
+            }
+            if (currentUser.getRole() == User.UserRole.EMPLOYEE) {
+                return ResponseEntity.status(403).body("Access Denied");
+            }
+            CursorPage<UserDirectoryEntry> page = userService.findDirectoryPage(currentUser, q, department, cursor, limit);
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.status(401).body("Unauthorized");
+    }
+
     /**
      * Deletes a user by their ID.
      *
      * @param id The ID of the user to delete.
+     * @param reassignTasks Whether the user's tasks are assigned automatically to other employees; otherwise they are left unassigned.
      * @return ResponseEntity with no content or error message.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Integer id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Integer id, @RequestParam(defaultValue = "false") boolean reassignTasks) {
         try {
-            userService.deleteUser(id);
+            userService.deleteUser(id, reassignTasks);
             logger.info("Deleted user with id: {}", id);
             return ResponseEntity.noContent().build();
         } catch (ResourceNotFoundException e) {
@@ -1,10 +1,8 @@
 package com.example.taskmanager.controller;
 
 import com.example.taskmanager.entity.*;
-import java.util.HashMap;
-import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.DashboardService;
 import com.example.taskmanager.service.NotificationService;
-import com.example.taskmanager.service.TaskService;
 import com.example.taskmanager.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,7 +24,7 @@ import java.util.Map;
 public class UserPagesController {
 
     @Autowired
-    private TaskService taskService;
+    private DashboardService dashboardService;
 
     @Autowired
     private NotificationService notificationService;
@@ -34,9 +32,6 @@ public class UserPagesController {
     @Autowired
     private UserService userService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Retrieves notifications for the currently authenticated employee.
      * @param userDetails The details of the currently authenticated user.
@@ -81,7 +76,7 @@ public class UserPagesController {
             currentQualification.setTechnologies((String) updatedFields.get("technologies"));
         }
 
-        User savedUser = userRepository.save(currentUser);
+        User savedUser = userService.saveProfile(currentUser);
         return ResponseEntity.ok(savedUser);
     }
 
@@ -113,63 +108,11 @@ public class UserPagesController {
             return ResponseEntity.status(404).body(null);
         }
 
-        Map<String, Object> dashboardData = new HashMap<>();
-        List<Task> highPriorityTasks;
-        List<Task> overdueTasks;
-
-        // User-related data
-        dashboardData.put("user", Map.of(
-                "id", currentUser.getId(),
-                "role", currentUser.getRole().toString()
-        ));
-
-        // Data for employees
-        if (currentUser.getRole() == User.UserRole.EMPLOYEE) {
-            dashboardData.put("taskCount", taskService.countTasksByUser(currentUser.getId()));
-            dashboardData.put("pendingCount", taskService.countTasksByUserAndStatus(currentUser.getId(), Task.TaskStatus.PENDING));
-            dashboardData.put("inProgressCount", taskService.countTasksByUserAndStatus(currentUser.getId(), Task.TaskStatus.IN_PROGRESS));
-            dashboardData.put("completedCount", taskService.countTasksByUserAndStatus(currentUser.getId(), Task.TaskStatus.COMPLETED));
-
-            highPriorityTasks = taskService.findHighPriorityTasksByUser(currentUser.getId());
-            overdueTasks = taskService.findOverdueTasksByUser(currentUser.getId());
-        }
-        // Data for department heads
-        else if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD) {
-            Department department = currentUser.getDepartment();
-            dashboardData.put("taskCount", taskService.countTasksByDepartment(department.getId()));
-            dashboardData.put("pendingCount", taskService.countTasksByDepartmentAndStatus(department.getId(), Task.TaskStatus.PENDING));
-            dashboardData.put("inProgressCount", taskService.countTasksByDepartmentAndStatus(department.getId(), Task.TaskStatus.IN_PROGRESS));
-            dashboardData.put("completedCount", taskService.countTasksByDepartmentAndStatus(department.getId(), Task.TaskStatus.COMPLETED));
-            dashboardData.put("activeUserCount", userService.countActiveUsersByDepartment(department.getId()));
-
-            highPriorityTasks = taskService.findHighPriorityTasksByDepartment(department.getId());
-            overdueTasks = taskService.findOverdueTasksByDepartment(department.getId());
-
-            List<Map<String, Object>> userTaskLoads = taskService.getUserTaskLoadByDepartment(department.getId());
-            dashboardData.put("userTaskLoads", userTaskLoads);
-        }
-        // Data for admins
-        else if (currentUser.getRole() == User.UserRole.ADMIN) {
-            dashboardData.put("userCount", userService.countAllUsers());
-            dashboardData.put("taskCount", taskService.countAllTasks());
-            dashboardData.put("pendingCount", taskService.countTasksByStatus(Task.TaskStatus.PENDING));
-            dashboardData.put("inProgressCount", taskService.countTasksByStatus(Task.TaskStatus.IN_PROGRESS));
-            dashboardData.put("completedCount", taskService.countTasksByStatus(Task.TaskStatus.COMPLETED));
-
-            highPriorityTasks = taskService.findAllHighPriorityTasks();
-            overdueTasks = taskService.findAllOverdueTasks();
-
-            dashboardData.put("inactiveUsers", userService.findInactiveUsers());
-
-            List<Map<String, Object>> userTaskLoads = taskService.getUserTaskLoadForAllDepartments();
-            dashboardData.put("userTaskLoads", userTaskLoads);
-        } else {
+        Map<String, Object> dashboardData = dashboardService.getDashboard(currentUser);
+        if (dashboardData == null) {
             return ResponseEntity.status(403).body(null);
         }
 
-        dashboardData.put("highPriorityTasks", highPriorityTasks);
-        dashboardData.put("overdueTasks", overdueTasks);
-
         return ResponseEntity.ok(dashboardData);
     }
 }
@@ -0,0 +1,10 @@
+package com.example.taskmanager.dto;
+
+/**
+ * A task read by the delta sync, with the position it was read at.
+ *
+ * @param task      the task in its current state
+ * @param changeXid the ID of the transaction that last changed the task
+ */
+public record ChangedTask(TaskSummary task, long changeXid) {
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * One page of a list fetched with keyset pagination.
+ *
+ * @param items      the items on this page
+ * @param nextCursor the cursor to pass to fetch the next page, null if this is the last page
+ * @param <T>        the item type
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
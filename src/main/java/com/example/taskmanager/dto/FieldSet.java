@@ -0,0 +1,122 @@
+package com.example.taskmanager.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client asked for with the {@code fields} parameter, e.g. {@code fields=id,title,status,dueDate}.
+ * A query selects only these fields, plus any the server needs itself, such as the keys of a page cursor;
+ * those are read but left out of the response.
+ *
+ * @param <F> the field type of the resource
+ */
+public final class FieldSet<F extends Enum<F> & SparseField> {
+
+    private final List<F> requested;
+    private final List<F> selected;
+
+    private FieldSet(List<F> requested, List<F> selected) {
+        this.requested = requested;
+        this.selected = selected;
+    }
+
+    /**
+     * Parses a {@code fields} parameter. Names are separated by commas; duplicates are ignored.
+     *
+     * @param parameter the parameter value, null if the client did not send it
+     * @param type      the field type of the resource
+     * @param <F>       the field type of the resource
+     * @return the requested fields in request order, or null if the parameter is absent
+     * @throws IllegalArgumentException if the parameter is empty or names an unknown field
+     */
+    public static <F extends Enum<F> & SparseField> FieldSet<F> parse(String parameter, Class<F> type) {
+        if (parameter == null) {
+            return null;
+        }
+        EnumSet<F> fields = EnumSet.noneOf(type);
+        List<F> requested = new ArrayList<>();
+        for (String name : parameter.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            F field = EnumSet.allOf(type).stream()
+                    .filter(candidate -> candidate.parameter().equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + trimmed + ", supported fields are "
+                            + EnumSet.allOf(type).stream().map(SparseField::parameter).collect(Collectors.joining(", "))));
+            if (fields.add(field)) {
+                requested.add(field);
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one field");
+        }
+        List<F> fixed = Collections.unmodifiableList(requested);
+        return new FieldSet<>(fixed, fixed);
+    }
+
+    /**
+     * Returns a field set that also selects a field, without adding it to the response.
+     *
+     * @param field the field the server needs
+     * @return this field set if the field is already selected, otherwise an extended copy
+     */
+    public FieldSet<F> including(F field) {
+        if (selected.contains(field)) {
+            return this;
+        }
+        List<F> extended = new ArrayList<>(selected);
+        extended.add(field);
+        return new FieldSet<>(requested, Collections.unmodifiableList(extended));
+    }
+
+    /**
+     * The fields to select, in the order of the columns of each result row.
+     *
+     * @return the selected fields
+     */
+    public List<F> selected() {
+        return selected;
+    }
+
+    /**
+     * The JPQL select list for the selected fields.
+     *
+     * @return the select expressions separated by commas
+     */
+    public String selectList() {
+        return selected.stream().map(SparseField::expression).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Reads one selected field from a result row.
+     *
+     * @param row   a row of a query built with {@link #selectList()}
+     * @param field a selected field
+     * @return the raw value of the field
+     */
+    public Object value(Object[] row, F field) {
+        return row[selected.indexOf(field)];
+    }
+
+    /**
+     * Converts a result row to the response object, with the requested fields in request order.
+     *
+     * @param row a row of a query built with {@link #selectList()}
+     * @return the requested fields by name
+     */
+    public Map<String, Object> toMap(Object[] row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            F field = requested.get(i);
+            values.put(field.parameter(), field.render(row[i])); // Requested fields come first in selected
+        }
+        return values;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.taskmanager.dto;
+
+/**
+ * Fields of a notification that can be requested with the {@code fields} parameter.
+ * Expressions use the alias {@code n} for the notification.
+ */
+public enum NotificationField implements SparseField {
+    ID("id", "n.id"),
+    MESSAGE("message", "n.message"),
+    READ("read", "n.read"),
+    TIMESTAMP("timestamp", "n.timestamp"),
+    TYPE("type", "n.type"),
+    REFERENCE_ID("referenceId", "n.referenceId");
+
+    private final String parameter;
+    private final String expression;
+
+    NotificationField(String parameter, String expression) {
+        this.parameter = parameter;
+        this.expression = expression;
+    }
+
+    @Override
+    public String parameter() {
+        return parameter;
+    }
+
+    @Override
+    public String expression() {
+        return expression;
+    }
+}
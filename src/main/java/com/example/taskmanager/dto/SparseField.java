@@ -0,0 +1,33 @@
+package com.example.taskmanager.dto;
+
+/**
+ * A field of a resource that clients can request on its own with the {@code fields} parameter.
+ * Each field is read by a single JPQL select expression, so a response with a few fields reads only their columns.
+ */
+public interface SparseField {
+
+    /**
+     * The name of the field in the {@code fields} parameter and in the response.
+     *
+     * @return the field name, e.g. "dueDate"
+     */
+    String parameter();
+
+    /**
+     * The JPQL expression that selects the field, written against the aliases of the query the field belongs to.
+     *
+     * @return the select expression, e.g. "t.dueDate"
+     */
+    String expression();
+
+    /**
+     * Converts a selected value to the value written in the response, so sparse responses render a field
+     * the same way as the full representation does.
+     *
+     * @param value the value read from the database, may be null
+     * @return the value to write
+     */
+    default Object render(Object value) {
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Task;
+
+import java.util.List;
+
+/**
+ * A change to apply to many tasks at once. The tasks are given by ID, by a filter, or both, in which case
+ * only the listed tasks matching the filter are changed.
+ *
+ * @param operation    what to do with the tasks
+ * @param ids          the IDs of the tasks, null to select by filter only
+ * @param filter       the filter criteria, null to select by ID only
+ * @param status       the new status, for {@link Operation#SET_STATUS}
+ * @param assignedToId the ID of the new assignee, for {@link Operation#REASSIGN}
+ */
+public record TaskBulkRequest(Operation operation,
+                              List<Integer> ids,
+                              TaskFilter filter,
+                              Task.TaskStatus status,
+                              Integer assignedToId) {
+
+    /**
+     * The operations that can be applied in bulk.
+     */
+    public enum Operation {
+        SET_STATUS,
+        REASSIGN,
+        DELETE
+    }
+}
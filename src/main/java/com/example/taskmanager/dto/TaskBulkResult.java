@@ -0,0 +1,15 @@
+package com.example.taskmanager.dto;
+
+/**
+ * Outcome of a bulk task operation.
+ *
+ * @param operation     the operation that was applied
+ * @param matched       the number of tasks selected by the request and visible to the user
+ * @param changed       the number of tasks changed or deleted; tasks that already had the requested state are not changed
+ * @param elapsedMillis the duration of the operation in milliseconds
+ */
+public record TaskBulkResult(TaskBulkRequest.Operation operation,
+                             int matched,
+                             int changed,
+                             long elapsedMillis) {
+}
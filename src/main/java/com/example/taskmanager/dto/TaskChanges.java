@@ -0,0 +1,15 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * The changes to a user's tasks since a sync cursor.
+ * Clients first drop the removed tasks and then store the changed ones, replacing earlier copies.
+ *
+ * @param changed    the tasks created or updated since the cursor, in the state they are in now
+ * @param removed    the IDs of tasks deleted or moved out of the user's scope since the cursor
+ * @param nextCursor the cursor to pass on the next sync; never null
+ * @param hasMore    whether more changes are ready and can be fetched right away with the next cursor
+ */
+public record TaskChanges(List<TaskSummary> changed, List<Integer> removed, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,54 @@
+package com.example.taskmanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the change feed of a user's tasks: how far the changed tasks and the tombstones have been read.
+ * Each stream is positioned by the (transaction ID, ID) pair of the last entry read; a stream that has been read
+ * completely up to some transaction ID is positioned at that transaction ID with ID 0, before all its entries.
+ * Clients receive it as an opaque string and pass it back unchanged to fetch the changes that follow.
+ *
+ * @param issuedAt     when the cursor was returned, to tell whether tombstones it has not read yet may have been purged
+ * @param taskXid      the ID of the transaction that last changed the last task read
+ * @param taskId       the ID of the last changed task read
+ * @param tombstoneXid the ID of the transaction that wrote the last tombstone read
+ * @param tombstoneId  the ID of the last tombstone read
+ */
+public record TaskChangesCursor(LocalDateTime issuedAt, long taskXid, Integer taskId, long tombstoneXid, Integer tombstoneId) {
+
+    /**
+     * The position before all changes, used when a client syncs for the first time.
+     */
+    public static final TaskChangesCursor START = new TaskChangesCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0, 0, 0, 0);
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = issuedAt + "|" + taskXid + "|" + taskId + "|" + tombstoneXid + "|" + tombstoneId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param encoded the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static TaskChangesCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            return new TaskChangesCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), Integer.valueOf(parts[2]),
+                    Long.parseLong(parts[3]), Integer.valueOf(parts[4]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
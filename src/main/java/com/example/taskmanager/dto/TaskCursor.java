@@ -0,0 +1,103 @@
+package com.example.taskmanager.dto;
+
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a sorted task list: the sort key and ID of the last task on the previous page.
+ * Clients receive it as an opaque string and pass it back unchanged to fetch the next page.
+ * The cursor remembers the sort order it was issued for, so it cannot be replayed against another order.
+ *
+ * @param sort       the sort order the cursor belongs to
+ * @param descending whether the list is sorted in descending order
+ * @param sortKey    the sort key of the last task, null for {@link TaskSort#ID}
+ * @param id         the ID of the last task
+ */
+public record TaskCursor(TaskSort sort, boolean descending, Object sortKey, Integer id) {
+
+    /**
+     * Sort key used for tasks without a due date, so they sort after all dated tasks.
+     * Queries and indexes must use the same value.
+     */
+    public static final LocalDate NO_DUE_DATE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Creates the cursor pointing after a task.
+     *
+     * @param task       the last task of a page
+     * @param sort       the sort order of the list
+     * @param descending whether the list is sorted in descending order
+     * @return the cursor
+     */
+    public static TaskCursor after(TaskSummary task, TaskSort sort, boolean descending) {
+        Object sortKey = switch (sort) {
+            case ID -> null;
+            case CREATED_AT -> task.createdAt();
+            case UPDATED_AT -> task.updatedAt();
+            case DUE_DATE -> task.dueDate();
+        };
+        return after(task.id(), sortKey, sort, descending);
+    }
+
+    /**
+     * Creates the cursor pointing after a task of which only the ID and sort key were read.
+     *
+     * @param id         the ID of the last task of a page
+     * @param sortKey    the value of the sort field of that task, e.g. its due date; ignored for {@link TaskSort#ID}
+     * @param sort       the sort order of the list
+     * @param descending whether the list is sorted in descending order
+     * @return the cursor
+     */
+    public static TaskCursor after(Integer id, Object sortKey, TaskSort sort, boolean descending) {
+        Object key = switch (sort) {
+            case ID -> null;
+            case DUE_DATE -> sortKey != null ? sortKey : NO_DUE_DATE;
+            default -> sortKey;
+        };
+        return new TaskCursor(sort, descending, key, id);
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = sort.name() + "|" + (descending ? "D" : "A") + "|" + id + "|" + (sortKey != null ? sortKey : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor and checks that it was issued for the requested sort order.
+     *
+     * @param encoded    the encoded cursor
+     * @param sort       the requested sort order
+     * @param descending whether the requested order is descending
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort order
+     */
+    public static TaskCursor decode(String encoded, TaskSort sort, boolean descending) {
+        TaskCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            TaskSort cursorSort = TaskSort.valueOf(parts[0]);
+            Object sortKey = switch (cursorSort) {
+                case ID -> null;
+                case CREATED_AT, UPDATED_AT -> LocalDateTime.parse(parts[3]);
+                case DUE_DATE -> LocalDate.parse(parts[3]);
+            };
+            cursor = new TaskCursor(cursorSort, "D".equals(parts[1]), sortKey, Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursor.sort != sort || cursor.descending != descending) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Fields of a task that can be requested with the {@code fields} parameter.
+ * Expressions use the alias {@code t} for the task and {@code a} for its assigned user.
+ */
+public enum TaskField implements SparseField {
+    ID("id", "t.id"),
+    TITLE("title", "t.title"),
+    DESCRIPTION("description", "t.description"),
+    STATUS("status", "t.status"),
+    PRIORITY("priority", "t.priority"),
+    REQUIRED_QUALIFICATION("requiredQualification", "t.requiredQualification"),
+    REQUIRED_TECHNOLOGIES("requiredTechnologies", "t.requiredTechnologies"),
+    DUE_DATE("dueDate", "t.dueDate"),
+    ASSIGNED_TO_ID("assignedToId", "a.id"),
+    ASSIGNED_TO_USERNAME("assignedToUsername", "a.username"),
+    DEPARTMENT_ID("departmentId", "t.department.id"),
+    CREATED_AT("createdAt", "t.createdAt"),
+    UPDATED_AT("updatedAt", "t.updatedAt");
+
+    // The format of the timestamps in Task and TaskSummary
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final String parameter;
+    private final String expression;
+
+    TaskField(String parameter, String expression) {
+        this.parameter = parameter;
+        this.expression = expression;
+    }
+
+    @Override
+    public String parameter() {
+        return parameter;
+    }
+
+    @Override
+    public String expression() {
+        return expression;
+    }
+
+    @Override
+    public Object render(Object value) {
+        return value instanceof LocalDateTime timestamp ? TIMESTAMP_FORMAT.format(timestamp) : value;
+    }
+
+    /**
+     * The field holding the sort key of a sort order, which a page cursor needs.
+     *
+     * @param sort the sort order
+     * @return the sort key field
+     */
+    public static TaskField of(TaskSort sort) {
+        return switch (sort) {
+            case ID -> ID;
+            case CREATED_AT -> CREATED_AT;
+            case UPDATED_AT -> UPDATED_AT;
+            case DUE_DATE -> DUE_DATE;
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanager.dto;
+
+/**
+ * File formats supported by the task export and import.
+ */
+public enum TaskFileFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String parameter;
+    private final String contentType;
+
+    TaskFileFormat(String parameter, String contentType) {
+        this.parameter = parameter;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Returns the file extension and request parameter value of the format, e.g. "csv".
+     *
+     * @return the parameter value
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Returns the media type of the format.
+     *
+     * @return the content type
+     */
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Resolves a format from its request parameter value, e.g. "ndjson".
+     *
+     * @param parameter the request parameter value
+     * @return the format
+     * @throws IllegalArgumentException if the value is not a supported format
+     */
+    public static TaskFileFormat fromParameter(String parameter) {
+        for (TaskFileFormat format : values()) {
+            if (format.parameter.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported file format: " + parameter);
+    }
+}
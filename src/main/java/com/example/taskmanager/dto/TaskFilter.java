@@ -0,0 +1,56 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Filter criteria for task list queries. Every criterion is optional; null means "any".
+ *
+ * @param status                only tasks with this status
+ * @param priority              only tasks with this priority
+ * @param assignedToId          only tasks assigned to this user
+ * @param departmentId          only tasks of this department
+ * @param dueFrom               only tasks due on or after this date
+ * @param dueTo                 only tasks due on or before this date
+ * @param requiredQualification only tasks requiring this qualification
+ */
+public record TaskFilter(Task.TaskStatus status,
+                         Task.TaskPriority priority,
+                         Integer assignedToId,
+                         Integer departmentId,
+                         LocalDate dueFrom,
+                         LocalDate dueTo,
+                         Qualification.QualificationType requiredQualification) {
+
+    /**
+     * Tells whether this filter has no criteria, i.e. matches all tasks.
+     *
+     * @return true if every criterion is null
+     */
+    public boolean isEmpty() {
+        return status == null && priority == null && assignedToId == null && departmentId == null
+                && dueFrom == null && dueTo == null && requiredQualification == null;
+    }
+
+    /**
+     * Returns a copy of this filter restricted to one assigned user.
+     *
+     * @param userId the user ID
+     * @return the restricted filter
+     */
+    public TaskFilter withAssignedToId(Integer userId) {
+        return new TaskFilter(status, priority, userId, departmentId, dueFrom, dueTo, requiredQualification);
+    }
+
+    /**
+     * Returns a copy of this filter restricted to one department.
+     *
+     * @param departmentId the department ID
+     * @return the restricted filter
+     */
+    public TaskFilter withDepartmentId(Integer departmentId) {
+        return new TaskFilter(status, priority, assignedToId, departmentId, dueFrom, dueTo, requiredQualification);
+    }
+}
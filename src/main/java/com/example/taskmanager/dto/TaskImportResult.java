@@ -0,0 +1,34 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import.
+ *
+ * @param received      the number of rows read from the file
+ * @param inserted      the number of tasks created
+ * @param updated       the number of existing tasks updated through their external reference
+ * @param rejected      the number of rows that failed validation and were skipped
+ * @param assigned      the number of created tasks assigned automatically
+ * @param errors        the first rejected rows with the reason, in file order
+ * @param elapsedMillis the duration of the import in milliseconds
+ * @param rowsPerSecond the number of rows read per second
+ */
+public record TaskImportResult(long received,
+                               long inserted,
+                               long updated,
+                               long rejected,
+                               long assigned,
+                               List<RowError> errors,
+                               long elapsedMillis,
+                               long rowsPerSecond) {
+
+    /**
+     * A rejected row.
+     *
+     * @param line  the number of the row in the file, counting the header line of CSV files
+     * @param error why the row was rejected
+     */
+    public record RowError(long line, String error) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Task;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Partial update of a task. Fields that are left out or null are not changed.
+ * Only admins and department heads may change the title, description, priority and due date;
+ * any user may change the status and add a comment.
+ * A title that is set is validated like the title of a {@link Task}; {@code @NotBlank} is not used,
+ * since it would also reject a null title, which leaves the title unchanged.
+ *
+ * @param status      the new status
+ * @param priority    the new priority
+ * @param title       the new title
+ * @param description the new description
+ * @param dueDate     the new due date
+ * @param comments    the text of a comment to add
+ */
+public record TaskPatch(Task.TaskStatus status,
+                        Task.TaskPriority priority,
+                        @Pattern(regexp = ".*\\S.*", message = "Title required")
+                        @Size(min = 1, max = 100, message = "Size must be between 1 and 100 characters")
+                        String title,
+                        String description,
+                        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+                        LocalDate dueDate,
+                        String comments) {
+
+    /**
+     * Tells whether the patch changes fields that only admins and department heads may change.
+     *
+     * @return true if the title, description, priority or due date is set
+     */
+    public boolean changesDetails() {
+        return title != null || description != null || priority != null || dueDate != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.taskmanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a list of search results: the rank and ID of the last task on the previous page.
+ * Clients receive it as an opaque string and pass it back unchanged to fetch the next page.
+ *
+ * @param rank the rank of the last task
+ * @param id   the ID of the last task
+ */
+public record TaskSearchCursor(float rank, Integer id) {
+
+    /**
+     * Creates the cursor pointing after a search result.
+     *
+     * @param hit the last result of a page
+     * @return the cursor
+     */
+    public static TaskSearchCursor after(TaskSearchHit hit) {
+        return new TaskSearchCursor(hit.rank(), hit.task().id());
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     * The rank is written in its exact float representation, so the next page starts exactly after this task.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = Float.toString(rank) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param encoded the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static TaskSearchCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new TaskSearchCursor(Float.parseFloat(parts[0]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
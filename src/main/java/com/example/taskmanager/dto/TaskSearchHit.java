@@ -0,0 +1,10 @@
+package com.example.taskmanager.dto;
+
+/**
+ * A task matching a full-text search, with its relevance.
+ *
+ * @param task the matching task
+ * @param rank the relevance of the task to the search query, higher is better
+ */
+public record TaskSearchHit(TaskSummary task, float rank) {
+}
@@ -0,0 +1,35 @@
+package com.example.taskmanager.dto;
+
+/**
+ * Sort orders supported by task list queries. Every order is made stable by the task ID as a tie-breaker.
+ * Tasks without a due date sort after all others in ascending order and before them in descending order,
+ * as they do in PostgreSQL.
+ */
+public enum TaskSort {
+    ID("id"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    DUE_DATE("dueDate");
+
+    private final String parameter;
+
+    TaskSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Resolves a sort order from its request parameter value, e.g. "dueDate".
+     *
+     * @param parameter the request parameter value
+     * @return the sort order
+     * @throws IllegalArgumentException if the value is not a supported sort order
+     */
+    public static TaskSort fromParameter(String parameter) {
+        for (TaskSort sort : values()) {
+            if (sort.parameter.equals(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + parameter);
+    }
+}
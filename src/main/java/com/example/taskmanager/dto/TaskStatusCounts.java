@@ -0,0 +1,12 @@
+package com.example.taskmanager.dto;
+
+/**
+ * Task counts per status for one dashboard scope (a user, a department, or the whole system).
+ *
+ * @param total      the number of tasks in the scope
+ * @param pending    the number of pending tasks
+ * @param inProgress the number of tasks in progress
+ * @param completed  the number of completed tasks
+ */
+public record TaskStatusCounts(long total, long pending, long inProgress, long completed) {
+}
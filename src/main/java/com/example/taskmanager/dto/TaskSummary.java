@@ -0,0 +1,38 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Task;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight read-only view of a task for list rendering.
+ * Carries only the columns shown in lists, without the description, comments,
+ * or the full assigned user and department entities.
+ *
+ * @param id                 the task ID
+ * @param title              the task title
+ * @param status             the task status
+ * @param priority           the task priority
+ * @param dueDate            the due date, may be null
+ * @param assignedToId       the ID of the assigned user, null if unassigned
+ * @param assignedToUsername the username of the assigned user, null if unassigned
+ * @param departmentId       the ID of the department the task belongs to
+ * @param createdAt          the creation time
+ * @param updatedAt          the time of the last update
+ */
+public record TaskSummary(Integer id,
+                          String title,
+                          Task.TaskStatus status,
+                          Task.TaskPriority priority,
+                          @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "UTC")
+                          LocalDate dueDate,
+                          Integer assignedToId,
+                          String assignedToUsername,
+                          Integer departmentId,
+                          @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm", timezone = "UTC")
+                          LocalDateTime createdAt,
+                          @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm", timezone = "UTC")
+                          LocalDateTime updatedAt) {
+}
@@ -0,0 +1,51 @@
+package com.example.taskmanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the user directory: the username of the last user on the previous page.
+ * Clients receive it as an opaque string and pass it back unchanged to fetch the next page.
+ *
+ * @param username the username of the last user
+ */
+public record UserDirectoryCursor(String username) {
+
+    /**
+     * Creates the cursor pointing after a directory entry.
+     *
+     * @param entry the last entry of a page
+     * @return the cursor
+     */
+    public static UserDirectoryCursor after(UserDirectoryEntry entry) {
+        return new UserDirectoryCursor(entry.username());
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param encoded the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static UserDirectoryCursor decode(String encoded) {
+        try {
+            String username = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            if (username.isEmpty()) {
+                throw new IllegalArgumentException("Empty cursor");
+            }
+            return new UserDirectoryCursor(username);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
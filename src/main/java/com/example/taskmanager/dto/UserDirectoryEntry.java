@@ -0,0 +1,21 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.User;
+
+/**
+ * Entry of the user directory, with just what a user picker shows.
+ *
+ * @param id           the user ID
+ * @param username     the username
+ * @param firstName    the first name, may be null
+ * @param lastName     the last name, may be null
+ * @param role         the user role
+ * @param departmentId the ID of the user's department, may be null
+ */
+public record UserDirectoryEntry(Integer id,
+                                 String username,
+                                 String firstName,
+                                 String lastName,
+                                 User.UserRole role,
+                                 Integer departmentId) {
+}
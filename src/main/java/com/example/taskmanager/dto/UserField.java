@@ -0,0 +1,36 @@
+package com.example.taskmanager.dto;
+
+/**
+ * Fields of a user that can be requested with the {@code fields} parameter.
+ * The password hash is never selectable. Expressions use the alias {@code u} for the user.
+ */
+public enum UserField implements SparseField {
+    ID("id", "u.id"),
+    USERNAME("username", "u.username"),
+    EMAIL("email", "u.email"),
+    FIRST_NAME("firstName", "u.firstName"),
+    LAST_NAME("lastName", "u.lastName"),
+    ROLE("role", "u.role"),
+    DEPARTMENT_ID("departmentId", "u.department.id"),
+    LAST_LOGIN("lastLogin", "u.lastLogin"),
+    CREATED_AT("createdAt", "u.createdAt"),
+    UPDATED_AT("updatedAt", "u.updatedAt");
+
+    private final String parameter;
+    private final String expression;
+
+    UserField(String parameter, String expression) {
+        this.parameter = parameter;
+        this.expression = expression;
+    }
+
+    @Override
+    public String parameter() {
+        return parameter;
+    }
+
+    @Override
+    public String expression() {
+        return expression;
+    }
+}
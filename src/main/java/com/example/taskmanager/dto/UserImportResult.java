@@ -0,0 +1,30 @@
+package com.example.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ *
+ * @param received      the number of rows read from the file
+ * @param inserted      the number of users created
+ * @param rejected      the number of rows that failed validation and were skipped
+ * @param errors        the first rejected rows with the reason, in file order
+ * @param elapsedMillis the duration of the import in milliseconds
+ * @param rowsPerSecond the number of rows read per second
+ */
+public record UserImportResult(long received,
+                               long inserted,
+                               long rejected,
+                               List<RowError> errors,
+                               long elapsedMillis,
+                               long rowsPerSecond) {
+
+    /**
+     * A rejected row.
+     *
+     * @param line  the line of the file the row starts on, counting the header line
+     * @param error why the row was rejected
+     */
+    public record RowError(long line, String error) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.User;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Partial update of a user. Fields that are left out or null are not changed.
+ * Fields that are set are validated like those of a {@link User}, with a pattern in place of {@code @NotBlank}
+ * so that null still means unchanged.
+ *
+ * @param username      the new username
+ * @param email         the new email address
+ * @param password      the new password in plain text; it is hashed before it is stored
+ * @param firstName     the new first name
+ * @param lastName      the new last name
+ * @param role          the new role
+ * @param qualification the new qualification, replacing all its fields
+ * @param department    the department to move the user to
+ */
+public record UserPatch(@Pattern(regexp = ".*\\S.*", message = "Username is required")
+                        @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+                        String username,
+                        @Pattern(regexp = ".*\\S.*", message = "Email is required")
+                        @Email(message = "Email should be valid")
+                        String email,
+                        @Pattern(regexp = ".*\\S.*", message = "Password is required")
+                        @Size(min = 6, message = "Password must be at least 6 characters")
+                        String password,
+                        String firstName,
+                        String lastName,
+                        User.UserRole role,
+                        @Valid
+                        QualificationData qualification,
+                        DepartmentRef department) {
+
+    /**
+     * The qualification of a user, as sent in a patch.
+     *
+     * @param qualification   the qualification type
+     * @param technologies    the comma-separated technologies the user knows
+     * @param experienceYears the years of experience
+     */
+    public record QualificationData(Qualification.QualificationType qualification,
+                                    String technologies,
+                                    @Min(value = 0, message = "Experience years must be at least 0")
+                                    Integer experienceYears) {
+    }
+
+    /**
+     * A reference to a department by ID.
+     *
+     * @param id the department ID
+     */
+    public record DepartmentRef(Integer id) {
+    }
+}
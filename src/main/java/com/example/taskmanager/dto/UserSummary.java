@@ -0,0 +1,26 @@
+package com.example.taskmanager.dto;
+
+import com.example.taskmanager.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight read-only view of a user for list rendering.
+ * Never carries the password hash or the nested qualification and department entities.
+ *
+ * @param id           the user ID
+ * @param username     the username
+ * @param firstName    the first name, may be null
+ * @param lastName     the last name, may be null
+ * @param role         the user role
+ * @param departmentId the ID of the user's department, may be null
+ * @param lastLogin    the time of the last login, may be null
+ */
+public record UserSummary(Integer id,
+                          String username,
+                          String firstName,
+                          String lastName,
+                          User.UserRole role,
+                          Integer departmentId,
+                          LocalDateTime lastLogin) {
+}
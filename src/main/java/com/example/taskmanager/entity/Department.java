@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Set;
 
@@ -33,6 +34,10 @@ public class Department {
     //@JsonBackReference("tasks-department")
     private Set<Task> tasks;
 
+    @JsonIgnore
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public Department(int i, String development) {
         this.id = i;
         this.name = development;
@@ -41,6 +46,15 @@ public class Department {
     public Department() {
     }
 
+    /**
+     * Sets the version timestamp on every insert and update, for the ETag of the department list.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
     //Getters and setters
 
     public Integer getId() {
@@ -51,6 +65,10 @@ public class Department {
         this.id = id;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     public String getName() {
         return name;
     }
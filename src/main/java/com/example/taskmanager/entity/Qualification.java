@@ -1,8 +1,10 @@
 package com.example.taskmanager.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -19,8 +21,8 @@ public class Qualification {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qualification_id_seq")
-    @SequenceGenerator(name = "qualifications_id_seq", sequenceName = "qualification_id_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qualifications_id_seq")
+    @SequenceGenerator(name = "qualifications_id_seq", sequenceName = "qualifications_id_seq", allocationSize = 1)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -42,6 +44,19 @@ public class Qualification {
     @OneToOne(mappedBy = "qualification")
     private User user;
 
+    @JsonIgnore
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Sets the version timestamp on every insert and update, for the ETags of qualifications and their users.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
     //Getters and Setters
 
     public Integer getId() {
@@ -60,6 +75,10 @@ public class Qualification {
         this.experienceYears = experienceYears;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     public String getTechnologies() {
         return technologies;
     }
@@ -0,0 +1,19 @@
+package com.example.taskmanager.entity;
+
+/**
+ * This class represents the request data for exchanging a refresh token
+ * for a new pair of access and refresh tokens.
+ */
+public class RefreshTokenRequest {
+    private String refreshToken;
+
+    // Getters and Setters
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
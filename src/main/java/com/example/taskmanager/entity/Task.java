@@ -1,23 +1,52 @@
 package com.example.taskmanager.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Entity representing a Task in the system.
+ * The named entity graphs are the fetch plans of the task read use cases: {@value #LIST_GRAPH}
+ * loads a task with its assignee and department for lists, {@value #DETAIL_GRAPH} also loads its comments.
+ * Updates write only the changed columns, so a status change does not rewrite the description.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "tasks")
+@NamedEntityGraph(name = Task.LIST_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "assignedTo", subgraph = "assignee"),
+                @NamedAttributeNode("department")
+        },
+        subgraphs = @NamedSubgraph(name = "assignee", attributeNodes = {
+                @NamedAttributeNode("qualification"),
+                @NamedAttributeNode("department")
+        }))
+@NamedEntityGraph(name = Task.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "assignedTo", subgraph = "assignee"),
+                @NamedAttributeNode("department"),
+                @NamedAttributeNode("comments")
+        },
+        subgraphs = @NamedSubgraph(name = "assignee", attributeNodes = {
+                @NamedAttributeNode("qualification"),
+                @NamedAttributeNode("department")
+        }))
 public class Task {
 
+    public static final String LIST_GRAPH = "Task.list";
+    public static final String DETAIL_GRAPH = "Task.detail";
+
     /**
      * Enum representing the possible status values of a task.
      */
@@ -70,12 +99,12 @@ public class Task {
     private LocalDate dueDate;
 
     @Enumerated(EnumType.STRING)
-    @ColumnDefault("LOW")
+    @ColumnDefault("'LOW'")
     @Column(name = "priority", nullable = false)
     private TaskPriority priority;
 
     @Enumerated(EnumType.STRING)
-    @ColumnDefault("PENDING")
+    @ColumnDefault("'PENDING'")
     @Column(name = "status", nullable = false)
     private TaskStatus status;
 
@@ -85,21 +114,37 @@ public class Task {
 
 
     @Enumerated(EnumType.STRING)
-    @ColumnDefault("JUNIOR")
+    @ColumnDefault("'JUNIOR'")
     @Column(name = "required_qualification", nullable = false, length = 20)
     private Qualification.QualificationType requiredQualification;
 
+    /**
+     * Comma-separated technologies the assignee must know, in the same format as {@link Qualification#getTechnologies()}.
+     * Optional; null means any technology stack.
+     */
+    @Column(name = "required_technologies")
+    private String requiredTechnologies;
+
     @ManyToOne
     @JoinColumn(name = "department_id", referencedColumnName = "id")
     private Department department;
 
+    /**
+     * Optimistic lock version, incremented by every update of the task.
+     */
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     /**
      * Sets the creation and update timestamps before persisting the task.
      */
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // The precision of database timestamps
+        updatedAt = createdAt;
     }
 
     /**
@@ -107,7 +152,7 @@ public class Task {
      */
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Getters and setters
@@ -136,6 +181,14 @@ public class Task {
         this.requiredQualification = requiredQualification;
     }
 
+    public String getRequiredTechnologies() {
+        return requiredTechnologies;
+    }
+
+    public void setRequiredTechnologies(String requiredTechnologies) {
+        this.requiredTechnologies = requiredTechnologies;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -176,6 +229,10 @@ public class Task {
         this.createdAt = createdAt;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -217,6 +274,7 @@ public class Task {
                 ", priority=" + priority +
                 ", status=" + status +
                 ", requiredQualification=" + requiredQualification +
+                ", requiredTechnologies='" + requiredTechnologies + '\'' +
                 ", dueDate=" + dueDate +
                 ", department=" + (department != null ? department.getId() + " (" + department.getName() + ")" : "null") +
                 ", assignedTo=" + (assignedTo != null ? assignedTo.getId() + " (" + assignedTo.getUsername() + ")" : "null") +
@@ -0,0 +1,62 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Read-only entity representing one row of the task_stats summary table:
+ * the number of tasks with a given department, assignee, status and priority.
+ * The table is maintained by a database trigger on tasks, so the application never writes it.
+ */
+@Entity
+@Immutable
+@Table(name = "task_stats")
+public class TaskStats {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Integer id;
+
+    @Column(name = "department_id")
+    private Integer departmentId;
+
+    @Column(name = "assigned_to")
+    private Integer assignedTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Task.TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private Task.TaskPriority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount;
+
+    // Getters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getDepartmentId() {
+        return departmentId;
+    }
+
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public Task.TaskStatus getStatus() {
+        return status;
+    }
+
+    public Task.TaskPriority getPriority() {
+        return priority;
+    }
+
+    public Integer getTaskCount() {
+        return taskCount;
+    }
+}
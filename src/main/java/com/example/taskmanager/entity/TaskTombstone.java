@@ -0,0 +1,74 @@
+package com.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a task that was deleted, or that left a department or an assignee.
+ * Rows are written by a database trigger on tasks and read by the delta sync, which reports the task
+ * as removed to the clients whose scope it left. Department ID and assignee hold the scope that was
+ * left; for a deleted task both are set to the task's last values. The ID of the transaction that wrote
+ * the tombstone orders it in the sync, see V17_task_change_transaction_ids.sql.
+ * Rows are kept for {@code TaskService.TOMBSTONE_RETENTION}.
+ */
+@Entity
+@Immutable
+@Table(name = "task_tombstones")
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Integer id;
+
+    @Column(name = "task_id", nullable = false)
+    private Integer taskId;
+
+    @Column(name = "department_id")
+    private Integer departmentId;
+
+    @Column(name = "assigned_to")
+    private Integer assignedTo;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "removed_at", nullable = false)
+    private LocalDateTime removedAt;
+
+    @Column(name = "change_xid", nullable = false)
+    private Long changeXid;
+
+    public TaskTombstone() {}
+
+    // Getters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    public Integer getDepartmentId() {
+        return departmentId;
+    }
+
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public LocalDateTime getRemovedAt() {
+        return removedAt;
+    }
+
+    public Long getChangeXid() {
+        return changeXid;
+    }
+}
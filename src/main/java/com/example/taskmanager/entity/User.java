@@ -6,15 +6,20 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
  * Entity representing a user in the system.
+ * Updates write only the changed columns.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "users")
 public class User {
     public enum UserRole {EMPLOYEE, DEPARTMENT_HEAD, ADMIN}
@@ -54,10 +59,20 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    @OptimisticLock(excluded = true) // Set together with lastLogin, which must not conflict with edits
     @ColumnDefault("CURRENT_TIMESTAMP")
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Optimistic lock version, incremented by every update of the user except the recording of a login.
+     */
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @JsonIgnore
     @OneToMany(mappedBy = "assignedTo")
     private List<Task> tasks;
@@ -70,6 +85,7 @@ public class User {
     @JoinColumn(name = "department_id")
     private Department department;
 
+    @OptimisticLock(excluded = true)
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
@@ -82,8 +98,8 @@ public class User {
      */
     @PrePersist
     protected void onCreate() {
-        createdAt = Instant.now();
-        updatedAt = Instant.now();
+        createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS); // The precision of database timestamps
+        updatedAt = createdAt;
     }
 
     /**
@@ -91,7 +107,7 @@ public class User {
      */
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Getters and Setters
@@ -200,6 +216,10 @@ public class User {
         this.createdAt = createdAt;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public Instant getUpdatedAt() {
         return updatedAt;
     }
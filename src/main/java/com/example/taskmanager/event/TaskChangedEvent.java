@@ -0,0 +1,81 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+
+/**
+ * Application event published by {@link com.example.taskmanager.service.TaskService}
+ * whenever a task is created, updated, or deleted.
+ * The event carries the state of the task after the change, so listeners that keep
+ * derived data only need to remember what they last saw for each task ID. It also carries the
+ * department and assignee before the change, for listeners that only care which scopes were touched.
+ *
+ * @param taskId                the ID of the changed task
+ * @param deleted               true if the task was deleted, in which case the remaining fields are null
+ * @param departmentId          the department of the task after the change
+ * @param assignedToId          the assigned user after the change, null if unassigned
+ * @param status                the status after the change
+ * @param priority              the priority after the change
+ * @param requiredQualification the required qualification after the change
+ * @param previousDepartmentId  the department of the task before the change, null for new tasks
+ * @param previousAssignedToId  the assigned user before the change, null for new or unassigned tasks
+ */
+public record TaskChangedEvent(Integer taskId,
+                               boolean deleted,
+                               Integer departmentId,
+                               Integer assignedToId,
+                               Task.TaskStatus status,
+                               Task.TaskPriority priority,
+                               Qualification.QualificationType requiredQualification,
+                               Integer previousDepartmentId,
+                               Integer previousAssignedToId) {
+
+    /**
+     * Creates an event describing a newly created task.
+     *
+     * @param task the created task
+     * @return the event
+     */
+    public static TaskChangedEvent created(Task task) {
+        return saved(task, null, null);
+    }
+
+    /**
+     * Creates an event describing the current state of an updated task.
+     *
+     * @param task                 the task after the change
+     * @param previousDepartmentId the department of the task before the change
+     * @param previousAssignedToId the assigned user before the change
+     * @return the event
+     */
+    public static TaskChangedEvent saved(Task task, Integer previousDepartmentId, Integer previousAssignedToId) {
+        return new TaskChangedEvent(task.getId(), false, departmentId(task), assignedToId(task),
+                task.getStatus(), task.getPriority(), task.getRequiredQualification(),
+                previousDepartmentId, previousAssignedToId);
+    }
+
+    /**
+     * Creates an event describing the deletion of a task.
+     *
+     * @param task the deleted task
+     * @return the event
+     */
+    public static TaskChangedEvent deleted(Task task) {
+        return new TaskChangedEvent(task.getId(), true, null, null, null, null, null,
+                departmentId(task), assignedToId(task));
+    }
+
+    /**
+     * Returns the department ID of a task, or null if it has no department.
+     */
+    public static Integer departmentId(Task task) {
+        return task.getDepartment() != null ? task.getDepartment().getId() : null;
+    }
+
+    /**
+     * Returns the ID of the user a task is assigned to, or null if it is unassigned.
+     */
+    public static Integer assignedToId(Task task) {
+        return task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+    }
+}
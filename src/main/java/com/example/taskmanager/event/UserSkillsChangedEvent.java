@@ -0,0 +1,52 @@
+package com.example.taskmanager.event;
+
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.User;
+
+/**
+ * Application event published by {@link com.example.taskmanager.service.UserService} and
+ * {@link com.example.taskmanager.service.QualificationService} whenever the skills of a user may have changed.
+ * The event carries the skills of the user after the change, captured when it is published,
+ * so listeners do not need to load the user again once the transaction has committed.
+ *
+ * @param userId        the ID of the user
+ * @param removed       true if the user was deleted, lost their qualification or is not an employee,
+ *                      in which case the remaining fields are null
+ * @param departmentId  the department of the user after the change
+ * @param qualification the qualification type of the user after the change
+ * @param technologies  the free-text technology list of the user after the change
+ */
+public record UserSkillsChangedEvent(Integer userId,
+                                     boolean removed,
+                                     Integer departmentId,
+                                     Qualification.QualificationType qualification,
+                                     String technologies) {
+
+    /**
+     * Creates an event describing the current skills of a saved user.
+     * Users who are not employees are described as removed.
+     *
+     * @param user the user as saved, with department and qualification loaded
+     * @return the event
+     */
+    public static UserSkillsChangedEvent saved(User user) {
+        if (user.getRole() != User.UserRole.EMPLOYEE) {
+            return removed(user.getId());
+        }
+        Qualification qualification = user.getQualification();
+        return new UserSkillsChangedEvent(user.getId(), false,
+                user.getDepartment() != null ? user.getDepartment().getId() : null,
+                qualification != null ? qualification.getQualification() : null,
+                qualification != null ? qualification.getTechnologies() : null);
+    }
+
+    /**
+     * Creates an event describing a user whose skills no longer count.
+     *
+     * @param userId the ID of the user
+     * @return the event
+     */
+    public static UserSkillsChangedEvent removed(Integer userId) {
+        return new UserSkillsChangedEvent(userId, true, null, null, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager.exception;
+
+/**
+ * Thrown when a conditional request does not match the current state of a resource,
+ * e.g. an If-Match header with an outdated ETag.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,14 @@ package com.example.taskmanager.repository;
 
 import com.example.taskmanager.entity.Department;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface DepartmentRepository extends JpaRepository<Department, Integer> {
     Department findByName(String name);
+
+    // Aggregate version stamp of the department list: a count catches deletions, the latest update time everything else
+    @Query("SELECT COUNT(d), MAX(d.updatedAt) FROM Department d")
+    List<Object[]> findVersionStamps();
 }
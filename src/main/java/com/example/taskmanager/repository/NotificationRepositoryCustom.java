@@ -0,0 +1,22 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.NotificationField;
+
+import java.util.List;
+
+/**
+ * Notification queries that are assembled at runtime and cannot be expressed as derived or annotated queries.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Fetches some fields of the notifications of a user, ordered by ID.
+     *
+     * @param fields     the fields to select
+     * @param username   the username of the recipient
+     * @param unreadOnly whether to fetch only unread notifications
+     * @return the selected fields of the notifications
+     */
+    List<Object[]> findFieldsByUsername(FieldSet<NotificationField> fields, String username, boolean unreadOnly);
+}
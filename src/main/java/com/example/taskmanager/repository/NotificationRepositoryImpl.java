@@ -0,0 +1,26 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.NotificationField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+/**
+ * Implementation of {@link NotificationRepositoryCustom}.
+ */
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findFieldsByUsername(FieldSet<NotificationField> fields, String username, boolean unreadOnly) {
+        String jpql = "SELECT " + fields.selectList() + " FROM Notification n WHERE n.user.username = :username"
+                + (unreadOnly ? " AND n.read = false" : "") + " ORDER BY n.id";
+        return entityManager.createQuery(jpql, Object[].class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+}
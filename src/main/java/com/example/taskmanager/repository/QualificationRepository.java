@@ -2,7 +2,14 @@ package com.example.taskmanager.repository;
 
 import com.example.taskmanager.entity.Qualification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface QualificationRepository extends JpaRepository<Qualification, Integer> {
+
+    // Aggregate version stamp of the qualification list: a count catches deletions, the latest update time everything else
+    @Query("SELECT COUNT(q), MAX(q.updatedAt) FROM Qualification q")
+    List<Object[]> findVersionStamps();
 }
 
@@ -2,9 +2,17 @@ package com.example.taskmanager.repository;
 
 import com.example.taskmanager.entity.TaskComment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskCommentRepository extends JpaRepository<TaskComment, Long> {
     List<TaskComment> findByTaskId(Integer taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskComment c WHERE c.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Integer> taskIds);
 }
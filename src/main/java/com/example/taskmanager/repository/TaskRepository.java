@@ -1,55 +1,101 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.Task;
 import com.example.taskmanager.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+import jakarta.persistence.QueryHint;
+
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskRepositoryCustom {
+    @Override
+    @EntityGraph(Task.LIST_GRAPH)
+    List<Task> findAll();
+
+    @EntityGraph(Task.DETAIL_GRAPH)
+    Optional<Task> findDetailById(Integer id);
+
+    // Version stamps of everything the task detail is rendered from, for its ETag
+    @Query("SELECT t.version, t.updatedAt, d.updatedAt, a.updatedAt, aq.updatedAt, ad.updatedAt, " +
+            "(SELECT COUNT(c) FROM TaskComment c WHERE c.task.id = t.id), (SELECT MAX(c.id) FROM TaskComment c WHERE c.task.id = t.id) " +
+            "FROM Task t LEFT JOIN t.department d LEFT JOIN t.assignedTo a LEFT JOIN a.qualification aq LEFT JOIN a.department ad " +
+            "WHERE t.id = :id")
+    List<Object[]> findVersionStamps(@Param("id") Integer id);
+
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByAssignedTo(User user);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByDepartmentId(Integer id);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByDueDateBetween(LocalDate today, LocalDate threeDaysFromNow);
 
-    Integer countByStatus(Task.TaskStatus status);
-    List<Task> findByPriority(Task.TaskPriority priority);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE a.id = :userId AND t.dueDate < :currentDate AND t.status != 'COMPLETED'")
+    List<TaskSummary> findOverdueTasksByUser(@Param("userId") Integer userId, @Param("currentDate") LocalDate currentDate);
 
-    @Query("SELECT t FROM Task t WHERE t.assignedTo.id = :userId AND t.dueDate < :currentDate AND t.status != 'COMPLETED'")
-    List<Task> findOverdueTasksByUser(@Param("userId") Integer userId, @Param("currentDate") LocalDate currentDate);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE t.department.id = :departmentId AND t.dueDate < :currentDate AND t.status != 'COMPLETED'")
+    List<TaskSummary> findOverdueTasksByDepartment(@Param("departmentId") Integer departmentId, @Param("currentDate") LocalDate currentDate);
 
-    @Query("SELECT t FROM Task t WHERE t.department.id = :departmentId AND t.dueDate < :currentDate AND t.status != 'COMPLETED'")
-    List<Task> findOverdueTasksByDepartment(@Param("departmentId") Integer departmentId, @Param("currentDate") LocalDate currentDate);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE t.dueDate < :currentDate AND t.status != 'COMPLETED'")
+    List<TaskSummary> findAllOverdueTasks(@Param("currentDate") LocalDate currentDate);
 
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :currentDate AND t.status != 'COMPLETED'")
-    List<Task> findAllOverdueTasks(@Param("currentDate") LocalDate currentDate);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE a.id = :userId AND t.priority = :priority")
+    List<TaskSummary> findByAssignedToAndPriority(@Param("userId") Integer userId, @Param("priority") Task.TaskPriority priority);
 
-    @Query("SELECT u.id, u.username, COUNT(t) FROM User u LEFT JOIN Task t ON u.id = t.assignedTo.id WHERE u.department.id = :departmentId GROUP BY u.id, u.username")
-    List<Object[]> getUserTaskLoadByDepartment(@Param("departmentId") Integer departmentId);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE t.department.id = :departmentId AND t.priority = :priority")
+    List<TaskSummary> findByDepartmentAndPriority(@Param("departmentId") Integer departmentId, @Param("priority") Task.TaskPriority priority);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.department.id = :departmentId")
-    Integer countByDepartment(@Param("departmentId") Integer departmentId);
+    @Query("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+            "FROM Task t LEFT JOIN t.assignedTo a WHERE t.priority = :priority")
+    List<TaskSummary> findSummariesByPriority(@Param("priority") Task.TaskPriority priority);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.assignedTo.id = :userId")
-    Integer countByAssignedTo(@Param("userId") Integer userId);
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    @Query("SELECT t.id, t.department.id, t.assignedTo.id, t.status, t.priority, t.requiredQualification FROM Task t")
+    Stream<Object[]> streamTaskDimensions();
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.assignedTo.id = :userId AND t.status = :status")
-    Integer countByAssignedToAndStatus(@Param("userId") Integer userId, @Param("status") Task.TaskStatus status);
+    // Bulk updates bypass the entity lifecycle, so they set the update time and increment the version themselves
+    @Modifying
+    @Query("UPDATE VERSIONED Task t SET t.status = :status, t.updatedAt = :now WHERE t.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Integer> ids, @Param("status") Task.TaskStatus status, @Param("now") LocalDateTime now);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.department.id = :departmentId AND t.status = :status")
-    Integer countByDepartmentAndStatus(@Param("departmentId") Integer departmentId, @Param("status") Task.TaskStatus status);
+    @Modifying
+    @Query("UPDATE VERSIONED Task t SET t.assignedTo = :assignee, t.updatedAt = :now WHERE t.id IN :ids")
+    int updateAssigneeByIds(@Param("ids") Collection<Integer> ids, @Param("assignee") User assignee, @Param("now") LocalDateTime now);
 
-    @Query("SELECT t FROM Task t WHERE t.assignedTo.id = :userId AND t.priority = :priority")
-    List<Task> findByAssignedToAndPriority(@Param("userId") Integer userId, @Param("priority") Task.TaskPriority priority);
+    @Modifying
+    @Query("UPDATE VERSIONED Task t SET t.assignedTo = NULL, t.updatedAt = :now WHERE t.assignedTo.id = :userId")
+    int unassignAll(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
 
-    @Query("SELECT t FROM Task t WHERE t.department.id = :departmentId AND t.priority = :priority")
-    List<Task> findByDepartmentAndPriority(@Param("departmentId") Integer departmentId, @Param("priority") Task.TaskPriority priority);
+    // Oldest transaction still running: every transaction below it has ended, see V17_task_change_transaction_ids.sql
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)", nativeQuery = true)
+    long findOldestRunningTransactionId();
 
-    @Query("SELECT u.id, u.username, COUNT(t) FROM User u LEFT JOIN Task t ON u.id = t.assignedTo.id GROUP BY u.id, u.username")
-    List<Object[]> getUserTaskLoadForAllDepartments();
-}
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND t.department.id = :departmentId")
+    List<Integer> findIdsInDepartment(@Param("ids") Collection<Integer> ids, @Param("departmentId") Integer departmentId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND t.assignedTo.id = :assignedToId")
+    List<Integer> findIdsAssignedTo(@Param("ids") Collection<Integer> ids, @Param("assignedToId") Integer assignedToId);
 
+    // What automatic assignment needs to know about the tasks of a user
+    @Query("SELECT t.id, t.department.id, t.status, t.priority, t.requiredQualification, t.requiredTechnologies " +
+            "FROM Task t WHERE t.assignedTo.id = :userId ORDER BY t.id")
+    List<Object[]> findAssignmentRequirementsByAssignee(@Param("userId") Integer userId);
+}
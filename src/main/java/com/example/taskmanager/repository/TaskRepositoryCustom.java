@@ -0,0 +1,93 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.ChangedTask;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.TaskCursor;
+import com.example.taskmanager.dto.TaskField;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskSearchCursor;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Task queries that are assembled at runtime and cannot be expressed as derived or annotated queries.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Fetches one page of tasks with keyset pagination.
+     *
+     * @param filter     the filter criteria
+     * @param sort       the sort order
+     * @param descending whether to sort in descending order
+     * @param after      the position to continue after, null for the first page
+     * @param limit      the maximum number of tasks to return
+     * @return the tasks following the cursor, in sort order
+     */
+    List<TaskSummary> findPage(TaskFilter filter, TaskSort sort, boolean descending, TaskCursor after, int limit);
+
+    /**
+     * Fetches one page of tasks with keyset pagination, selecting only some fields.
+     *
+     * @param fields     the fields to select
+     * @param filter     the filter criteria
+     * @param sort       the sort order
+     * @param descending whether to sort in descending order
+     * @param after      the position to continue after, null for the first page
+     * @param limit      the maximum number of tasks to return
+     * @return the selected fields of the tasks following the cursor, in sort order
+     */
+    List<Object[]> findPage(FieldSet<TaskField> fields, TaskFilter filter, TaskSort sort, boolean descending, TaskCursor after, int limit);
+
+    /**
+     * Fetches some fields of one task.
+     *
+     * @param fields the fields to select
+     * @param id     the task ID
+     * @return the selected fields of the task, empty if it does not exist
+     */
+    Optional<Object[]> findFieldsById(FieldSet<TaskField> fields, Integer id);
+
+    /**
+     * Fetches what bulk operations need to know about the tasks they change, ordered by ID.
+     *
+     * @param filter the filter criteria
+     * @param ids    only tasks with these IDs, null for any ID
+     * @param limit  the maximum number of tasks to return
+     * @return per task its ID, department ID, assignee ID, status, priority and required qualification
+     */
+    List<Object[]> findBulkTargets(TaskFilter filter, Collection<Integer> ids, int limit);
+
+    /**
+     * Fetches one page of full-text search results, ordered by rank and then by descending ID.
+     * Only the newest 10,000 matching tasks are ranked, which bounds the cost of searching for common terms:
+     * when more tasks match, older tasks are left out of the results even if they match better.
+     *
+     * @param query        the search query in web search syntax
+     * @param departmentId only tasks of this department, null for any department
+     * @param assignedToId only tasks assigned to this user, null for any assignee
+     * @param after        the position to continue after, null for the first page
+     * @param limit        the maximum number of results to return
+     * @return the matching tasks following the cursor, best match first
+     */
+    List<TaskSearchHit> search(String query, Integer departmentId, Integer assignedToId, TaskSearchCursor after, int limit);
+
+    /**
+     * Fetches the tasks changed after a position of the delta sync, ordered by the ID of the transaction
+     * that last changed them and then by task ID.
+     *
+     * @param departmentId only tasks of this department, null for any department
+     * @param assignedToId only tasks assigned to this user, null for any assignee
+     * @param afterXid     the transaction ID of the position to continue after
+     * @param afterId      the task ID of the position to continue after
+     * @param beforeXid    only tasks last changed by a transaction with a lower ID
+     * @param limit        the maximum number of tasks to return
+     * @return the changed tasks following the position
+     */
+    List<ChangedTask> findChangedAfter(Integer departmentId, Integer assignedToId, long afterXid, Integer afterId, long beforeXid, int limit);
+}
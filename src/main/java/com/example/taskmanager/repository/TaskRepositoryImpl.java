@@ -0,0 +1,263 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.ChangedTask;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.TaskCursor;
+import com.example.taskmanager.dto.TaskField;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskSearchCursor;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link TaskRepositoryCustom}.
+ * Pages are selected with a range condition on the sort key instead of an offset, so fetching a page
+ * reads only the rows on that page no matter how deep into the list it is. The conditions and sort
+ * expressions are written to match the composite indexes created in V5_task_keyset_indexes.sql.
+ * Full-text search runs against the search_vector column and GIN index created in V6_task_search.sql,
+ * and the delta sync against the change_xid column and indexes created in V17_task_change_transaction_ids.sql.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    // Must match the index expression COALESCE(due_date, DATE '9999-12-31')
+    private static final String DUE_DATE_KEY = "COALESCE(t.dueDate, {d '" + TaskCursor.NO_DUE_DATE + "'})";
+
+    // Upper bound on the matches that are ranked, so very common terms cannot make a search rank the whole table
+    private static final int SEARCH_CANDIDATES = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskSummary> findPage(TaskFilter filter, TaskSort sort, boolean descending, TaskCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, t.status, " +
+                "t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) ");
+        Map<String, Object> parameters = new HashMap<>();
+        appendPageQuery(jpql, parameters, filter, sort, descending, after);
+
+        TypedQuery<TaskSummary> query = entityManager.createQuery(jpql.toString(), TaskSummary.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findPage(FieldSet<TaskField> fields, TaskFilter filter, TaskSort sort, boolean descending, TaskCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(fields.selectList()).append(' ');
+        Map<String, Object> parameters = new HashMap<>();
+        appendPageQuery(jpql, parameters, filter, sort, descending, after);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Optional<Object[]> findFieldsById(FieldSet<TaskField> fields, Integer id) {
+        return entityManager.createQuery("SELECT " + fields.selectList() + " FROM Task t LEFT JOIN t.assignedTo a WHERE t.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Object[]> findBulkTargets(TaskFilter filter, Collection<Integer> ids, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT t.id, t.department.id, a.id, t.status, t.priority, t.requiredQualification " +
+                "FROM Task t LEFT JOIN t.assignedTo a WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        appendFilter(jpql, parameters, filter);
+        if (ids != null) {
+            jpql.append(" AND t.id IN :ids");
+            parameters.put("ids", ids);
+        }
+        jpql.append(" ORDER BY t.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Appends the FROM, WHERE and ORDER BY clauses of a page query to a select clause.
+     */
+    private static void appendPageQuery(StringBuilder jpql, Map<String, Object> parameters, TaskFilter filter, TaskSort sort,
+                                        boolean descending, TaskCursor after) {
+        jpql.append("FROM Task t LEFT JOIN t.assignedTo a WHERE 1 = 1");
+        appendFilter(jpql, parameters, filter);
+
+        String key = sortKey(sort);
+        String comparison = descending ? "<" : ">";
+        if (after != null) {
+            if (sort == TaskSort.ID) {
+                jpql.append(" AND t.id ").append(comparison).append(" :lastId");
+            } else {
+                // The first condition bounds the index range, the second skips the rows already seen on the boundary key
+                jpql.append(" AND ").append(key).append(' ').append(comparison).append("= :lastKey")
+                        .append(" AND (").append(key).append(' ').append(comparison).append(" :lastKey")
+                        .append(" OR t.id ").append(comparison).append(" :lastId)");
+                parameters.put("lastKey", after.sortKey());
+            }
+            parameters.put("lastId", after.id());
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ");
+        if (sort != TaskSort.ID) {
+            jpql.append(key).append(direction).append(", ");
+        }
+        jpql.append("t.id").append(direction);
+    }
+
+    /**
+     * Appends the conditions of a filter to a WHERE clause over the task t and its assignee a.
+     */
+    private static void appendFilter(StringBuilder jpql, Map<String, Object> parameters, TaskFilter filter) {
+        if (filter.status() != null) {
+            jpql.append(" AND t.status = :status");
+            parameters.put("status", filter.status());
+        }
+        if (filter.priority() != null) {
+            jpql.append(" AND t.priority = :priority");
+            parameters.put("priority", filter.priority());
+        }
+        if (filter.assignedToId() != null) {
+            jpql.append(" AND a.id = :assignedToId");
+            parameters.put("assignedToId", filter.assignedToId());
+        }
+        if (filter.departmentId() != null) {
+            jpql.append(" AND t.department.id = :departmentId");
+            parameters.put("departmentId", filter.departmentId());
+        }
+        if (filter.dueFrom() != null) {
+            jpql.append(" AND t.dueDate >= :dueFrom");
+            parameters.put("dueFrom", filter.dueFrom());
+        }
+        if (filter.dueTo() != null) {
+            jpql.append(" AND t.dueDate <= :dueTo");
+            parameters.put("dueTo", filter.dueTo());
+        }
+        if (filter.requiredQualification() != null) {
+            jpql.append(" AND t.requiredQualification = :requiredQualification");
+            parameters.put("requiredQualification", filter.requiredQualification());
+        }
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, Integer departmentId, Integer assignedToId, TaskSearchCursor after, int limit) {
+        // The matches come from the GIN index; materializing them keeps the planner from walking the primary key
+        // backwards to find the newest ones, which reads every task for a rare term. Ranking reads and decompresses
+        // each candidate's search vector, so only the newest SEARCH_CANDIDATES matches are ranked
+        StringBuilder sql = new StringBuilder("WITH matches AS MATERIALIZED (SELECT t.id FROM tasks t " +
+                "WHERE t.search_vector @@ websearch_to_tsquery('english', :query)");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("query", query);
+        if (departmentId != null) {
+            sql.append(" AND t.department_id = :departmentId");
+            parameters.put("departmentId", departmentId);
+        }
+        if (assignedToId != null) {
+            sql.append(" AND t.assigned_to = :assignedToId");
+            parameters.put("assignedToId", assignedToId);
+        }
+        sql.append("), candidates AS (SELECT m.id FROM matches m ORDER BY m.id DESC LIMIT ").append(SEARCH_CANDIDATES).append(") ")
+                .append("SELECT r.id, r.rank FROM (SELECT t.id, ts_rank(t.search_vector, websearch_to_tsquery('english', :query)) AS rank ")
+                .append("FROM candidates c JOIN tasks t ON t.id = c.id) r");
+        if (after != null) {
+            sql.append(" WHERE r.rank < :lastRank OR (r.rank = :lastRank AND r.id < :lastId)");
+            parameters.put("lastRank", after.rank());
+            parameters.put("lastId", after.id());
+        }
+        sql.append(" ORDER BY r.rank DESC, r.id DESC");
+
+        Query rankQuery = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(rankQuery::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Object[]> ranks = rankQuery.setMaxResults(limit).getResultList();
+        if (ranks.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, TaskSummary> summaries = findSummaries(ranks);
+        List<TaskSearchHit> hits = new ArrayList<>(ranks.size());
+        for (Object[] row : ranks) {
+            TaskSummary summary = summaries.get(((Number) row[0]).intValue());
+            if (summary != null) { // Deleted between the two queries
+                hits.add(new TaskSearchHit(summary, ((Number) row[1]).floatValue()));
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    public List<ChangedTask> findChangedAfter(Integer departmentId, Integer assignedToId, long afterXid, Integer afterId,
+                                              long beforeXid, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT t.id, t.change_xid FROM tasks t " +
+                "WHERE t.change_xid >= :afterXid AND (t.change_xid > :afterXid OR t.id > :afterId) AND t.change_xid < :beforeXid");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("afterXid", afterXid);
+        parameters.put("afterId", afterId);
+        parameters.put("beforeXid", beforeXid);
+        if (departmentId != null) {
+            sql.append(" AND t.department_id = :departmentId");
+            parameters.put("departmentId", departmentId);
+        }
+        if (assignedToId != null) {
+            sql.append(" AND t.assigned_to = :assignedToId");
+            parameters.put("assignedToId", assignedToId);
+        }
+        sql.append(" ORDER BY t.change_xid, t.id");
+
+        Query positionQuery = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(positionQuery::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Object[]> positions = positionQuery.setMaxResults(limit).getResultList();
+        if (positions.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, TaskSummary> summaries = findSummaries(positions);
+        List<ChangedTask> changes = new ArrayList<>(positions.size());
+        for (Object[] row : positions) {
+            TaskSummary summary = summaries.get(((Number) row[0]).intValue());
+            if (summary != null) { // Deleted between the two queries
+                changes.add(new ChangedTask(summary, ((Number) row[1]).longValue()));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Loads the summaries of the tasks whose IDs are in the first column of some rows.
+     */
+    private Map<Integer, TaskSummary> findSummaries(List<Object[]> rows) {
+        List<Integer> ids = rows.stream().map(row -> ((Number) row[0]).intValue()).toList();
+        return entityManager.createQuery("SELECT new com.example.taskmanager.dto.TaskSummary(t.id, t.title, " +
+                        "t.status, t.priority, t.dueDate, a.id, a.username, t.department.id, t.createdAt, t.updatedAt) " +
+                        "FROM Task t LEFT JOIN t.assignedTo a WHERE t.id IN :ids", TaskSummary.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(TaskSummary::id, Function.identity()));
+    }
+
+    private static String sortKey(TaskSort sort) {
+        return switch (sort) {
+            case ID -> "t.id";
+            case CREATED_AT -> "t.createdAt";
+            case UPDATED_AT -> "t.updatedAt";
+            case DUE_DATE -> DUE_DATE_KEY;
+        };
+    }
+}
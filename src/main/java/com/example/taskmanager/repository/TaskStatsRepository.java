@@ -0,0 +1,90 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.TaskStatusCounts;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskStatsRepository extends JpaRepository<TaskStats, Integer> {
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s")
+    Long sumAll();
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s WHERE s.status = :status")
+    Long sumByStatus(@Param("status") Task.TaskStatus status);
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s WHERE s.assignedTo = :userId")
+    Long sumByAssignedTo(@Param("userId") Integer userId);
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s WHERE s.assignedTo = :userId AND s.status = :status")
+    Long sumByAssignedToAndStatus(@Param("userId") Integer userId, @Param("status") Task.TaskStatus status);
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s WHERE s.departmentId = :departmentId")
+    Long sumByDepartment(@Param("departmentId") Integer departmentId);
+
+    @Query("SELECT COALESCE(SUM(s.taskCount), 0) FROM TaskStats s WHERE s.departmentId = :departmentId AND s.status = :status")
+    Long sumByDepartmentAndStatus(@Param("departmentId") Integer departmentId, @Param("status") Task.TaskStatus status);
+
+    @Query("SELECT new com.example.taskmanager.dto.TaskStatusCounts(COALESCE(SUM(s.taskCount), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'PENDING'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'IN_PROGRESS'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'COMPLETED'), 0)) " +
+            "FROM TaskStats s WHERE s.assignedTo = :userId")
+    TaskStatusCounts sumStatusesByAssignedTo(@Param("userId") Integer userId);
+
+    @Query("SELECT new com.example.taskmanager.dto.TaskStatusCounts(COALESCE(SUM(s.taskCount), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'PENDING'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'IN_PROGRESS'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'COMPLETED'), 0)) " +
+            "FROM TaskStats s WHERE s.departmentId = :departmentId")
+    TaskStatusCounts sumStatusesByDepartment(@Param("departmentId") Integer departmentId);
+
+    @Query("SELECT new com.example.taskmanager.dto.TaskStatusCounts(COALESCE(SUM(s.taskCount), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'PENDING'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'IN_PROGRESS'), 0), " +
+            "COALESCE(SUM(s.taskCount) FILTER (WHERE s.status = 'COMPLETED'), 0)) " +
+            "FROM TaskStats s")
+    TaskStatusCounts sumStatuses();
+
+    @Query("SELECT u.id, u.username, COALESCE(SUM(s.taskCount), 0) FROM User u LEFT JOIN TaskStats s ON s.assignedTo = u.id WHERE u.department.id = :departmentId GROUP BY u.id, u.username")
+    List<Object[]> getUserTaskLoadByDepartment(@Param("departmentId") Integer departmentId);
+
+    @Query("SELECT u.id, u.username, COALESCE(SUM(s.taskCount), 0) FROM User u LEFT JOIN TaskStats s ON s.assignedTo = u.id GROUP BY u.id, u.username")
+    List<Object[]> getUserTaskLoadForAllDepartments();
+
+    /**
+     * Counts the summary keys whose stored count differs from a fresh aggregation over tasks.
+     * Both tables are read in the same snapshot, so concurrent task changes do not show up as drift.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (" +
+            "SELECT department_id, assigned_to, status::TEXT AS status, priority::TEXT AS priority, COUNT(*) AS task_count " +
+            "FROM tasks GROUP BY department_id, assigned_to, status, priority) actual " +
+            "FULL OUTER JOIN (SELECT * FROM task_stats WHERE task_count <> 0) stored " +
+            "ON COALESCE(actual.department_id, -1) = COALESCE(stored.department_id, -1) " +
+            "AND COALESCE(actual.assigned_to, -1) = COALESCE(stored.assigned_to, -1) " +
+            "AND actual.status = stored.status AND actual.priority = stored.priority " +
+            "WHERE actual.task_count IS DISTINCT FROM stored.task_count", nativeQuery = true)
+    long countDriftedKeys();
+
+    /**
+     * Blocks the task triggers until the surrounding transaction ends, so a rebuild sees a stable tasks table.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE task_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM task_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    @Modifying
+    @Query(value = "INSERT INTO task_stats (department_id, assigned_to, status, priority, task_count) " +
+            "SELECT department_id, assigned_to, status::TEXT, priority::TEXT, COUNT(*) FROM tasks " +
+            "GROUP BY department_id, assigned_to, status, priority", nativeQuery = true)
+    int insertStatsFromTasks();
+}
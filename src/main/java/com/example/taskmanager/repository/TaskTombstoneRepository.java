@@ -0,0 +1,41 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the tombstones of one sync scope in (changeXid, id) order, continuing after a position and stopping
+ * before a transaction ID, so each query is one range scan of the matching index created in
+ * V17_task_change_transaction_ids.sql.
+ */
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Integer> {
+
+    @Query("SELECT t FROM TaskTombstone t WHERE t.deleted = true " +
+            "AND t.changeXid >= :afterXid AND (t.changeXid > :afterXid OR t.id > :afterId) AND t.changeXid < :beforeXid " +
+            "ORDER BY t.changeXid, t.id")
+    List<TaskTombstone> findDeletedAfter(@Param("afterXid") long afterXid, @Param("afterId") Integer afterId,
+                                         @Param("beforeXid") long beforeXid, Limit limit);
+
+    @Query("SELECT t FROM TaskTombstone t WHERE t.departmentId = :departmentId " +
+            "AND t.changeXid >= :afterXid AND (t.changeXid > :afterXid OR t.id > :afterId) AND t.changeXid < :beforeXid " +
+            "ORDER BY t.changeXid, t.id")
+    List<TaskTombstone> findByDepartmentAfter(@Param("departmentId") Integer departmentId, @Param("afterXid") long afterXid,
+                                              @Param("afterId") Integer afterId, @Param("beforeXid") long beforeXid, Limit limit);
+
+    @Query("SELECT t FROM TaskTombstone t WHERE t.assignedTo = :assignedToId " +
+            "AND t.changeXid >= :afterXid AND (t.changeXid > :afterXid OR t.id > :afterId) AND t.changeXid < :beforeXid " +
+            "ORDER BY t.changeXid, t.id")
+    List<TaskTombstone> findByAssigneeAfter(@Param("assignedToId") Integer assignedToId, @Param("afterXid") long afterXid,
+                                            @Param("afterId") Integer afterId, @Param("beforeXid") long beforeXid, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.removedAt < :before")
+    int deleteRemovedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,5 +1,6 @@
 package com.example.taskmanager.repository;
 
+import com.example.taskmanager.dto.UserSummary;
 import com.example.taskmanager.entity.Department;
 import com.example.taskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,26 +9,62 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Uniqueness check for many new users at once
+    @Query("SELECT u.username, u.email FROM User u WHERE u.username IN :usernames OR u.email IN :emails")
+    List<Object[]> findUsernamesAndEmails(@Param("usernames") Collection<String> usernames, @Param("emails") Collection<String> emails);
     List<User> findByDepartmentId(Integer departmentId);
 
     User findByUsername(String username);
 
+    // Version stamps of everything the user is rendered from, for its ETag
+    @Query("SELECT u.id, u.version, u.updatedAt, q.updatedAt, d.updatedAt FROM User u LEFT JOIN u.qualification q LEFT JOIN u.department d " +
+            "WHERE u.username = :username")
+    List<Object[]> findVersionStampsByUsername(@Param("username") String username);
+
     List<User> getUsersByDepartment(Department department);
 
     List<User> findAllByRoleAndDepartmentId(User.UserRole userRole, Integer departmentId);
 
-    List<User> findAllByRole(User.UserRole userRole);
+    List<User> findAllByRoleAndDepartmentIdIn(User.UserRole userRole, Collection<Integer> departmentIds);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role")
+    List<Integer> findIdsByRole(@Param("role") User.UserRole role);
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.department.id = :departmentId AND u.lastLogin IS NOT NULL")
     Integer countActiveUsersByDepartment(@Param("departmentId") Integer departmentId);
 
-    @Query("SELECT u FROM User u WHERE u.lastLogin < :thresholdDate OR u.lastLogin IS NULL")
-    List<User> findInactiveUsers(@Param("thresholdDate") LocalDateTime thresholdDate);
-}
+    @Query("SELECT new com.example.taskmanager.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.role, d.id, u.lastLogin) " +
+            "FROM User u LEFT JOIN u.department d WHERE u.lastLogin < :thresholdDate OR u.lastLogin IS NULL")
+    List<UserSummary> findInactiveUsers(@Param("thresholdDate") LocalDateTime thresholdDate);
+
+    @Query("SELECT u.id, u.username FROM User u WHERE u.department.id = :departmentId")
+    List<Object[]> findIdAndUsernameByDepartmentId(@Param("departmentId") Integer departmentId);
+
+    @Query("SELECT u.id, u.username FROM User u")
+    List<Object[]> findAllIdsAndUsernames();
 
+    User findByQualificationId(Integer qualificationId);
+
+    @Query("SELECT u.id, u.department.id, q.qualification, q.technologies FROM User u LEFT JOIN u.qualification q " +
+            "WHERE u.role = com.example.taskmanager.entity.User.UserRole.EMPLOYEE")
+    List<Object[]> findEmployeeSkills();
+
+    @Query("SELECT DISTINCT u.department.id FROM User u WHERE u.id IN :ids AND u.department IS NOT NULL")
+    List<Integer> findDepartmentIdsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT new com.example.taskmanager.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.role, d.id, u.lastLogin) " +
+            "FROM User u LEFT JOIN u.department d")
+    List<UserSummary> findAllSummaries();
+
+    @Query("SELECT new com.example.taskmanager.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.role, d.id, u.lastLogin) " +
+            "FROM User u JOIN u.department d WHERE d.id = :departmentId")
+    List<UserSummary> findSummariesByDepartmentId(@Param("departmentId") Integer departmentId);
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.UserDirectoryCursor;
+import com.example.taskmanager.dto.UserDirectoryEntry;
+import com.example.taskmanager.dto.UserField;
+
+import java.util.List;
+
+/**
+ * User queries that are assembled at runtime and cannot be expressed as derived or annotated queries.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Fetches some fields of all users or of the users of one department, ordered by ID.
+     *
+     * @param fields       the fields to select
+     * @param departmentId only users of this department, null for all users
+     * @return the selected fields of the users
+     */
+    List<Object[]> findFields(FieldSet<UserField> fields, Integer departmentId);
+
+    /**
+     * Fetches one page of the user directory in username order, optionally narrowed to users whose username,
+     * first name or last name starts with a prefix. A prefix of several words matches users whose first name
+     * starts with the first word and whose last name starts with the rest.
+     *
+     * @param prefix       the prefix to match, ignoring case; null for all users
+     * @param departmentId only users of this department, null for all users
+     * @param after        the cursor of the previous page, null for the first page
+     * @param limit        the maximum number of users to return
+     * @return the users on the page
+     */
+    List<UserDirectoryEntry> findDirectoryPage(String prefix, Integer departmentId, UserDirectoryCursor after, int limit);
+}
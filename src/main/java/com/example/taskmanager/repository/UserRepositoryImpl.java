@@ -0,0 +1,75 @@
+package com.example.taskmanager.repository;
+
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.UserDirectoryCursor;
+import com.example.taskmanager.dto.UserDirectoryEntry;
+import com.example.taskmanager.dto.UserField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementation of {@link UserRepositoryCustom}.
+ * Directory searches compare lower-cased names with LIKE 'prefix%', matching the text_pattern_ops indexes
+ * created in V12_user_directory_indexes.sql.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findFields(FieldSet<UserField> fields, Integer departmentId) {
+        String jpql = "SELECT " + fields.selectList() + " FROM User u"
+                + (departmentId != null ? " WHERE u.department.id = :departmentId" : "") + " ORDER BY u.id";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (departmentId != null) {
+            query.setParameter("departmentId", departmentId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<UserDirectoryEntry> findDirectoryPage(String prefix, Integer departmentId, UserDirectoryCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new com.example.taskmanager.dto.UserDirectoryEntry(u.id, u.username, " +
+                "u.firstName, u.lastName, u.role, d.id) FROM User u LEFT JOIN u.department d WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (prefix != null) {
+            String[] words = prefix.trim().toLowerCase(Locale.ROOT).split("\\s+", 2);
+            if (words.length == 1) {
+                jpql.append(" AND (lower(u.username) LIKE :prefix ESCAPE '\\' OR lower(u.firstName) LIKE :prefix ESCAPE '\\'" +
+                        " OR lower(u.lastName) LIKE :prefix ESCAPE '\\')");
+                parameters.put("prefix", likePrefix(words[0]));
+            } else {
+                jpql.append(" AND lower(u.firstName) LIKE :firstName ESCAPE '\\' AND lower(u.lastName) LIKE :lastName ESCAPE '\\'");
+                parameters.put("firstName", likePrefix(words[0]));
+                parameters.put("lastName", likePrefix(words[1]));
+            }
+        }
+        if (departmentId != null) {
+            jpql.append(" AND u.department.id = :departmentId");
+            parameters.put("departmentId", departmentId);
+        }
+        if (after != null) {
+            jpql.append(" AND u.username > :lastUsername");
+            parameters.put("lastUsername", after.username());
+        }
+        jpql.append(" ORDER BY u.username");
+
+        TypedQuery<UserDirectoryEntry> query = entityManager.createQuery(jpql.toString(), UserDirectoryEntry.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Turns user input into a LIKE pattern that matches it as a literal prefix.
+     */
+    private static String likePrefix(String input) {
+        return input.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
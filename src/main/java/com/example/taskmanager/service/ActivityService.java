@@ -1,7 +1,7 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.UserSummary;
 import com.example.taskmanager.entity.Notification;
-import com.example.taskmanager.entity.User;
 import com.example.taskmanager.repository.UserRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -34,11 +34,10 @@ public class ActivityService {
     @Scheduled(cron = "0 0 0 * * *")
     public void checkUserActivity() {
         LocalDateTime oneWeekAgo = LocalDateTime.now().minusDays(7);
-        List<User> inactiveUsers = userRepository.findAll().stream()
-                .filter(user -> user.getLastLogin() == null || user.getLastLogin().isBefore(oneWeekAgo))
+        List<String> messages = userRepository.findInactiveUsers(oneWeekAgo).stream()
+                .map(UserSummary::username)
+                .map(username -> "User " + username + " has been inactive for over a week")
                 .toList();
-        for (User user : inactiveUsers) {
-            notificationService.sendAdminNotification("User " + user.getUsername() + " has been inactive for over a week", Notification.NotificationType.OTHER, null);
-        }
+        notificationService.sendAdminNotifications(messages, Notification.NotificationType.OTHER, null);
     }
 }
@@ -0,0 +1,204 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of computed dashboards, keyed by user and role scope.
+ * A dashboard is dropped as soon as a task in its scope changes: an employee's dashboard when one of
+ * their tasks changes, a department head's when a task of the department or of one of its users changes,
+ * and every admin dashboard on any task change. Entries also expire after {@link #MAX_AGE}, which bounds
+ * the staleness of the user data shown on the dashboard.
+ * Concurrent misses for the same key are coalesced, so only one request builds a given dashboard.
+ */
+@Component
+public class DashboardCache {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final UserRepository userRepository;
+    private final Map<Key, CompletableFuture<CachedDashboard>> dashboards = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Timer rebuildTime;
+    private final Timer staleness;
+
+    public DashboardCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hits = meterRegistry.counter("dashboard.cache.requests", "result", "hit");
+        this.coalesced = meterRegistry.counter("dashboard.cache.requests", "result", "coalesced");
+        this.misses = meterRegistry.counter("dashboard.cache.requests", "result", "miss");
+        this.invalidations = meterRegistry.counter("dashboard.cache.invalidations");
+        this.rebuildTime = Timer.builder("dashboard.cache.rebuild")
+                .description("Time to build a dashboard on a cache miss")
+                .register(meterRegistry);
+        this.staleness = Timer.builder("dashboard.cache.staleness")
+                .description("Age of the cached dashboards served on a hit")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("dashboard.cache.size", Tags.empty(), dashboards);
+    }
+
+    /**
+     * Returns the cached dashboard of a user, building it with the loader on a miss.
+     * Dashboards with partial sections are returned but not cached, so the next request retries them.
+     *
+     * @param user   the user the dashboard is built for
+     * @param loader builds the dashboard, returning null if the user's role has no dashboard
+     * @return the dashboard data, or null if the loader returned null
+     */
+    public Map<String, Object> get(User user, Supplier<Map<String, Object>> loader) {
+        Key key = Key.of(user);
+        while (true) {
+            CompletableFuture<CachedDashboard> future = dashboards.get(key);
+            if (future == null) {
+                CompletableFuture<CachedDashboard> created = new CompletableFuture<>();
+                future = dashboards.putIfAbsent(key, created);
+                if (future == null) {
+                    misses.increment();
+                    return build(key, created, loader);
+                }
+            }
+
+            if (!future.isDone()) {
+                coalesced.increment();
+                return await(future);
+            }
+            CachedDashboard cached = future.isCompletedExceptionally() ? null : future.join();
+            if (cached == null) {
+                return await(future); // A build that failed or was not cacheable, about to be removed
+            }
+            long age = System.nanoTime() - cached.builtAt();
+            if (age > MAX_AGE.toNanos()) {
+                dashboards.remove(key, future);
+                continue;
+            }
+            hits.increment();
+            staleness.record(Duration.ofNanos(age));
+            return cached.data();
+        }
+    }
+
+    /**
+     * Drops the dashboards whose scope contains the changed task, once the change has committed.
+     * Runs after the task cube has applied the change, so a dashboard rebuilt right away sees the new counts.
+     *
+     * @param event the task change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (dashboards.isEmpty()) {
+            return;
+        }
+        Set<Integer> users = new HashSet<>();
+        addIfPresent(users, event.assignedToId());
+        addIfPresent(users, event.previousAssignedToId());
+
+        Set<Integer> departments = new HashSet<>();
+        addIfPresent(departments, event.departmentId());
+        addIfPresent(departments, event.previousDepartmentId());
+        invalidate(users, departments);
+
+        // Department heads show the task load of their users, so the users' departments are affected too.
+        // Only looked up while such dashboards remain, since bulk changes publish an event per task
+        if (!users.isEmpty() && dashboards.keySet().stream().anyMatch(key -> key.role() == User.UserRole.DEPARTMENT_HEAD)) {
+            invalidate(users, new HashSet<>(userRepository.findDepartmentIdsByIds(users)));
+        }
+    }
+
+    /**
+     * Drops all dashboards, for changes that bypass the task change events such as bulk imports.
+     */
+    public void invalidateAll() {
+        int size = dashboards.size();
+        dashboards.clear();
+        invalidations.increment(size);
+    }
+
+    private void invalidate(Set<Integer> users, Set<Integer> departments) {
+        dashboards.keySet().removeIf(key -> {
+            boolean affected = key.isAffectedBy(users, departments);
+            if (affected) {
+                invalidations.increment();
+            }
+            return affected;
+        });
+    }
+
+    private Map<String, Object> build(Key key, CompletableFuture<CachedDashboard> future, Supplier<Map<String, Object>> loader) {
+        Map<String, Object> data;
+        try {
+            data = rebuildTime.record(loader);
+        } catch (RuntimeException e) {
+            dashboards.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(data != null ? new CachedDashboard(data, System.nanoTime()) : null);
+        if (data == null || !isComplete(data)) {
+            dashboards.remove(key, future);
+        }
+        return data;
+    }
+
+    private static Map<String, Object> await(CompletableFuture<CachedDashboard> future) {
+        try {
+            CachedDashboard cached = future.join();
+            return cached != null ? cached.data() : null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isComplete(Map<String, Object> data) {
+        return !(data.get("partialSections") instanceof Map<?, ?> partial) || partial.isEmpty();
+    }
+
+    private static void addIfPresent(Set<Integer> ids, Integer id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private record CachedDashboard(Map<String, Object> data, long builtAt) {
+    }
+
+    /**
+     * Identifies a dashboard: the user it was built for and the scope of their role.
+     */
+    private record Key(Integer userId, User.UserRole role, Integer departmentId) {
+
+        static Key of(User user) {
+            return new Key(user.getId(), user.getRole(), user.getDepartment() != null ? user.getDepartment().getId() : null);
+        }
+
+        boolean isAffectedBy(Set<Integer> users, Set<Integer> departments) {
+            return switch (role) {
+                case EMPLOYEE -> users.contains(userId);
+                case DEPARTMENT_HEAD -> departments.contains(departmentId);
+                default -> true;
+            };
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskStatusCounts;
+import com.example.taskmanager.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service that assembles the role-specific dashboard data.
+ * Task counts for the user's scope come from the task cube, and the task and
+ * user lists are loaded as lightweight projections instead of full entities.
+ * The sections of a dashboard do not depend on each other, so they run in parallel on the
+ * dashboard executor, each in its own read-only transaction, against one deadline for the whole dashboard.
+ * A section that fails or times out is left out of the response and reported as partial,
+ * so a slow query delays the dashboard by at most the section timeout. Timed-out sections are cancelled,
+ * and sections the saturated executor rejects are reported as partial right away instead of running on the request thread.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final long SECTION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final String STATUS_COUNTS = "statusCounts";
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final DashboardCache dashboardCache;
+    private final ThreadPoolTaskExecutor dashboardExecutor;
+    private final PlatformTransactionManager transactionManager;
+
+    public DashboardService(TaskService taskService, UserService userService, DashboardCache dashboardCache,
+                            @Qualifier("dashboardExecutor") ThreadPoolTaskExecutor dashboardExecutor,
+                            PlatformTransactionManager transactionManager) {
+        this.taskService = taskService;
+        this.userService = userService;
+        this.dashboardCache = dashboardCache;
+        this.dashboardExecutor = dashboardExecutor;
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * Builds the dashboard data for a user.
+     * Includes task counts, high-priority tasks, overdue tasks, and additional data depending on the user role:
+     * - Employee: tasks assigned to the user.
+     * - Department head: tasks of the department, active user count and user task loads.
+     * - Admin: all tasks, user count, inactive users and user task loads.
+     * Sections that could not be loaded in time are listed under "partialSections" with the reason:
+     * timeout, error, or rejected when the dashboard executor is saturated.
+     * Complete dashboards are served from the dashboard cache until a task in their scope changes.
+     *
+     * @param currentUser The user the dashboard is built for.
+     * @return A map containing the dashboard data, or {@code null} if the role has no dashboard.
+     */
+    public Map<String, Object> getDashboard(User currentUser) {
+        return dashboardCache.get(currentUser, () -> buildDashboard(currentUser));
+    }
+
+    /**
+     * Loads all sections of a user's dashboard in parallel.
+     *
+     * @param currentUser The user the dashboard is built for.
+     * @return A map containing the dashboard data, or {@code null} if the role has no dashboard.
+     */
+    private Map<String, Object> buildDashboard(User currentUser) {
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+
+        // Data for employees
+        if (currentUser.getRole() == User.UserRole.EMPLOYEE) {
+            Integer userId = currentUser.getId();
+            sections.put(STATUS_COUNTS, () -> taskService.getTaskStatusCountsByUser(userId));
+            sections.put("highPriorityTasks", () -> taskService.findHighPriorityTasksByUser(userId));
+            sections.put("overdueTasks", () -> taskService.findOverdueTasksByUser(userId));
+        }
+        // Data for department heads
+        else if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD) {
+            Integer departmentId = currentUser.getDepartment().getId();
+            sections.put(STATUS_COUNTS, () -> taskService.getTaskStatusCountsByDepartment(departmentId));
+            sections.put("activeUserCount", () -> userService.countActiveUsersByDepartment(departmentId));
+            sections.put("highPriorityTasks", () -> taskService.findHighPriorityTasksByDepartment(departmentId));
+            sections.put("overdueTasks", () -> taskService.findOverdueTasksByDepartment(departmentId));
+            sections.put("userTaskLoads", () -> taskService.getUserTaskLoadByDepartment(departmentId));
+        }
+        // Data for admins
+        else if (currentUser.getRole() == User.UserRole.ADMIN) {
+            sections.put("userCount", userService::countAllUsers);
+            sections.put(STATUS_COUNTS, taskService::getTaskStatusCounts);
+            sections.put("highPriorityTasks", taskService::findAllHighPriorityTasks);
+            sections.put("overdueTasks", taskService::findAllOverdueTasks);
+            sections.put("inactiveUsers", userService::findInactiveUsers);
+            sections.put("userTaskLoads", taskService::getUserTaskLoadForAllDepartments);
+        } else {
+            return null;
+        }
+
+        Map<String, Object> dashboardData = new HashMap<>();
+
+        // User-related data
+        dashboardData.put("user", Map.of(
+                "id", currentUser.getId(),
+                "role", currentUser.getRole().toString()
+        ));
+
+        // All sections share one deadline, so the dashboard waits at most the section timeout in total
+        long deadline = System.nanoTime() + SECTION_TIMEOUT_NANOS;
+        Map<String, String> partialSections = new LinkedHashMap<>();
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        sections.forEach((name, loader) -> {
+            try {
+                futures.put(name, dashboardExecutor.submit(() -> loadSection(loader, deadline)));
+            } catch (TaskRejectedException e) {
+                logger.warn("Dashboard section {} for user {} was rejected, the dashboard executor is saturated", name, currentUser.getId());
+                partialSections.put(name, "rejected");
+            }
+        });
+
+        for (Map.Entry<String, Future<Object>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            Future<Object> future = entry.getValue();
+            try {
+                Object value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (STATUS_COUNTS.equals(name)) {
+                    putStatusCounts(dashboardData, (TaskStatusCounts) value);
+                } else {
+                    dashboardData.put(name, value);
+                }
+            } catch (TimeoutException e) {
+                // A queued section never starts; a running one is interrupted and its query cancelled by the transaction timeout
+                future.cancel(true);
+                logger.warn("Dashboard section {} for user {} timed out", name, currentUser.getId());
+                partialSections.put(name, "timeout");
+            } catch (ExecutionException e) {
+                logger.warn("Dashboard section {} for user {} failed", name, currentUser.getId(), e.getCause());
+                partialSections.put(name, "error");
+            } catch (InterruptedException e) {
+                futures.values().forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading the dashboard", e);
+            }
+        }
+        dashboardData.put("partialSections", partialSections);
+
+        return dashboardData;
+    }
+
+    /**
+     * Loads one section in its own read-only transaction.
+     * The transaction times out at the dashboard deadline, rounded up to whole seconds, which makes the database
+     * cancel the section's queries instead of letting them run on after the dashboard has given up on them.
+     *
+     * @param loader The section's loader.
+     * @param deadline The dashboard deadline, in {@link System#nanoTime()} units.
+     * @return The section's data.
+     */
+    private Object loadSection(Supplier<Object> loader, long deadline) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new IllegalStateException("Dashboard deadline passed before the section started");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) ((remainingNanos + 999_999_999) / 1_000_000_000));
+        return transaction.execute(status -> loader.get());
+    }
+
+    /**
+     * Copies the task counts into the dashboard data under the keys the dashboard page expects.
+     *
+     * @param dashboardData The dashboard data to fill.
+     * @param counts The task counts for the user's scope.
+     */
+    private void putStatusCounts(Map<String, Object> dashboardData, TaskStatusCounts counts) {
+        dashboardData.put("taskCount", counts.total());
+        dashboardData.put("pendingCount", counts.pending());
+        dashboardData.put("inProgressCount", counts.inProgress());
+        dashboardData.put("completedCount", counts.completed());
+    }
+}
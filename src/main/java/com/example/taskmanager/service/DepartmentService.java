@@ -1,18 +1,24 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.dto.UserSummary;
 import com.example.taskmanager.entity.Department;
-import com.example.taskmanager.entity.Task;
-import com.example.taskmanager.entity.User;
 import com.example.taskmanager.exception.ResourceNotFoundException;
 import com.example.taskmanager.repository.DepartmentRepository;
-import com.example.taskmanager.repository.TaskRepository;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Service class that handles business logic related to departments, users, and tasks.
@@ -21,13 +27,13 @@ import java.util.stream.Collectors;
  */
 @Service
 public class DepartmentService {
-    private final TaskRepository taskRepository;
+    private final TaskService taskService;
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
 
     @Autowired
-    public DepartmentService(TaskRepository taskRepository, UserRepository userRepository, DepartmentRepository departmentRepository) {
-        this.taskRepository = taskRepository;
+    public DepartmentService(TaskService taskService, UserRepository userRepository, DepartmentRepository departmentRepository) {
+        this.taskService = taskService;
         this.userRepository = userRepository;
         this.departmentRepository = departmentRepository;
     }
@@ -43,43 +49,73 @@ public class DepartmentService {
         return departmentRepository.save(department);
     }
 
+    /**
+     * Computes the ETag of the department list from the number of departments and their latest update,
+     * without loading the departments.
+     *
+     * @return The strong ETag of the current department list.
+     */
+    @Transactional(readOnly = true)
+    public String getDepartmentsETag() {
+        return ETags.of("departments", Arrays.asList(departmentRepository.findVersionStamps().get(0)));
+    }
+
+    /**
+     * Computes the ETag of a loaded department list, from the same stamps as {@link #getDepartmentsETag()}.
+     *
+     * @param departments All departments.
+     * @return The strong ETag of the department list as loaded.
+     */
+    public String getDepartmentsETag(List<Department> departments) {
+        LocalDateTime latestUpdate = departments.stream().map(Department::getUpdatedAt).filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo).orElse(null);
+        return ETags.of("departments", Arrays.asList(departments.size(), latestUpdate));
+    }
+
     /**
      * Retrieves all departments from the database.
      * This method returns a list of all departments.
      *
      * @return A list of all departments.
      */
+    @Transactional(readOnly = true)
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
 
     /**
-     * Retrieves all tasks associated with a specific department.
-     * This method fetches all users within the specified department and
-     * retrieves tasks assigned to those users.
+     * Retrieves one page of the tasks belonging to a specific department.
+     * This method selects the tasks by their own department, so unassigned tasks are included,
+     * and reads only the columns shown in task lists in a single keyset query.
      *
      * @param departmentId The ID of the department.
-     * @return A list of tasks assigned to users in the department.
+     * @param sort The sort order.
+     * @param descending Whether to sort in descending order.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks on the page.
+     * @return The page of task summaries and the cursor for the next page.
+     * @throws ResourceNotFoundException If the department does not exist.
+     * @throws IllegalArgumentException If the limit is out of range or the cursor is invalid.
      */
-    public List<Task> getTasksByDepartmentId(Integer departmentId) {
-        List<User> users = userRepository.getUsersByDepartment(departmentRepository.findById(departmentId).get());
-        return users.stream()
-                .flatMap(user -> taskRepository.findByAssignedTo(user).stream())
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummary> getTasksByDepartmentId(Integer departmentId, TaskSort sort, boolean descending, String cursor, int limit) {
+        requireDepartment(departmentId);
+        TaskFilter filter = new TaskFilter(null, null, null, departmentId, null, null, null);
+        return taskService.findTaskPage(filter, sort, descending, cursor, limit);
     }
 
     /**
-     * Retrieves all users in a specific department.
-     * This method finds the department by ID and returns a list of users
-     * associated with that department.
+     * Retrieves a list view of all users in a specific department.
+     * This method returns the users associated with the department, without passwords or nested entities.
      *
      * @param departmentId The ID of the department.
-     * @return A list of users in the department.
+     * @return A list of summaries of the users in the department.
      * @throws ResourceNotFoundException If the department does not exist.
      */
-    public List<User> getUsersByDepartmentId(int departmentId) {
-        return userRepository.getUsersByDepartment(departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Department not found with id " + departmentId)));
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUsersByDepartmentId(int departmentId) {
+        requireDepartment(departmentId);
+        return userRepository.findSummariesByDepartmentId(departmentId);
     }
 
     /**
@@ -107,10 +143,22 @@ public class DepartmentService {
      * @return An Optional containing the department, or an empty Optional if not found.
      * @throws ResourceNotFoundException If the department is not found.
      */
+    @Transactional(readOnly = true)
     public Optional<Department> findDepartmentById(Integer id) {
-        if (!departmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Department not found with id " + id);
+        Department department = departmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Department not found with id " + id));
+        return Optional.of(department);
+    }
+
+    /**
+     * Checks that a department exists.
+     *
+     * @param departmentId The ID of the department.
+     * @throws ResourceNotFoundException If the department does not exist.
+     */
+    private void requireDepartment(Integer departmentId) {
+        if (!departmentRepository.existsById(departmentId)) {
+            throw new ResourceNotFoundException("Department not found with id " + departmentId);
         }
-        return departmentRepository.findById(id);
     }
 }
\ No newline at end of file
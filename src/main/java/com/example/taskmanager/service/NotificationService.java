@@ -1,5 +1,7 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.NotificationField;
 import com.example.taskmanager.entity.Notification;
 import com.example.taskmanager.entity.User;
 import com.example.taskmanager.exception.ResourceNotFoundException;
@@ -7,9 +9,12 @@ import com.example.taskmanager.repository.NotificationRepository;
 import com.example.taskmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class that handles business logic related to notifications.
@@ -47,6 +52,7 @@ public class NotificationService {
      * @param recipient The username of the recipient user.
      * @return A list of unread notifications for the specified user.
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUnreadNotifications(String recipient) {
         User user = userRepository.findByUsername(recipient);
         return notificationRepository.findByUserAndReadFalse(user);
@@ -77,9 +83,7 @@ public class NotificationService {
      */
     public void sendDepartmentHeadNotification(String message, Integer departmentId, Notification.NotificationType type, Integer referenceId) {
         List<User> departmentHeads = userRepository.findAllByRoleAndDepartmentId(User.UserRole.DEPARTMENT_HEAD, departmentId);
-        for (User departmentHead : departmentHeads) {
-            sendNotification(message, departmentHead.getUsername(), type, referenceId);
-        }
+        notifyAll(departmentHeads, List.of(message), type, referenceId);
     }
 
     /**
@@ -91,10 +95,41 @@ public class NotificationService {
      * @param referenceId The ID of the related entity (can be null).
      */
     public void sendAdminNotification(String message, Notification.NotificationType type, Integer referenceId) {
-        List<User> admins = userRepository.findAllByRole(User.UserRole.ADMIN);
-        for (User admin : admins) {
-            sendNotification(message, admin.getUsername(), type, referenceId);
+        sendAdminNotifications(List.of(message), type, referenceId);
+    }
+
+    /**
+     * Sends several notifications to all admin users.
+     * The admins are looked up once, by ID only, and every admin receives one notification per message.
+     *
+     * @param messages The messages to be sent, one notification each.
+     * @param type The type of the notifications.
+     * @param referenceId The ID of the related entity (can be null).
+     */
+    public void sendAdminNotifications(List<String> messages, Notification.NotificationType type, Integer referenceId) {
+        if (messages.isEmpty()) {
+            return;
         }
+        // References, so the eagerly fetched department and qualification of each admin are not loaded
+        List<User> admins = userRepository.findIdsByRole(User.UserRole.ADMIN).stream().map(userRepository::getReferenceById).toList();
+        notifyAll(admins, messages, type, referenceId);
+    }
+
+    /**
+     * Sends each user their own notification, looking all recipients up with one query.
+     * Unknown user IDs are skipped.
+     *
+     * @param messagesByUserId The message to be sent, per ID of the recipient user.
+     * @param type The type of the notifications.
+     * @param referenceId The ID of the related entity (can be null).
+     */
+    public void sendNotifications(Map<Integer, String> messagesByUserId, Notification.NotificationType type, Integer referenceId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(messagesByUserId.size());
+        for (User recipient : userRepository.findAllById(messagesByUserId.keySet())) {
+            notifications.add(new Notification(recipient, messagesByUserId.get(recipient.getId()), false, now, type, referenceId));
+        }
+        notificationRepository.saveAll(notifications);
     }
 
     /**
@@ -105,6 +140,7 @@ public class NotificationService {
      * @return A list of unread notifications for the specified user.
      * @throws ResourceNotFoundException If the user is not found.
      */
+    @Transactional(readOnly = true)
     public List<Notification> findNotificationsByUserAndReadFalse(Integer userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + userId));
@@ -118,12 +154,57 @@ public class NotificationService {
      * @param username The username of the user.
      * @return A list of notifications for the specified user.
      */
+    @Transactional(readOnly = true)
     public List<Notification> findNotificationsByUsername (String username) {
         User user = userRepository.findByUsername(username);
         return notificationRepository.findByUser(user);
     }
 
+    /**
+     * Retrieves some fields of the notifications of a user, reading only their columns.
+     *
+     * @param username The username of the user.
+     * @param unreadOnly Whether to return only unread notifications.
+     * @param fields The fields to return.
+     * @return The requested fields of each notification by name, ordered by notification ID.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findNotificationFields(String username, boolean unreadOnly, FieldSet<NotificationField> fields) {
+        return notificationRepository.findFieldsByUsername(fields, username, unreadOnly).stream().map(fields::toMap).toList();
+    }
+
     public void deleteNotification(Integer id) {
         notificationRepository.deleteById(id);
     }
+
+    /**
+     * Deletes all notifications of a user with a single statement.
+     *
+     * @param userId The ID of the user.
+     * @return The number of deleted notifications.
+     */
+    @Transactional
+    public int deleteNotificationsByUserId(Integer userId) {
+        return notificationRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Saves one notification per recipient and message for recipients that are already loaded,
+     * instead of looking each recipient up again by username.
+     *
+     * @param recipients The users to notify.
+     * @param messages The messages to be sent.
+     * @param type The type of the notifications.
+     * @param referenceId The ID of the related entity (can be null).
+     */
+    private void notifyAll(List<User> recipients, List<String> messages, Notification.NotificationType type, Integer referenceId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(recipients.size() * messages.size());
+        for (User recipient : recipients) {
+            for (String message : messages) {
+                notifications.add(new Notification(recipient, message, false, now, type, referenceId));
+            }
+        }
+        notificationRepository.saveAll(notifications);
+    }
 }
\ No newline at end of file
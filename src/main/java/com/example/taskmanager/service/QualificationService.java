@@ -1,14 +1,21 @@
 package com.example.taskmanager.service;
 
 import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.UserSkillsChangedEvent;
 import com.example.taskmanager.exception.ResourceNotFoundException;
-import com.example.taskmanager.repository.DepartmentRepository;
 import com.example.taskmanager.repository.QualificationRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -19,12 +26,14 @@ import java.util.Optional;
 public class QualificationService {
 
     private final QualificationRepository qualificationRepository;
-    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public QualificationService(QualificationRepository qualificationRepository, DepartmentRepository departmentRepository) {
+    public QualificationService(QualificationRepository qualificationRepository, UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.qualificationRepository = qualificationRepository;
-        this.departmentRepository = departmentRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -42,19 +51,48 @@ public class QualificationService {
     /**
      * Updates an existing qualification record.
      * This method checks if the qualification with the given ID exists,
-     * then updates and saves the qualification record.
+     * then updates and saves the qualification record and refreshes its user in the skill index.
      *
      * @param id The ID of the qualification to update.
      * @param qualification The qualification object containing updated details.
      * @return The updated qualification record.
      * @throws ResourceNotFoundException If the qualification with the given ID is not found.
      */
+    @Transactional
     public Qualification updateQualification(Integer id, Qualification qualification) {
-        if (!departmentRepository.existsById(id)) {
+        if (!qualificationRepository.existsById(id)) {
             throw new ResourceNotFoundException("Qualification not found for id " + id);
         }
         qualification.setId(id);
-        return qualificationRepository.save(qualification);
+        Qualification savedQualification = qualificationRepository.save(qualification);
+        User user = userRepository.findByQualificationId(id);
+        if (user != null) {
+            eventPublisher.publishEvent(UserSkillsChangedEvent.saved(user));
+        }
+        return savedQualification;
+    }
+
+    /**
+     * Computes the ETag of the qualification list from the number of qualifications and their latest update,
+     * without loading the qualifications.
+     *
+     * @return The strong ETag of the current qualification list.
+     */
+    @Transactional(readOnly = true)
+    public String getQualificationsETag() {
+        return ETags.of("qualifications", Arrays.asList(qualificationRepository.findVersionStamps().get(0)));
+    }
+
+    /**
+     * Computes the ETag of a loaded qualification list, from the same stamps as {@link #getQualificationsETag()}.
+     *
+     * @param qualifications All qualifications.
+     * @return The strong ETag of the qualification list as loaded.
+     */
+    public String getQualificationsETag(List<Qualification> qualifications) {
+        LocalDateTime latestUpdate = qualifications.stream().map(Qualification::getUpdatedAt).filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo).orElse(null);
+        return ETags.of("qualifications", Arrays.asList(qualifications.size(), latestUpdate));
     }
 
     /**
@@ -69,12 +107,18 @@ public class QualificationService {
 
     /**
      * Deletes a qualification record by its ID.
-     * This method removes the qualification with the given ID from the database.
+     * This method removes the qualification with the given ID from the database
+     * and takes its user's skills out of the skill index.
      *
      * @param id The ID of the qualification to delete.
      */
+    @Transactional
     public void deleteQualification(Integer id) {
+        User user = userRepository.findByQualificationId(id);
         qualificationRepository.deleteById(id);
+        if (user != null) {
+            eventPublisher.publishEvent(UserSkillsChangedEvent.removed(user.getId()));
+        }
     }
 
     /**
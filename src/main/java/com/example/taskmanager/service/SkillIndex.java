@@ -0,0 +1,234 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.event.UserSkillsChangedEvent;
+import com.example.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the qualifications of employees, used to find assignment candidates.
+ * Employee IDs are kept in bit sets per technology, per department and per qualification type,
+ * so the employees matching a task are found by intersecting a few bit sets instead of scanning users.
+ * Technologies are compared case-insensitively after splitting the free-text list on commas and semicolons.
+ * The index is built when the application starts, updated from {@link UserSkillsChangedEvent}s once the
+ * transactions that changed users and qualifications have committed, and rebuilt every hour to pick up
+ * changes made outside this instance.
+ */
+@Service
+public class SkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillIndex.class);
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // All fields below are guarded by lock
+    private final Object lock = new Object();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, BitSet> employeesByTechnology = new HashMap<>();
+    private final Map<Integer, BitSet> employeesByDepartment = new HashMap<>();
+    private final Map<Qualification.QualificationType, BitSet> employeesByQualification = new EnumMap<>(Qualification.QualificationType.class);
+    private boolean ready;
+    private List<UserSkillsChangedEvent> eventsDuringRebuild; // Non-null while a rebuild is running
+
+    public SkillIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index every hour to correct for changes made by other instances or directly in the database.
+     */
+    @Scheduled(cron = "0 45 * * * *")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index from the qualifications of all employees.
+     * Skill changes that arrive while the employees are read are replayed on the new index.
+     */
+    public void rebuild() {
+        synchronized (lock) {
+            eventsDuringRebuild = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        List<Object[]> rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> userRepository.findEmployeeSkills());
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                eventsDuringRebuild = null;
+            }
+            throw e;
+        }
+        int technologies;
+        synchronized (lock) {
+            entries.clear();
+            employeesByTechnology.clear();
+            employeesByDepartment.clear();
+            employeesByQualification.clear();
+            for (Object[] row : rows) {
+                add((Integer) row[0], new Entry((Integer) row[1], (Qualification.QualificationType) row[2], tokenize((String) row[3])));
+            }
+            eventsDuringRebuild.forEach(this::apply);
+            eventsDuringRebuild = null;
+            ready = true;
+            technologies = employeesByTechnology.size();
+        }
+        logger.info("Built skill index for {} employees with {} technologies in {} ms",
+                rows.size(), technologies, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a change to the skills of a user once the transaction that made it has committed,
+     * so the index never offers candidates from a change that was rolled back.
+     *
+     * @param event the skill change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSkillsChanged(UserSkillsChangedEvent event) {
+        synchronized (lock) {
+            apply(event);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+        }
+    }
+
+    /**
+     * Finds the employees of a department who have a qualification type and know all the given technologies.
+     *
+     * @param departmentId  the department of the task
+     * @param qualification the qualification type the task requires
+     * @param technologies  the comma-separated technologies the task requires, null or blank for none
+     * @return the IDs of the matching employees as a bit set owned by the caller
+     */
+    public BitSet findCandidates(Integer departmentId, Qualification.QualificationType qualification, String technologies) {
+        Set<String> required = tokenize(technologies);
+        if (!isReady()) {
+            rebuild(); // Assignment before the first build; build now rather than answer from an empty index
+        }
+        synchronized (lock) {
+            BitSet candidates = copy(employeesByDepartment.get(departmentId));
+            candidates.and(employeesByQualification.getOrDefault(qualification, EMPTY));
+            for (String technology : required) {
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                candidates.and(employeesByTechnology.getOrDefault(technology, EMPTY));
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * Tells whether the index has been built.
+     *
+     * @return true once the first build has completed
+     */
+    public boolean isReady() {
+        synchronized (lock) {
+            return ready;
+        }
+    }
+
+    /**
+     * Splits a free-text technology list into normalized tokens.
+     *
+     * @param technologies a list like "Java, Spring Boot; Docker", may be null
+     * @return the lower-case technologies, without blanks
+     */
+    public static Set<String> tokenize(String technologies) {
+        if (technologies == null || technologies.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(technologies.split("[,;]"))
+                .map(technology -> technology.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+                .filter(technology -> !technology.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void apply(UserSkillsChangedEvent event) {
+        remove(event.userId());
+        if (!event.removed()) {
+            add(event.userId(), new Entry(event.departmentId(), event.qualification(), tokenize(event.technologies())));
+        }
+    }
+
+    private void remove(Integer userId) {
+        Entry entry = entries.remove(userId);
+        if (entry == null) {
+            return;
+        }
+        clear(employeesByDepartment, entry.departmentId(), userId);
+        clear(employeesByQualification, entry.qualification(), userId);
+        entry.technologies().forEach(technology -> clear(employeesByTechnology, technology, userId));
+    }
+
+    private void add(Integer userId, Entry entry) {
+        entries.put(userId, entry);
+        set(employeesByDepartment, entry.departmentId(), userId);
+        set(employeesByQualification, entry.qualification(), userId);
+        entry.technologies().forEach(technology -> set(employeesByTechnology, technology, userId));
+    }
+
+    private static <K> void set(Map<K, BitSet> index, K key, int userId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(userId);
+        }
+    }
+
+    private static <K> void clear(Map<K, BitSet> index, K key, int userId) {
+        if (key == null) {
+            return;
+        }
+        BitSet userIds = index.get(key);
+        if (userIds != null) {
+            userIds.clear(userId);
+            if (userIds.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static BitSet copy(BitSet userIds) {
+        return userIds != null ? (BitSet) userIds.clone() : new BitSet();
+    }
+
+    /**
+     * What the index knows about one employee, kept so the employee can be removed again.
+     */
+    private record Entry(Integer departmentId, Qualification.QualificationType qualification, Set<String> technologies) {
+    }
+}
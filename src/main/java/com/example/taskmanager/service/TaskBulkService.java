@@ -0,0 +1,233 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskBulkRequest;
+import com.example.taskmanager.dto.TaskBulkResult;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.entity.Notification;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.ResourceNotFoundException;
+import com.example.taskmanager.repository.TaskCommentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Service that changes the status of, reassigns or deletes many tasks at once.
+ * The tasks are selected with one query and changed with set-wise UPDATE and DELETE statements over their IDs,
+ * instead of loading and saving every task, so the number of statements does not grow with the number of tasks
+ * until a statement's ID list is full. Every user who is affected receives one notification for the whole
+ * operation rather than one per task.
+ * The change runs in one transaction: either all selected tasks are changed or none. A task change event is
+ * published for every changed task, so the read models apply the change once the transaction has committed.
+ */
+@Service
+public class TaskBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskBulkService.class);
+
+    /**
+     * The maximum number of tasks one request may change.
+     */
+    public static final int MAX_TASKS = 10_000;
+
+    // IDs per statement, well below the bind parameter limit of PostgreSQL
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final TaskFilter NO_FILTER = new TaskFilter(null, null, null, null, null, null, null);
+
+    private final TaskRepository taskRepository;
+    private final TaskCommentRepository taskCommentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationService notificationService;
+
+    public TaskBulkService(TaskRepository taskRepository, TaskCommentRepository taskCommentRepository, UserRepository userRepository,
+                           PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                           NotificationService notificationService) {
+        this.taskRepository = taskRepository;
+        this.taskCommentRepository = taskCommentRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Applies an operation to the tasks selected by a request, within the tasks visible to the user:
+     * all tasks for admins, the department's tasks for department heads and their own tasks for employees.
+     * Selected tasks outside that scope are left alone. Tasks that already have the requested status or
+     * assignee are not changed. Assignees of changed tasks and heads of their departments are notified,
+     * except the user making the change.
+     *
+     * @param currentUser The user making the change.
+     * @param request The operation and the tasks to apply it to.
+     * @return How many tasks were selected and changed.
+     * @throws IllegalArgumentException if the request is incomplete, selects too many tasks, or reassigns tasks
+     *                                  of a department head to a user of another department.
+     * @throws ResourceNotFoundException if the new assignee is not found.
+     */
+    public TaskBulkResult apply(User currentUser, TaskBulkRequest request) {
+        validate(request);
+        long start = System.nanoTime();
+        TaskFilter filter = TaskService.scopeToUser(currentUser, request.filter() != null ? request.filter() : NO_FILTER);
+
+        Map<Integer, String> messages = new LinkedHashMap<>();
+        int[] counts = Objects.requireNonNull(transaction.execute(status -> {
+            List<Object[]> rows = taskRepository.findBulkTargets(filter, request.ids(), MAX_TASKS + 1);
+            if (rows.size() > MAX_TASKS) {
+                throw new IllegalArgumentException("At most " + MAX_TASKS + " tasks can be changed at once, narrow the selection");
+            }
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // The precision of database timestamps
+            List<Object[]> changed = switch (request.operation()) {
+                case SET_STATUS -> {
+                    List<Object[]> targets = select(rows, row -> row[3] != request.status());
+                    forEachChunk(targets, ids -> taskRepository.updateStatusByIds(ids, request.status(), now));
+                    targets.forEach(row -> publishChange(row, request.status(), (Integer) row[2]));
+                    String change = " set to " + request.status();
+                    collectMessages(messages, currentUser, targets, count -> "Status of " + tasks(count) + " assigned to you" + change,
+                            count -> "Status of " + tasks(count) + " in your department" + change);
+                    yield targets;
+                }
+                case REASSIGN -> {
+                    User assignee = findAssignee(currentUser, request.assignedToId());
+                    List<Object[]> targets = select(rows, row -> !assignee.getId().equals(row[2]));
+                    forEachChunk(targets, ids -> taskRepository.updateAssigneeByIds(ids, assignee, now));
+                    targets.forEach(row -> publishChange(row, (Task.TaskStatus) row[3], assignee.getId()));
+                    String change = " reassigned to " + assignee.getUsername();
+                    collectMessages(messages, currentUser, targets, count -> tasks(count) + " assigned to you" + change,
+                            count -> tasks(count) + " in your department" + change);
+                    if (!targets.isEmpty() && !assignee.getId().equals(currentUser.getId())) {
+                        messages.merge(assignee.getId(), "You have been assigned " + tasks(targets.size()), TaskBulkService::join);
+                    }
+                    yield targets;
+                }
+                case DELETE -> {
+                    forEachChunk(rows, ids -> {
+                        taskCommentRepository.deleteByTaskIds(ids);
+                        taskRepository.deleteAllByIdInBatch(ids);
+                    });
+                    rows.forEach(row -> eventPublisher.publishEvent(new TaskChangedEvent((Integer) row[0], true, null, null, null, null,
+                            null, (Integer) row[1], (Integer) row[2])));
+                    collectMessages(messages, currentUser, rows, count -> tasks(count) + " assigned to you deleted",
+                            count -> tasks(count) + " in your department deleted");
+                    yield rows;
+                }
+            };
+            return new int[]{rows.size(), changed.size()};
+        }));
+
+        if (counts[1] > 0) {
+            notificationService.sendNotifications(messages, Notification.NotificationType.TASK, null);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Applied {} to {} of {} selected tasks for user {} in {} ms, {} users notified",
+                request.operation(), counts[1], counts[0], currentUser.getId(), elapsedMillis, messages.size());
+        return new TaskBulkResult(request.operation(), counts[0], counts[1], elapsedMillis);
+    }
+
+    private static void validate(TaskBulkRequest request) {
+        if (request.operation() == null) {
+            throw new IllegalArgumentException("Operation is required");
+        }
+        if (request.ids() == null && (request.filter() == null || request.filter().isEmpty())) {
+            throw new IllegalArgumentException("Select the tasks by ID or with a filter");
+        }
+        if (request.ids() != null && request.ids().size() > MAX_TASKS) {
+            throw new IllegalArgumentException("At most " + MAX_TASKS + " tasks can be changed at once");
+        }
+        if (request.operation() == TaskBulkRequest.Operation.SET_STATUS && request.status() == null) {
+            throw new IllegalArgumentException("Status is required to change the status");
+        }
+        if (request.operation() == TaskBulkRequest.Operation.REASSIGN && request.assignedToId() == null) {
+            throw new IllegalArgumentException("Assignee is required to reassign tasks");
+        }
+    }
+
+    /**
+     * Looks up the new assignee; department heads may only assign tasks to users of their own department.
+     */
+    private User findAssignee(User currentUser, Integer assignedToId) {
+        User assignee = userRepository.findById(assignedToId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + assignedToId));
+        if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD
+                && (assignee.getDepartment() == null || !assignee.getDepartment().getId().equals(currentUser.getDepartment().getId()))) {
+            throw new IllegalArgumentException("Tasks can only be assigned to users of your department");
+        }
+        return assignee;
+    }
+
+    /**
+     * Publishes the change of a task that keeps its department, from its bulk target row.
+     */
+    private void publishChange(Object[] row, Task.TaskStatus status, Integer assignedToId) {
+        Integer departmentId = (Integer) row[1];
+        eventPublisher.publishEvent(new TaskChangedEvent((Integer) row[0], false, departmentId, assignedToId, status,
+                (Task.TaskPriority) row[4], (Qualification.QualificationType) row[5], departmentId, (Integer) row[2]));
+    }
+
+    private static List<Object[]> select(List<Object[]> rows, Predicate<Object[]> predicate) {
+        return rows.stream().filter(predicate).toList();
+    }
+
+    private static void forEachChunk(List<Object[]> rows, Consumer<List<Integer>> statement) {
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            statement.accept(rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size())).stream()
+                    .map(row -> (Integer) row[0]).toList());
+        }
+    }
+
+    /**
+     * Adds one message per previous assignee and per head of a department of the changed tasks, counting their tasks.
+     * The department heads are looked up with one query.
+     */
+    private void collectMessages(Map<Integer, String> messages, User currentUser, List<Object[]> changed,
+                                 IntFunction<String> assigneeMessage,
+                                 IntFunction<String> departmentMessage) {
+        Map<Integer, Integer> perAssignee = new HashMap<>();
+        Map<Integer, Integer> perDepartment = new HashMap<>();
+        for (Object[] row : changed) {
+            if (row[2] != null) {
+                perAssignee.merge((Integer) row[2], 1, Integer::sum);
+            }
+            if (row[1] != null) {
+                perDepartment.merge((Integer) row[1], 1, Integer::sum);
+            }
+        }
+        perAssignee.forEach((userId, count) -> messages.merge(userId, assigneeMessage.apply(count), TaskBulkService::join));
+        if (!perDepartment.isEmpty()) {
+            for (User head : userRepository.findAllByRoleAndDepartmentIdIn(User.UserRole.DEPARTMENT_HEAD, perDepartment.keySet())) {
+                messages.merge(head.getId(), departmentMessage.apply(perDepartment.get(head.getDepartment().getId())), TaskBulkService::join);
+            }
+        }
+        messages.remove(currentUser.getId());
+    }
+
+    private static String join(String first, String second) {
+        return first + "; " + second;
+    }
+
+    private static String tasks(int count) {
+        return count == 1 ? "1 task" : count + " tasks";
+    }
+}
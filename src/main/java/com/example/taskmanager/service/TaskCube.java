@@ -0,0 +1,391 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskStatusCounts;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory read model that answers task count and task load queries without touching the database.
+ * Tasks are counted per status × priority × required qualification, once per assigned user,
+ * once per department, and once for the whole system. All counts live in primitive int arrays
+ * indexed by user or department ID, so a query is a handful of array reads.
+ * The cube is built from one streaming scan of the tasks table when the application starts,
+ * kept current from {@link TaskChangedEvent}s, and rebuilt every hour to pick up changes
+ * made outside this instance.
+ */
+@Service
+public class TaskCube {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCube.class);
+
+    private static final int STATUSES = Task.TaskStatus.values().length;
+    private static final int PRIORITIES = Task.TaskPriority.values().length;
+    private static final int QUALIFICATIONS = Qualification.QualificationType.values().length;
+    private static final int CELLS = STATUSES * PRIORITIES * QUALIFICATIONS; // Cells per user or department slot
+    private static final int CELLS_PER_STATUS = PRIORITIES * QUALIFICATIONS;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object lock = new Object();
+    private volatile Counts counts = new Counts(0, 0, 0);
+    private volatile boolean ready;
+    private List<TaskChangedEvent> eventsDuringRebuild; // Guarded by lock, non-null while a rebuild is running
+
+    public TaskCube(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the cube once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the cube every hour to correct for changes made by other instances or directly in the database.
+     */
+    @Scheduled(cron = "0 30 * * * *")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the cube from a single streaming scan of the tasks table.
+     * Task changes that arrive while the scan runs are replayed on the new cube before it is published.
+     * The scan runs in its own read-only transaction, which streaming queries need to keep the cursor open.
+     */
+    public void rebuild() {
+        synchronized (lock) {
+            eventsDuringRebuild = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Counts rebuilt = new Counts(1024, 64, 16);
+        int tasks;
+        try {
+            tasks = readOnlyTransaction.execute(status -> {
+                int scanned = 0;
+                try (Stream<Object[]> rows = taskRepository.streamTaskDimensions()) {
+                    for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                        rebuilt.put((Integer) row[0], (Integer) row[1], (Integer) row[2],
+                                (Task.TaskStatus) row[3], (Task.TaskPriority) row[4], (Qualification.QualificationType) row[5]);
+                        scanned++;
+                    }
+                }
+                return scanned;
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                eventsDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            eventsDuringRebuild.forEach(event -> rebuilt.apply(event));
+            eventsDuringRebuild = null;
+            counts = rebuilt;
+            ready = true;
+        }
+        logger.info("Built task cube from {} tasks in {} ms, memory footprint {} bytes",
+                tasks, (System.nanoTime() - start) / 1_000_000, rebuilt.sizeInBytes());
+    }
+
+    /**
+     * Applies a task change once the transaction that made it has committed.
+     * Runs before other listeners, so caches built from the cube never see the old counts after they are invalidated.
+     *
+     * @param event the task change
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (lock) {
+            counts.apply(event);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the cube has been built and can answer queries.
+     *
+     * @return true once the first build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the approximate memory used by the cube's arrays.
+     *
+     * @return the size of all arrays in bytes
+     */
+    public long memoryFootprint() {
+        return counts.sizeInBytes();
+    }
+
+    /**
+     * Counts all tasks in the system.
+     *
+     * @return The total number of tasks.
+     */
+    public int countAll() {
+        return sum(counts.totalCells, 0);
+    }
+
+    /**
+     * Counts the tasks with a specific status across all departments.
+     *
+     * @param status The status of the tasks to count.
+     * @return The number of tasks with the given status.
+     */
+    public int countByStatus(Task.TaskStatus status) {
+        return sumStatus(counts.totalCells, 0, status);
+    }
+
+    /**
+     * Counts the tasks assigned to a specific user.
+     *
+     * @param userId The user ID.
+     * @return The number of tasks assigned to the user.
+     */
+    public int countByUser(Integer userId) {
+        Counts current = counts;
+        return sum(current.userCells, current.userSlotOffset(userId));
+    }
+
+    /**
+     * Counts the tasks with a specific status assigned to a user.
+     *
+     * @param userId The user ID.
+     * @param status The status of the tasks to count.
+     * @return The number of tasks with the given status assigned to the user.
+     */
+    public int countByUserAndStatus(Integer userId, Task.TaskStatus status) {
+        Counts current = counts;
+        return sumStatus(current.userCells, current.userSlotOffset(userId), status);
+    }
+
+    /**
+     * Counts the tasks in a specific department.
+     *
+     * @param departmentId The department ID.
+     * @return The number of tasks in the department.
+     */
+    public int countByDepartment(Integer departmentId) {
+        Counts current = counts;
+        return sum(current.departmentCells, current.departmentSlotOffset(departmentId));
+    }
+
+    /**
+     * Counts the tasks in a specific department with a specific status.
+     *
+     * @param departmentId The department ID.
+     * @param status The status of the tasks to count.
+     * @return The number of tasks with the given status in the department.
+     */
+    public int countByDepartmentAndStatus(Integer departmentId, Task.TaskStatus status) {
+        Counts current = counts;
+        return sumStatus(current.departmentCells, current.departmentSlotOffset(departmentId), status);
+    }
+
+    /**
+     * Counts all tasks, in total and per status.
+     *
+     * @return The task counts for the whole system.
+     */
+    public TaskStatusCounts statusCounts() {
+        return statusCounts(counts.totalCells, 0);
+    }
+
+    /**
+     * Counts the tasks assigned to a user, in total and per status.
+     *
+     * @param userId The user ID.
+     * @return The task counts for the user.
+     */
+    public TaskStatusCounts statusCountsByUser(Integer userId) {
+        Counts current = counts;
+        return statusCounts(current.userCells, current.userSlotOffset(userId));
+    }
+
+    /**
+     * Counts the tasks in a department, in total and per status.
+     *
+     * @param departmentId The department ID.
+     * @return The task counts for the department.
+     */
+    public TaskStatusCounts statusCountsByDepartment(Integer departmentId) {
+        Counts current = counts;
+        return statusCounts(current.departmentCells, current.departmentSlotOffset(departmentId));
+    }
+
+    private static TaskStatusCounts statusCounts(int[] cells, int offset) {
+        return new TaskStatusCounts(sum(cells, offset),
+                sumStatus(cells, offset, Task.TaskStatus.PENDING),
+                sumStatus(cells, offset, Task.TaskStatus.IN_PROGRESS),
+                sumStatus(cells, offset, Task.TaskStatus.COMPLETED));
+    }
+
+    private static int sum(int[] cells, int offset) {
+        if (offset < 0 || offset >= cells.length) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = offset; i < offset + CELLS; i++) {
+            total += cells[i];
+        }
+        return total;
+    }
+
+    private static int sumStatus(int[] cells, int offset, Task.TaskStatus status) {
+        if (offset < 0 || offset >= cells.length) {
+            return 0;
+        }
+        int total = 0;
+        int from = offset + status.ordinal() * CELLS_PER_STATUS;
+        for (int i = from; i < from + CELLS_PER_STATUS; i++) {
+            total += cells[i];
+        }
+        return total;
+    }
+
+    private static int cell(Task.TaskStatus status, Task.TaskPriority priority, Qualification.QualificationType qualification) {
+        return (status.ordinal() * PRIORITIES + priority.ordinal()) * QUALIFICATIONS
+                + (qualification != null ? qualification.ordinal() : 0);
+    }
+
+    /**
+     * The arrays of one cube generation. Writes happen under the cube lock; reads are lock-free
+     * and may observe a count that is off by one while a change is being applied.
+     * Slot 0 of the user and department arrays holds unassigned tasks and tasks without a department,
+     * slot ID + 1 holds the tasks of the user or department with that ID.
+     */
+    private static final class Counts {
+
+        private static final int NONE = -1;
+
+        // Per task ID: the slots and cell the task is currently counted in, NONE if the task is not counted
+        private int[] taskUserSlot;
+        private int[] taskDepartmentSlot;
+        private byte[] taskCell;
+
+        private volatile int[] userCells;
+        private volatile int[] departmentCells;
+        private final int[] totalCells = new int[CELLS];
+
+        Counts(int taskCapacity, int userCapacity, int departmentCapacity) {
+            taskUserSlot = new int[taskCapacity];
+            taskDepartmentSlot = new int[taskCapacity];
+            taskCell = new byte[taskCapacity];
+            Arrays.fill(taskUserSlot, NONE);
+            userCells = new int[userCapacity * CELLS];
+            departmentCells = new int[departmentCapacity * CELLS];
+        }
+
+        void apply(TaskChangedEvent event) {
+            if (event.deleted()) {
+                remove(event.taskId());
+            } else {
+                put(event.taskId(), event.departmentId(), event.assignedToId(),
+                        event.status(), event.priority(), event.requiredQualification());
+            }
+        }
+
+        void put(Integer taskId, Integer departmentId, Integer assignedToId, Task.TaskStatus status,
+                 Task.TaskPriority priority, Qualification.QualificationType qualification) {
+            if (taskId == null || status == null || priority == null) {
+                return;
+            }
+            remove(taskId);
+            ensureTaskCapacity(taskId);
+            int userSlot = assignedToId != null ? assignedToId + 1 : 0;
+            int departmentSlot = departmentId != null ? departmentId + 1 : 0;
+            int cell = cell(status, priority, qualification);
+            ensureUserCapacity(userSlot);
+            ensureDepartmentCapacity(departmentSlot);
+
+            userCells[userSlot * CELLS + cell]++;
+            departmentCells[departmentSlot * CELLS + cell]++;
+            totalCells[cell]++;
+            taskUserSlot[taskId] = userSlot;
+            taskDepartmentSlot[taskId] = departmentSlot;
+            taskCell[taskId] = (byte) cell;
+        }
+
+        void remove(Integer taskId) {
+            if (taskId == null || taskId >= taskUserSlot.length || taskUserSlot[taskId] == NONE) {
+                return;
+            }
+            int cell = taskCell[taskId];
+            userCells[taskUserSlot[taskId] * CELLS + cell]--;
+            departmentCells[taskDepartmentSlot[taskId] * CELLS + cell]--;
+            totalCells[cell]--;
+            taskUserSlot[taskId] = NONE;
+        }
+
+        int userSlotOffset(Integer userId) {
+            return userId != null ? (userId + 1) * CELLS : 0;
+        }
+
+        int departmentSlotOffset(Integer departmentId) {
+            return departmentId != null ? (departmentId + 1) * CELLS : 0;
+        }
+
+        long sizeInBytes() {
+            return (long) taskUserSlot.length * Integer.BYTES
+                    + (long) taskDepartmentSlot.length * Integer.BYTES
+                    + taskCell.length
+                    + (long) userCells.length * Integer.BYTES
+                    + (long) departmentCells.length * Integer.BYTES
+                    + (long) totalCells.length * Integer.BYTES;
+        }
+
+        private void ensureTaskCapacity(int taskId) {
+            if (taskId < taskUserSlot.length) {
+                return;
+            }
+            int capacity = Math.max(taskId + 1, taskUserSlot.length * 2);
+            int oldLength = taskUserSlot.length;
+            taskUserSlot = Arrays.copyOf(taskUserSlot, capacity);
+            Arrays.fill(taskUserSlot, oldLength, capacity, NONE);
+            taskDepartmentSlot = Arrays.copyOf(taskDepartmentSlot, capacity);
+            taskCell = Arrays.copyOf(taskCell, capacity);
+        }
+
+        private void ensureUserCapacity(int slot) {
+            if ((slot + 1) * CELLS > userCells.length) {
+                userCells = Arrays.copyOf(userCells, Math.max(slot + 1, userCells.length / CELLS * 2) * CELLS);
+            }
+        }
+
+        private void ensureDepartmentCapacity(int slot) {
+            if ((slot + 1) * CELLS > departmentCells.length) {
+                departmentCells = Arrays.copyOf(departmentCells, Math.max(slot + 1, departmentCells.length / CELLS * 2) * CELLS);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskFileFormat;
+import com.example.taskmanager.entity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that writes the tasks visible to a user to a stream, for bulk exports.
+ * Rows are read through a forward-only JDBC cursor and written out one by one, without entities or a
+ * persistence context, so memory use does not grow with the number of exported tasks.
+ * The cursor needs a transaction on PostgreSQL, otherwise the driver reads the whole result at once.
+ */
+@Service
+public class TaskExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final List<String> COLUMNS = List.of("id", "title", "description", "status", "priority",
+            "requiredQualification", "requiredTechnologies", "dueDate", "assignedToId", "assignedToUsername",
+            "departmentId", "createdAt", "updatedAt");
+
+    private static final String EXPORT_QUERY = "SELECT t.id, t.title, t.description, t.status, t.priority, " +
+            "t.required_qualification, t.required_technologies, t.due_date, t.assigned_to, u.username, " +
+            "t.department_id, t.created_at, t.updated_at FROM tasks t LEFT JOIN users u ON u.id = t.assigned_to";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public TaskExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes all tasks visible to a user to a stream, ordered by ID.
+     * Admins export all tasks, department heads the tasks of their department, and employees their own tasks.
+     * The throughput of every export is logged and recorded in the "tasks.export" metrics.
+     *
+     * @param currentUser The user requesting the export.
+     * @param format The file format to write.
+     * @param out The stream to write to; it is flushed but not closed.
+     * @return The number of exported tasks.
+     * @throws IOException if writing to the stream fails, e.g. because the client disconnected.
+     */
+    public long exportTasks(User currentUser, TaskFileFormat format, OutputStream out) throws IOException {
+        String sql;
+        Integer scopeId;
+        switch (currentUser.getRole()) {
+            case DEPARTMENT_HEAD -> {
+                sql = EXPORT_QUERY + " WHERE t.department_id = ? ORDER BY t.id";
+                scopeId = currentUser.getDepartment().getId();
+            }
+            case EMPLOYEE -> {
+                sql = EXPORT_QUERY + " WHERE t.assigned_to = ? ORDER BY t.id";
+                scopeId = currentUser.getId();
+            }
+            default -> {
+                sql = EXPORT_QUERY + " ORDER BY t.id";
+                scopeId = null;
+            }
+        }
+
+        long start = System.nanoTime();
+        RowWriter writer = format == TaskFileFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long[] rows = new long[1];
+        try {
+            writer.writeHeader();
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                if (scopeId != null) {
+                    statement.setInt(1, scopeId);
+                }
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                writer.writeRow(resultSet);
+                rows[0]++;
+            }));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("tasks.export").tag("format", format.parameter()).register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("tasks.export.rows", "format", format.parameter()).increment(rows[0]);
+        long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        logger.info("Exported {} tasks as {} for user {} in {} ms ({} rows/s)",
+                rows[0], format.parameter(), currentUser.getId(), elapsedMillis, rows[0] * 1000 / elapsedMillis);
+        return rows[0];
+    }
+
+    /**
+     * Writes exported rows in one file format.
+     * Row callbacks cannot throw IOException, so write failures are rethrown as UncheckedIOException.
+     */
+    private interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet resultSet) throws SQLException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Writes one JSON object per line.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null); // Rows are separated by the newline written after each one
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    generator.writeFieldName(COLUMNS.get(i));
+                    Object value = value(resultSet, i + 1);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof Integer number) {
+                        generator.writeNumber(number);
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Writes a header line followed by one comma-separated line per task, quoted as described in RFC 4180.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException {
+            try {
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    Object value = value(resultSet, i + 1);
+                    if (value != null) {
+                        writer.write(escape(value.toString()));
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * Reads a column of the export query as the value to write: integers, strings, or ISO-8601 dates and times.
+     */
+    private static Object value(ResultSet resultSet, int column) throws SQLException {
+        return switch (column) {
+            case 1, 9, 11 -> {
+                int number = resultSet.getInt(column);
+                yield resultSet.wasNull() ? null : number;
+            }
+            case 8 -> resultSet.getObject(column, LocalDate.class);
+            case 12, 13 -> resultSet.getObject(column, LocalDateTime.class);
+            default -> resultSet.getString(column);
+        };
+    }
+}
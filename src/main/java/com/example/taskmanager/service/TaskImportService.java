@@ -0,0 +1,390 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.TaskFileFormat;
+import com.example.taskmanager.dto.TaskImportResult;
+import com.example.taskmanager.entity.Notification;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Service that creates or updates many tasks at once from a CSV or NDJSON file.
+ * The file is streamed into a temporary staging table with the PostgreSQL COPY protocol, validated
+ * there with a few set-wise statements, and merged into tasks with a single INSERT ... ON CONFLICT,
+ * so the cost per row is a fraction of a {@code POST /api/tasks}. Rows with an external reference
+ * that already exists update that task instead of creating a new one, which makes imports repeatable.
+ * Created tasks without an assignee are then assigned in bulk with the same rules as single tasks.
+ * Every imported task is reported to the read models with a change event, as single task changes are;
+ * only very large imports rebuild them instead.
+ * The whole import runs in one transaction: either all valid rows are imported or none.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // Above this many imported rows, rebuilding the task cube is cheaper than applying a change event per row
+    private static final int MAX_CHANGE_EVENTS = 10_000;
+
+    /**
+     * Columns of an import file, in the order CSV files must list them.
+     */
+    public static final List<String> COLUMNS = List.of("externalRef", "title", "description", "status", "priority",
+            "requiredQualification", "requiredTechnologies", "dueDate", "assignedToId", "departmentId");
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE task_import_staging (" +
+            "line_no BIGINT GENERATED ALWAYS AS IDENTITY, external_ref TEXT, title TEXT, description TEXT, status TEXT, " +
+            "priority TEXT, required_qualification TEXT, required_technologies TEXT, due_date TEXT, assigned_to TEXT, " +
+            "department_id TEXT, error TEXT) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY task_import_staging (external_ref, title, description, status, priority, " +
+            "required_qualification, required_technologies, due_date, assigned_to, department_id) FROM STDIN WITH (FORMAT csv)";
+
+    // Conditions are checked in order, so the casts only see values that passed the format checks before them
+    private static final String VALIDATE_ROWS = "UPDATE task_import_staging SET error = CASE " +
+            "WHEN title IS NULL OR btrim(title) = '' THEN 'title is required' " +
+            "WHEN length(btrim(title)) > 100 THEN 'title must be at most 100 characters' " +
+            "WHEN length(external_ref) > 100 THEN 'externalRef must be at most 100 characters' " +
+            "WHEN department_id IS NULL OR department_id !~ '^\\d{1,9}$' THEN 'departmentId must be a department ID' " +
+            "WHEN NOT EXISTS (SELECT 1 FROM departments d WHERE d.id = department_id::INTEGER) THEN 'department ' || department_id || ' does not exist' " +
+            "WHEN assigned_to IS NOT NULL AND assigned_to !~ '^\\d{1,9}$' THEN 'assignedToId must be a user ID' " +
+            "WHEN assigned_to IS NOT NULL AND NOT EXISTS (SELECT 1 FROM users u WHERE u.id = assigned_to::INTEGER) THEN 'user ' || assigned_to || ' does not exist' " +
+            "WHEN status IS NOT NULL AND upper(status) NOT IN ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'DELAYED') THEN 'unknown status ' || status " +
+            "WHEN priority IS NOT NULL AND upper(priority) NOT IN ('LOW', 'MEDIUM', 'HIGH') THEN 'unknown priority ' || priority " +
+            "WHEN required_qualification IS NOT NULL AND upper(required_qualification) NOT IN ('JUNIOR', 'MID_LEVEL', 'SENIOR') " +
+            "THEN 'unknown qualification ' || required_qualification " +
+            "WHEN due_date IS NOT NULL AND NOT task_import_is_date(due_date) THEN 'dueDate must be a date like 2025-01-31' " +
+            "END";
+
+    // The last row with an external reference wins, as if the rows had been imported one after the other
+    private static final String REJECT_DUPLICATES = "UPDATE task_import_staging s " +
+            "SET error = 'externalRef ' || s.external_ref || ' is imported again by a later row' " +
+            "FROM (SELECT external_ref, MAX(line_no) AS last_line FROM task_import_staging " +
+            "WHERE error IS NULL AND external_ref IS NOT NULL GROUP BY external_ref HAVING COUNT(*) > 1) d " +
+            "WHERE s.error IS NULL AND s.external_ref = d.external_ref AND s.line_no < d.last_line";
+
+    private static final String CREATE_RESULT = "CREATE TEMP TABLE task_import_result (id INTEGER, inserted BOOLEAN, " +
+            "assigned_to INTEGER, department_id INTEGER, required_qualification TEXT, required_technologies TEXT, " +
+            "previous_department_id INTEGER, previous_assigned_to INTEGER) ON COMMIT DROP";
+
+    // Enum values are written as the uppercase Java names, like the entities do. The timestamps come from
+    // clock_timestamp() rather than the transaction start time, so a long import does not stamp its rows in the past.
+    // All parts of the statement see the tasks as they were before it, so previous holds the scope of updated tasks
+    private static final String UPSERT_TASKS = "WITH previous AS (" +
+            "SELECT t.id, t.department_id, t.assigned_to FROM tasks t JOIN task_import_staging s ON s.external_ref = t.external_ref " +
+            "WHERE s.error IS NULL), upserted AS (" +
+            "INSERT INTO tasks (external_ref, title, description, status, priority, required_qualification, required_technologies, " +
+            "due_date, assigned_to, department_id, created_at, updated_at) " +
+            "SELECT external_ref, btrim(title), description, COALESCE(upper(status), 'PENDING')::task_status, " +
+            "COALESCE(upper(priority), 'MEDIUM')::task_priority, COALESCE(upper(required_qualification), 'JUNIOR'), " +
+            "NULLIF(btrim(required_technologies), ''), due_date::DATE, assigned_to::INTEGER, department_id::INTEGER, " +
+            "clock_timestamp()::TIMESTAMP, clock_timestamp()::TIMESTAMP " +
+            "FROM task_import_staging WHERE error IS NULL ORDER BY line_no " +
+            "ON CONFLICT (external_ref) WHERE external_ref IS NOT NULL DO UPDATE SET " +
+            "title = EXCLUDED.title, description = EXCLUDED.description, status = EXCLUDED.status, priority = EXCLUDED.priority, " +
+            "required_qualification = EXCLUDED.required_qualification, required_technologies = EXCLUDED.required_technologies, " +
+            "due_date = EXCLUDED.due_date, assigned_to = COALESCE(EXCLUDED.assigned_to, tasks.assigned_to), " +
+            "department_id = EXCLUDED.department_id, updated_at = EXCLUDED.updated_at, version = tasks.version + 1 " +
+            "RETURNING id, xmax = 0 AS inserted, assigned_to, department_id, required_qualification, required_technologies) " +
+            "INSERT INTO task_import_result SELECT u.*, p.department_id, p.assigned_to FROM upserted u LEFT JOIN previous p ON p.id = u.id";
+
+    private static final String ASSIGN_TASKS = "UPDATE tasks t SET assigned_to = a.user_id, version = t.version + 1 " +
+            "FROM unnest(?::INTEGER[], ?::INTEGER[]) AS a(task_id, user_id) WHERE t.id = a.task_id";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SkillIndex skillIndex;
+    private final TaskCube taskCube;
+    private final DashboardCache dashboardCache;
+    private final NotificationService notificationService;
+
+    public TaskImportService(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                             SkillIndex skillIndex, TaskCube taskCube, DashboardCache dashboardCache,
+                             NotificationService notificationService) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.skillIndex = skillIndex;
+        this.taskCube = taskCube;
+        this.dashboardCache = dashboardCache;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Imports tasks from a file.
+     * CSV files start with a header line listing {@link #COLUMNS} in that order; NDJSON files hold one
+     * object per line with those fields. Missing status, priority and qualification default to
+     * pending, medium and junior, as for single tasks. Invalid rows are skipped and reported.
+     *
+     * @param in The file contents; read to the end but not closed.
+     * @param format The file format.
+     * @return What was imported and which rows were rejected.
+     * @throws IllegalArgumentException if the file cannot be parsed or the CSV header does not match.
+     * @throws IOException if reading the file fails.
+     */
+    public TaskImportResult importTasks(InputStream in, TaskFileFormat format) throws IOException {
+        long start = System.nanoTime();
+        Map<Integer, Integer> assignedCounts = new HashMap<>();
+        Map<Integer, Integer> createdPerDepartment = new HashMap<>();
+
+        ImportCounts counts;
+        try {
+            counts = transaction.execute(status -> {
+                jdbcTemplate.execute(CREATE_STAGING);
+                long received = copyToStaging(in, format);
+                jdbcTemplate.execute("ANALYZE task_import_staging");
+
+                jdbcTemplate.update(VALIDATE_ROWS);
+                jdbcTemplate.update(REJECT_DUPLICATES);
+                jdbcTemplate.execute(CREATE_RESULT);
+                jdbcTemplate.update(UPSERT_TASKS);
+
+                long lineOffset = format == TaskFileFormat.CSV ? 1 : 0;
+                List<TaskImportResult.RowError> errors = jdbcTemplate.query(
+                        "SELECT line_no, error FROM task_import_staging WHERE error IS NOT NULL ORDER BY line_no LIMIT " + MAX_REPORTED_ERRORS,
+                        (rs, rowNum) -> new TaskImportResult.RowError(rs.getLong(1) + lineOffset, rs.getString(2)));
+                Long rejected = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM task_import_staging WHERE error IS NOT NULL", Long.class);
+                Map<String, Object> upserted = jdbcTemplate.queryForMap("SELECT COUNT(*) FILTER (WHERE inserted) AS inserted, " +
+                        "COUNT(*) FILTER (WHERE NOT inserted) AS updated FROM task_import_result");
+                jdbcTemplate.query("SELECT department_id, COUNT(*) FROM task_import_result WHERE inserted GROUP BY department_id",
+                        (RowCallbackHandler) rs -> createdPerDepartment.put(rs.getInt(1), rs.getInt(2)));
+
+                long assigned = assignCreatedTasks(assignedCounts);
+                long inserted = ((Number) upserted.get("inserted")).longValue();
+                long updated = ((Number) upserted.get("updated")).longValue();
+                if (inserted + updated <= MAX_CHANGE_EVENTS) {
+                    publishChanges();
+                }
+                return new ImportCounts(received, inserted, updated, Objects.requireNonNull(rejected), assigned, errors);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Objects.requireNonNull(counts);
+
+        if (counts.inserted() + counts.updated() > MAX_CHANGE_EVENTS) {
+            // No change events were published, so the read models are rebuilt and all dashboards dropped
+            taskCube.rebuild();
+            dashboardCache.invalidateAll();
+        }
+        notifyAssignees(assignedCounts);
+        createdPerDepartment.forEach((departmentId, created) -> notificationService.sendDepartmentHeadNotification(
+                created + " tasks have been imported into your department", departmentId, Notification.NotificationType.TASK, null));
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long rowsPerSecond = counts.received() * 1000 / elapsedMillis;
+        logger.info("Imported {} task rows as {} in {} ms ({} rows/s): {} created, {} updated, {} rejected, {} assigned",
+                counts.received(), format.parameter(), elapsedMillis, rowsPerSecond,
+                counts.inserted(), counts.updated(), counts.rejected(), counts.assigned());
+        return new TaskImportResult(counts.received(), counts.inserted(), counts.updated(), counts.rejected(),
+                counts.assigned(), counts.errors(), elapsedMillis, rowsPerSecond);
+    }
+
+    /**
+     * Streams the file into the staging table over the transaction's connection.
+     *
+     * @return the number of rows copied
+     */
+    private long copyToStaging(InputStream in, TaskFileFormat format) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            if (format == TaskFileFormat.CSV) {
+                BufferedInputStream buffered = new BufferedInputStream(in, COPY_BUFFER_SIZE);
+                checkHeader(buffered);
+                return copyManager.copyIn(COPY_STAGING, buffered, COPY_BUFFER_SIZE);
+            }
+            return copyNdjson(copyManager, in);
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("Invalid import file: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Converts NDJSON objects to CSV rows on the fly and writes them to COPY in large chunks.
+     */
+    private long copyNdjson(CopyManager copyManager, InputStream in) throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(COPY_STAGING);
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE + 1024);
+            StringBuilder line = new StringBuilder();
+            while (rows.hasNextValue()) {
+                JsonNode row = rows.nextValue();
+                line.setLength(0);
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    JsonNode value = row.get(COLUMNS.get(i));
+                    if (value != null && !value.isNull()) {
+                        // Quoted, so an empty string stays distinct from a missing value
+                        line.append('"').append(value.asText().replace("\"", "\"\"")).append('"');
+                    }
+                }
+                line.append('\n');
+                buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+                if (buffer.size() >= COPY_BUFFER_SIZE) {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            }
+            return copyIn.endCopy();
+        } catch (IOException | RuntimeException e) {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+            if (e instanceof IOException && !(e instanceof JsonProcessingException)) {
+                throw (IOException) e;
+            }
+            throw new IllegalArgumentException("Invalid import file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the header line of a CSV file and checks that it lists the expected columns in order.
+     */
+    private static void checkHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            header.write(b);
+        }
+        String actual = header.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").trim();
+        String expected = String.join(",", COLUMNS);
+        if (!actual.equalsIgnoreCase(expected)) {
+            throw new IllegalArgumentException("CSV header must be: " + expected);
+        }
+    }
+
+    /**
+     * Assigns the created tasks that have no assignee, using the skill index for candidates and
+     * the current task counts for their load, then writes all assignments with one statement.
+     *
+     * @param assignedCounts filled with the number of tasks assigned per user
+     * @return the number of assigned tasks
+     */
+    private long assignCreatedTasks(Map<Integer, Integer> assignedCounts) {
+        // task_stats already includes the imported rows, as it is maintained by a trigger in this transaction
+        Map<Integer, Integer> loads = new HashMap<>();
+        jdbcTemplate.query("SELECT assigned_to, SUM(task_count) FROM task_stats WHERE assigned_to IS NOT NULL GROUP BY assigned_to",
+                (RowCallbackHandler) rs -> loads.put(rs.getInt(1), rs.getInt(2)));
+
+        Map<String, BitSet> candidatesByRequirement = new HashMap<>();
+        List<Integer> taskIds = new ArrayList<>();
+        List<Integer> userIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, department_id, required_qualification, required_technologies FROM task_import_result " +
+                "WHERE inserted AND assigned_to IS NULL ORDER BY id", (RowCallbackHandler) rs -> {
+            int departmentId = rs.getInt(2);
+            Qualification.QualificationType qualification = Qualification.QualificationType.valueOf(rs.getString(3));
+            String technologies = rs.getString(4);
+            BitSet candidates = candidatesByRequirement.computeIfAbsent(departmentId + "|" + qualification + "|" + technologies,
+                    key -> skillIndex.findCandidates(departmentId, qualification, technologies));
+
+            int best = -1;
+            int bestLoad = Integer.MAX_VALUE;
+            for (int userId = candidates.nextSetBit(0); userId >= 0; userId = candidates.nextSetBit(userId + 1)) {
+                int load = loads.getOrDefault(userId, 0);
+                if (load < bestLoad) {
+                    best = userId;
+                    bestLoad = load;
+                }
+            }
+            if (best >= 0) {
+                loads.merge(best, 1, Integer::sum);
+                assignedCounts.merge(best, 1, Integer::sum);
+                taskIds.add(rs.getInt(1));
+                userIds.add(best);
+            }
+        });
+
+        if (!taskIds.isEmpty()) {
+            jdbcTemplate.update(connection -> {
+                var statement = connection.prepareStatement(ASSIGN_TASKS);
+                Array taskArray = connection.createArrayOf("integer", taskIds.toArray());
+                Array userArray = connection.createArrayOf("integer", userIds.toArray());
+                statement.setArray(1, taskArray);
+                statement.setArray(2, userArray);
+                return statement;
+            });
+        }
+        return taskIds.size();
+    }
+
+    /**
+     * Publishes a task change event for every imported task, with its state after the assignment.
+     * The listeners apply them once the import has committed.
+     */
+    private void publishChanges() {
+        jdbcTemplate.query("SELECT r.id, t.department_id, t.assigned_to, t.status::TEXT, t.priority::TEXT, t.required_qualification, " +
+                "r.previous_department_id, r.previous_assigned_to FROM task_import_result r JOIN tasks t ON t.id = r.id ORDER BY r.id",
+                (RowCallbackHandler) rs -> eventPublisher.publishEvent(new TaskChangedEvent(rs.getInt(1), false,
+                        rs.getInt(2), rs.getObject(3, Integer.class), Task.TaskStatus.valueOf(rs.getString(4)),
+                        Task.TaskPriority.valueOf(rs.getString(5)), Qualification.QualificationType.valueOf(rs.getString(6)),
+                        rs.getObject(7, Integer.class), rs.getObject(8, Integer.class))));
+    }
+
+    /**
+     * Sends every user who received imported tasks one notification with the number of tasks.
+     */
+    private void notifyAssignees(Map<Integer, Integer> assignedCounts) {
+        if (assignedCounts.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> messages = new HashMap<>();
+        assignedCounts.forEach((userId, count) -> messages.put(userId, "You have been assigned " + count + " imported tasks"));
+        notificationService.sendNotifications(messages, Notification.NotificationType.TASK, null);
+    }
+
+    private record ImportCounts(long received, long inserted, long updated, long rejected, long assigned,
+                                List<TaskImportResult.RowError> errors) {
+    }
+}
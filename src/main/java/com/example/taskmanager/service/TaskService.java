@@ -1,18 +1,40 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.ChangedTask;
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.TaskChanges;
+import com.example.taskmanager.dto.TaskChangesCursor;
+import com.example.taskmanager.dto.TaskCursor;
+import com.example.taskmanager.dto.TaskField;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.dto.TaskSearchCursor;
+import com.example.taskmanager.dto.TaskSearchHit;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.dto.TaskStatusCounts;
+import com.example.taskmanager.dto.TaskSummary;
 import com.example.taskmanager.entity.*;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.PreconditionFailedException;
 import com.example.taskmanager.exception.ResourceNotFoundException;
 import com.example.taskmanager.repository.*;
+import com.example.taskmanager.util.ETags;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service class for managing tasks. It provides methods for creating, updating,
@@ -23,6 +45,17 @@ public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 
+    // Keeps the IN lists of reassignment statements well below the bind parameter limits of the database
+    private static final int RELEASE_CHUNK_SIZE = 1000;
+
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    /**
+     * How long the tombstones of deleted and moved tasks are kept for the delta sync.
+     */
+    public static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
     @Autowired
     private NotificationService notificationService;
 
@@ -38,6 +71,21 @@ public class TaskService {
     @Autowired
     private TaskCommentRepository taskCommentRepository;
 
+    @Autowired
+    private TaskStatsRepository taskStatsRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskCube taskCube;
+
+    @Autowired
+    private SkillIndex skillIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Creates a new task and assigns it automatically to a user with the least tasks.
      * If the task does not have a priority, status, or qualification, defaults are assigned.
@@ -65,6 +113,7 @@ public class TaskService {
 
         if (task.getAssignedTo() == null) {
             taskRepository.save(task);
+            eventPublisher.publishEvent(TaskChangedEvent.created(task));
             logger.info("Calling assignTaskAutomatically for task {}", task.getId());
             return assignTaskAutomatically(task);
         }
@@ -73,6 +122,7 @@ public class TaskService {
                     .orElseThrow(() -> new ResourceNotFoundException("User not found when creating a task"));
             task.setAssignedTo(user);
             taskRepository.save(task);
+            eventPublisher.publishEvent(TaskChangedEvent.created(task));
             notificationService.sendNotification("You have been assigned a new task: " + task.getTitle(), user.getUsername(), Notification.NotificationType.TASK, task.getId());
             notificationService.sendDepartmentHeadNotification("A new task has been created: " + task.getTitle(), department.getId(), Notification.NotificationType.TASK, task.getId());
             return task;
@@ -84,10 +134,259 @@ public class TaskService {
      *
      * @return A list of all tasks.
      */
+    @Transactional(readOnly = true)
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of the tasks visible to a user, filtered and sorted.
+     * Admins see all tasks, department heads the tasks of their department, and employees their own tasks;
+     * filters on other departments or users are narrowed to that scope.
+     *
+     * @param currentUser The user requesting the tasks.
+     * @param filter The filter criteria.
+     * @param sort The sort order.
+     * @param descending Whether to sort in descending order.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks on the page.
+     * @return The page of tasks and the cursor for the next page.
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummary> findTaskPage(User currentUser, TaskFilter filter, TaskSort sort, boolean descending, String cursor, int limit) {
+        return findTaskPage(scopeToUser(currentUser, filter), sort, descending, cursor, limit);
+    }
+
+    /**
+     * Retrieves one page of the tasks visible to a user like {@link #findTaskPage(User, TaskFilter, TaskSort, boolean, String, int)},
+     * reading only the requested fields. The ID and sort key are read as well to build the cursor for the next page.
+     *
+     * @param currentUser The user requesting the tasks.
+     * @param filter The filter criteria.
+     * @param sort The sort order.
+     * @param descending Whether to sort in descending order.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks on the page.
+     * @param fields The fields to return.
+     * @return The page of tasks with the requested fields and the cursor for the next page.
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> findTaskPage(User currentUser, TaskFilter filter, TaskSort sort, boolean descending, String cursor,
+                                                        int limit, FieldSet<TaskField> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = cursor != null ? TaskCursor.decode(cursor, sort, descending) : null;
+        FieldSet<TaskField> selected = fields.including(TaskField.ID).including(TaskField.of(sort));
+
+        // One extra row tells whether there is a next page
+        List<Object[]> rows = taskRepository.findPage(selected, scopeToUser(currentUser, filter), sort, descending, after, limit + 1);
+        List<Map<String, Object>> page = rows.stream().limit(limit).map(selected::toMap).toList();
+        if (rows.size() <= limit) {
+            return new CursorPage<>(page, null);
+        }
+        Object[] last = rows.get(limit - 1);
+        return new CursorPage<>(page, TaskCursor.after((Integer) selected.value(last, TaskField.ID),
+                selected.value(last, TaskField.of(sort)), sort, descending).encode());
+    }
+
+    /**
+     * Narrows a filter to the tasks a user may see: all for admins, the department's for department heads,
+     * and their own for employees.
+     */
+    static TaskFilter scopeToUser(User currentUser, TaskFilter filter) {
+        return switch (currentUser.getRole()) {
+            case ADMIN -> filter;
+            case DEPARTMENT_HEAD -> filter.withDepartmentId(currentUser.getDepartment().getId());
+            case EMPLOYEE -> filter.withAssignedToId(currentUser.getId());
+        };
+    }
+
+    /**
+     * Retrieves one page of the tasks matching a filter, sorted, without any role scoping.
+     *
+     * @param filter The filter criteria.
+     * @param sort The sort order.
+     * @param descending Whether to sort in descending order.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks on the page.
+     * @return The page of tasks and the cursor for the next page.
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSummary> findTaskPage(TaskFilter filter, TaskSort sort, boolean descending, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = cursor != null ? TaskCursor.decode(cursor, sort, descending) : null;
+
+        // One extra row tells whether there is a next page
+        List<TaskSummary> tasks = taskRepository.findPage(filter, sort, descending, after, limit + 1);
+        if (tasks.size() <= limit) {
+            return new CursorPage<>(tasks, null);
+        }
+        List<TaskSummary> page = new ArrayList<>(tasks.subList(0, limit));
+        return new CursorPage<>(page, TaskCursor.after(page.get(limit - 1), sort, descending).encode());
+    }
+
+    /**
+     * Searches the title, description and comments of the tasks visible to a user.
+     * Results are ordered by relevance, with title matches ranking above description and comment matches.
+     * Admins search all tasks, department heads the tasks of their department, and employees their own tasks.
+     *
+     * @param currentUser The user searching.
+     * @param query The search query; supports quoted phrases, "or" and "-" to exclude words.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of results on the page.
+     * @return The page of results and the cursor for the next page.
+     * @throws IllegalArgumentException if the query is empty or too long, the limit is out of range or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskSearchHit> searchTasks(User currentUser, String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Integer departmentId = currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD ? currentUser.getDepartment().getId() : null;
+        Integer assignedToId = currentUser.getRole() == User.UserRole.EMPLOYEE ? currentUser.getId() : null;
+        TaskSearchCursor after = cursor != null ? TaskSearchCursor.decode(cursor) : null;
+
+        // One extra row tells whether there is a next page
+        List<TaskSearchHit> hits = taskRepository.search(query, departmentId, assignedToId, after, limit + 1);
+        if (hits.size() <= limit) {
+            return new CursorPage<>(hits, null);
+        }
+        List<TaskSearchHit> page = new ArrayList<>(hits.subList(0, limit));
+        return new CursorPage<>(page, TaskSearchCursor.after(page.get(limit - 1)).encode());
+    }
+
+    /**
+     * Retrieves the changes to the tasks visible to a user since a sync cursor, in the order of the transactions
+     * that made them. Admins see all tasks, department heads the tasks of their department, and employees their own tasks.
+     * Tasks that were deleted, or that moved to another department or assignee, are reported as removed
+     * to the users whose scope they left. Only changes of transactions older than the oldest one still running
+     * are read, so a transaction that commits late, however long it ran, is never skipped; while it runs,
+     * the changes of later transactions are held back.
+     *
+     * @param currentUser The user syncing.
+     * @param since The cursor returned by the previous sync, or null to receive all tasks.
+     * @param limit The maximum number of changed tasks and of removed tasks to return.
+     * @return The changes and the cursor for the next sync.
+     * @throws IllegalArgumentException if the limit is out of range, or the cursor is invalid or older than the retained tombstones.
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges getTaskChanges(User currentUser, String since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // The precision of database timestamps
+        TaskChangesCursor cursor = since != null ? TaskChangesCursor.decode(since) : TaskChangesCursor.START;
+        if (since != null && cursor.issuedAt().isBefore(now.minus(TOMBSTONE_RETENTION))) {
+            throw new IllegalArgumentException("Cursor has expired, sync again without a cursor");
+        }
+
+        // Read first: every transaction below it has ended, so the rows read below it are final in any later statement
+        long horizon = taskRepository.findOldestRunningTransactionId();
+        Integer departmentId = currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD ? currentUser.getDepartment().getId() : null;
+        Integer assignedToId = currentUser.getRole() == User.UserRole.EMPLOYEE ? currentUser.getId() : null;
+        List<ChangedTask> tasks = taskRepository.findChangedAfter(departmentId, assignedToId,
+                cursor.taskXid(), cursor.taskId(), horizon, limit + 1);
+        Limit tombstoneLimit = Limit.of(limit + 1);
+        List<TaskTombstone> tombstones = switch (currentUser.getRole()) {
+            case ADMIN -> taskTombstoneRepository.findDeletedAfter(cursor.tombstoneXid(), cursor.tombstoneId(), horizon, tombstoneLimit);
+            case DEPARTMENT_HEAD -> taskTombstoneRepository.findByDepartmentAfter(departmentId,
+                    cursor.tombstoneXid(), cursor.tombstoneId(), horizon, tombstoneLimit);
+            case EMPLOYEE -> taskTombstoneRepository.findByAssigneeAfter(assignedToId,
+                    cursor.tombstoneXid(), cursor.tombstoneId(), horizon, tombstoneLimit);
+        };
+
+        boolean moreTasks = tasks.size() > limit;
+        boolean moreTombstones = tombstones.size() > limit;
+        List<ChangedTask> changed = moreTasks ? tasks.subList(0, limit) : tasks;
+        List<TaskTombstone> removed = moreTombstones ? tombstones.subList(0, limit) : tombstones;
+        ChangedTask lastTask = moreTasks ? changed.get(limit - 1) : null;
+        TaskTombstone lastTombstone = moreTombstones ? removed.get(limit - 1) : null;
+        TaskChangesCursor next = new TaskChangesCursor(now,
+                lastTask != null ? lastTask.changeXid() : horizon,
+                lastTask != null ? lastTask.task().id() : 0,
+                lastTombstone != null ? lastTombstone.getChangeXid() : horizon,
+                lastTombstone != null ? lastTombstone.getId() : 0);
+
+        // A task that is listed as changed is in the user's scope now, whatever happened to it before
+        Set<Integer> changedIds = new HashSet<>();
+        changed.forEach(change -> changedIds.add(change.task().id()));
+        List<Integer> removedIds = removed.stream()
+                .map(TaskTombstone::getTaskId)
+                .filter(id -> !changedIds.contains(id))
+                .distinct()
+                .toList();
+        // The streams are paged independently, and transaction IDs do not follow commit order, so a task can have come
+        // back into scope after it left; its current state has been or will be reported as changed, so it is not removed
+        if (!removedIds.isEmpty() && currentUser.getRole() != User.UserRole.ADMIN) {
+            Set<Integer> inScope = new HashSet<>(departmentId != null
+                    ? taskRepository.findIdsInDepartment(removedIds, departmentId)
+                    : taskRepository.findIdsAssignedTo(removedIds, assignedToId));
+            removedIds = removedIds.stream().filter(id -> !inScope.contains(id)).toList();
+        }
+        return new TaskChanges(changed.stream().map(ChangedTask::task).toList(), removedIds, next.encode(),
+                moreTasks || moreTombstones);
+    }
+
+    /**
+     * Deletes the tombstones that are older than {@link #TOMBSTONE_RETENTION}, every night at 3:30.
+     * Clients that have not synced for that long are asked to sync again from scratch.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeTombstones() {
+        int deleted = taskTombstoneRepository.deleteRemovedBefore(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+        logger.info("Purged {} task tombstones", deleted);
+    }
+
+    /**
+     * Computes the ETag of a task from the version and update time of the task, the update times of the
+     * department and user it is rendered with, and the number and latest ID of its comments, without loading the task.
+     *
+     * @param id The ID of the task.
+     * @return The strong ETag of the task in its current state.
+     * @throws ResourceNotFoundException if the task is not found.
+     */
+    @Transactional(readOnly = true)
+    public String getTaskETag(Integer id) {
+        List<Object[]> stamps = taskRepository.findVersionStamps(id);
+        if (stamps.isEmpty()) {
+            throw new ResourceNotFoundException("Task not found with id " + id);
+        }
+        return ETags.of("task", id, Arrays.asList(stamps.get(0)));
+    }
+
+    /**
+     * Computes the ETag of a task loaded with {@link #getTaskById}, from the same stamps as {@link #getTaskETag(Integer)}.
+     *
+     * @param task The task with its department, assignee and comments loaded.
+     * @return The strong ETag of the task as loaded.
+     */
+    public String getTaskETag(Task task) {
+        User assignee = task.getAssignedTo();
+        Integer latestCommentId = task.getComments().stream().map(TaskComment::getId).max(Integer::compare).orElse(null);
+        return ETags.of("task", task.getId(), Arrays.asList(
+                task.getVersion(),
+                task.getUpdatedAt(),
+                task.getDepartment() != null ? task.getDepartment().getUpdatedAt() : null,
+                assignee != null ? assignee.getUpdatedAt() : null,
+                assignee != null && assignee.getQualification() != null ? assignee.getQualification().getUpdatedAt() : null,
+                assignee != null && assignee.getDepartment() != null ? assignee.getDepartment().getUpdatedAt() : null,
+                task.getComments().size(),
+                latestCommentId));
+    }
+
     /**
      * Retrieves a task by its ID.
      *
@@ -95,11 +394,92 @@ public class TaskService {
      * @return The task with the given ID.
      * @throws ResourceNotFoundException if the task is not found.
      */
+    @Transactional(readOnly = true)
     public Task getTaskById(Integer id) {
-        return taskRepository.findById(id).orElseThrow(() ->
+        return taskRepository.findDetailById(id).orElseThrow(() ->
                 new ResourceNotFoundException("Task not found with id " + id));
     }
 
+    /**
+     * Retrieves some fields of a task, reading only their columns.
+     *
+     * @param id The ID of the task.
+     * @param fields The fields to return.
+     * @return The requested fields of the task by name.
+     * @throws ResourceNotFoundException if the task is not found.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskFields(Integer id, FieldSet<TaskField> fields) {
+        return taskRepository.findFieldsById(fields, id).map(fields::toMap).orElseThrow(() ->
+                new ResourceNotFoundException("Task not found with id " + id));
+    }
+
+    /**
+     * Applies a partial update to a task.
+     * The task is read once, together with everything it is rendered with, and only the columns whose values
+     * actually change are written. A comment in the patch is added to the task and its assignee is notified;
+     * other changes are reported to the head of the task's department.
+     * No lock is held between the read and the write: the update is conditional on the version that was read,
+     * so an edit committed in between makes this one fail instead of being overwritten.
+     *
+     * @param id The ID of the task to update.
+     * @param patch The fields to change.
+     * @param ifMatch The If-Match header of the request, or null to update whatever the current state.
+     * @return The updated task.
+     * @throws ResourceNotFoundException if the task is not found.
+     * @throws PreconditionFailedException if the task no longer matches the If-Match header.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task was changed concurrently.
+     */
+    @Transactional
+    public Task patchTask(Integer id, TaskPatch patch, String ifMatch) {
+        Task task = taskRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id " + id));
+        if (ifMatch != null && !ETags.matches(ifMatch, getTaskETag(task))) {
+            throw new PreconditionFailedException("Task " + id + " has changed since it was read");
+        }
+        Integer previousDepartmentId = TaskChangedEvent.departmentId(task);
+        Integer previousAssignedToId = TaskChangedEvent.assignedToId(task);
+
+        boolean changed = false;
+        if (patch.status() != null && patch.status() != task.getStatus()) {
+            task.setStatus(patch.status());
+            changed = true;
+        }
+        if (patch.priority() != null && patch.priority() != task.getPriority()) {
+            task.setPriority(patch.priority());
+            changed = true;
+        }
+        if (patch.title() != null && !patch.title().equals(task.getTitle())) {
+            task.setTitle(patch.title());
+            changed = true;
+        }
+        if (patch.description() != null && !patch.description().equals(task.getDescription())) {
+            task.setDescription(patch.description());
+            changed = true;
+        }
+        if (patch.dueDate() != null && !patch.dueDate().equals(task.getDueDate())) {
+            task.setDueDate(patch.dueDate());
+            changed = true;
+        }
+        boolean commented = patch.comments() != null && !patch.comments().isBlank();
+        if (commented) {
+            task.getComments().add(new TaskComment(task, patch.comments())); // Inserted by cascade when the transaction commits
+        }
+
+        if (changed) {
+            eventPublisher.publishEvent(TaskChangedEvent.saved(task, previousDepartmentId, previousAssignedToId));
+            if (task.getDepartment() != null) {
+                notificationService.sendDepartmentHeadNotification("Task updated: " + task.getTitle(), task.getDepartment().getId(),
+                        Notification.NotificationType.TASK, task.getId());
+            }
+        }
+        if (commented && task.getAssignedTo() != null) {
+            notificationService.sendNotification("New comment on task: " + task.getTitle() + " - " + patch.comments(),
+                    task.getAssignedTo().getUsername(), Notification.NotificationType.TASK, task.getId());
+        }
+        return task;
+    }
+
     /**
      * Updates an existing task with new details.
      *
@@ -108,13 +488,12 @@ public class TaskService {
      * @return The updated task.
      * @throws ResourceNotFoundException if the task is not found.
      */
+    @Transactional
     public Task updateTask(Integer id, Task task) {
-        if (!taskRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Task not found with id " + id);
-        }
-
         Task existingTask = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id " + id));
+        Integer previousDepartmentId = TaskChangedEvent.departmentId(existingTask);
+        Integer previousAssignedToId = TaskChangedEvent.assignedToId(existingTask);
 
         existingTask.setTitle(task.getTitle());
         existingTask.setDescription(task.getDescription());
@@ -124,9 +503,12 @@ public class TaskService {
         existingTask.setAssignedTo(task.getAssignedTo());
         existingTask.setDepartment(task.getDepartment());
         existingTask.setRequiredQualification(task.getRequiredQualification());
-        existingTask.setComments(task.getComments());
+        existingTask.setRequiredTechnologies(task.getRequiredTechnologies());
+        // Comments are not replaced here: they are added through addComment, and swapping the orphan-removal collection would fail
 
         Task updatedTask = taskRepository.save(existingTask);
+        Hibernate.initialize(updatedTask.getComments()); // Rendered after the transaction has ended
+        eventPublisher.publishEvent(TaskChangedEvent.saved(updatedTask, previousDepartmentId, previousAssignedToId));
 
         notificationService.sendDepartmentHeadNotification("Task updated: " + existingTask.getTitle(), existingTask.getDepartment().getId(), Notification.NotificationType.TASK, existingTask.getId());
 
@@ -139,96 +521,145 @@ public class TaskService {
      * @param id The ID of the task to delete.
      * @throws ResourceNotFoundException if the task is not found.
      */
+    @Transactional
     public void deleteTask(Integer id) {
-        if (!taskRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Task not found with id " + id);
-        }
-        taskRepository.deleteById(id);
-    }
-
-    /**
-     * Finds the user with the least number of assigned tasks.
-     *
-     * @param users A list of users to check.
-     * @return The user with the least tasks.
-     * @throws ResourceNotFoundException if no users are available.
-     */
-    private User getUserWithLeastTasks(List<User> users) {
-        return users.stream().min(Comparator.comparingInt(u -> u.getTasks().size()))
-                .orElseThrow(() -> new ResourceNotFoundException("No users available"));
+        Task task = taskRepository.findById(id).orElseThrow(() ->
+                new ResourceNotFoundException("Task not found with id " + id));
+        taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(task));
     }
 
     /**
-     * Counts the number of tasks assigned to a specific user.
+     * Finds the candidate with the least number of assigned tasks.
+     * Ties go to the candidate with the lowest ID.
      *
-     * @param user The user whose tasks are counted.
-     * @return The number of tasks assigned to the user.
+     * @param candidates The IDs of the candidates.
+     * @return The ID of the least loaded candidate.
+     * @throws ResourceNotFoundException if there are no candidates.
      */
-    private int getTaskCountForUser(User user) {
-        return user.getTasks().size();
+    private int getUserWithLeastTasks(BitSet candidates) {
+        int best = -1;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int userId = candidates.nextSetBit(0); userId >= 0; userId = candidates.nextSetBit(userId + 1)) {
+            int load = countTasksByUser(userId);
+            if (load < bestLoad) {
+                best = userId;
+                bestLoad = load;
+            }
+        }
+        if (best < 0) {
+            throw new ResourceNotFoundException("No available users matching the task requirements");
+        }
+        return best;
     }
 
     /**
      * Automatically assigns a task to the user with the least number of tasks.
-     * Filters users by department, role, and qualification before assigning the task.
+     * Candidates are the employees of the task's department with the required qualification type
+     * who know all of the task's required technologies, looked up in the skill index;
+     * their task counts come from the task cube.
      *
      * @param task The task to assign.
      * @return The task with the assigned user.
      * @throws ResourceNotFoundException if no available users match the task requirements.
      */
     public Task assignTaskAutomatically(Task task) {
-        logger.info("assignTaskAutomatically started");
-        List<User> users = userRepository.findAll();
-        logger.info("All users before filtering: {}", users);
-
-        users = users.stream()
-                .filter(user -> {
-                    boolean isEmployee = user.getRole() == User.UserRole.EMPLOYEE;
-                    logger.info("User {} is an employee: {}", user.getId(), isEmployee);
-                    return isEmployee;
-                })
-                .filter(user -> {
-                    boolean isCorrectDepartment = user.getDepartment() != null &&
-                            user.getDepartment().getId() == task.getDepartment().getId();
-                    logger.info("User {} is in department {}: {}", user.getId(),
-                            task.getDepartment().getId(), isCorrectDepartment);
-                    return isCorrectDepartment;
-                })
-                .filter(user -> {
-                    boolean isCorrectQualification = user.getQualification() != null &&
-                            user.getQualification().getQualification() == task.getRequiredQualification();
-                    logger.info("User {} has qualification {}: {}", user.getId(),
-                            user.getQualification() != null ? user.getQualification().getQualification() : "null",
-                            isCorrectQualification);
-                    return isCorrectQualification;
-                })
-                .collect(Collectors.toList());
-
-        logger.info("Filtered users: {}", users);
-
-        if (users.isEmpty()) {
-            throw new ResourceNotFoundException("No available users matching the task requirements");
-        }
+        BitSet candidates = skillIndex.findCandidates(task.getDepartment().getId(), task.getRequiredQualification(),
+                task.getRequiredTechnologies());
+        logger.info("Task {} has {} assignment candidates", task.getId(), candidates.cardinality());
 
         // Assign task to the user with the least tasks
-        User userWithLeastTasks = getUserWithLeastTasks(users);
+        int userId = getUserWithLeastTasks(candidates);
+        User userWithLeastTasks = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("No available users matching the task requirements"));
         task.setAssignedTo(userWithLeastTasks);
 
         Task updatedTask = updateTask(task.getId(), task);
-        logger.info("Assigned to user: {}", task.getAssignedTo());
-        logger.info("Assigned user ID: {}", task.getAssignedTo() != null ? task.getAssignedTo().getId() : "null");
+        logger.info("Assigned task {} to user {}", task.getId(), userId);
 
         notificationService.sendNotification("You have been assigned a new task: " + task.getTitle(), userWithLeastTasks.getUsername(), Notification.NotificationType.TASK, task.getId());
 
         return updatedTask;
     }
 
+    /**
+     * Removes a user from all of their tasks with one statement, for when the user is deleted.
+     * With reassign, the released tasks are then distributed like new tasks: each goes to the least loaded employee
+     * of its department who matches its requirements, counting the tasks handed out so far, and the assignments
+     * are written with one statement per new assignee. Tasks without a matching employee stay unassigned.
+     *
+     * @param userId The ID of the user whose tasks are released.
+     * @param reassign Whether to assign the released tasks to other employees.
+     * @return The number of released tasks given to each new assignee, by user ID.
+     */
+    @Transactional
+    public Map<Integer, Integer> releaseTasks(Integer userId, boolean reassign) {
+        List<Object[]> tasks = taskRepository.findAssignmentRequirementsByAssignee(userId);
+        if (tasks.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // The precision of database timestamps
+        taskRepository.unassignAll(userId, now);
+
+        Map<Integer, List<Integer>> tasksByAssignee = new HashMap<>();
+        Map<Integer, Integer> assigneeIds = new HashMap<>();
+        if (reassign) {
+            Map<String, BitSet> candidatesByRequirement = new HashMap<>();
+            Map<Integer, Integer> loads = new HashMap<>();
+            for (Object[] task : tasks) {
+                Integer departmentId = (Integer) task[1];
+                Qualification.QualificationType qualification = (Qualification.QualificationType) task[4];
+                String technologies = (String) task[5];
+                if (departmentId == null || qualification == null) {
+                    continue;
+                }
+                BitSet candidates = candidatesByRequirement.computeIfAbsent(departmentId + "|" + qualification + "|" + technologies, key -> {
+                    BitSet found = skillIndex.findCandidates(departmentId, qualification, technologies);
+                    found.clear(userId); // The index may still list the user who is being deleted
+                    return found;
+                });
+                int best = -1;
+                int bestLoad = Integer.MAX_VALUE;
+                for (int candidate = candidates.nextSetBit(0); candidate >= 0; candidate = candidates.nextSetBit(candidate + 1)) {
+                    int load = loads.computeIfAbsent(candidate, this::countTasksByUser);
+                    if (load < bestLoad) {
+                        best = candidate;
+                        bestLoad = load;
+                    }
+                }
+                if (best >= 0) {
+                    loads.merge(best, 1, Integer::sum);
+                    tasksByAssignee.computeIfAbsent(best, key -> new ArrayList<>()).add((Integer) task[0]);
+                    assigneeIds.put((Integer) task[0], best);
+                }
+            }
+            tasksByAssignee.forEach((assigneeId, taskIds) -> {
+                User assignee = userRepository.getReferenceById(assigneeId);
+                for (int from = 0; from < taskIds.size(); from += RELEASE_CHUNK_SIZE) {
+                    taskRepository.updateAssigneeByIds(taskIds.subList(from, Math.min(from + RELEASE_CHUNK_SIZE, taskIds.size())), assignee, now);
+                }
+            });
+        }
+
+        for (Object[] task : tasks) {
+            Integer departmentId = (Integer) task[1];
+            eventPublisher.publishEvent(new TaskChangedEvent((Integer) task[0], false, departmentId, assigneeIds.get((Integer) task[0]),
+                    (Task.TaskStatus) task[2], (Task.TaskPriority) task[3], (Qualification.QualificationType) task[4], departmentId, userId));
+        }
+        logger.info("Released {} tasks of user {}, {} reassigned to {} users", tasks.size(), userId, assigneeIds.size(), tasksByAssignee.size());
+
+        Map<Integer, Integer> assignedCounts = new HashMap<>();
+        tasksByAssignee.forEach((assigneeId, taskIds) -> assignedCounts.put(assigneeId, taskIds.size()));
+        return assignedCounts;
+    }
+
     /**
      * Retrieves tasks assigned to a specific department.
      *
      * @param id The department ID.
      * @return A list of tasks for the given department.
      */
+    @Transactional(readOnly = true)
     public List<Task> findTasksByDepartment(Integer id) {
         return taskRepository.findByDepartmentId(id);
     }
@@ -239,6 +670,7 @@ public class TaskService {
      * @param id The user ID.
      * @return A list of tasks assigned to the given user.
      */
+    @Transactional(readOnly = true)
     public List<Task> findTasksByUser(Integer id) {
         return taskRepository.findByAssignedTo(userRepository.findById(id).get());
     }
@@ -249,6 +681,7 @@ public class TaskService {
      * @param id The ID of the task.
      * @return The task with the given ID.
      */
+    @Transactional(readOnly = true)
     public Task findTaskById(Integer id) {
         return taskRepository.findById(id).get();
     }
@@ -291,6 +724,7 @@ public class TaskService {
      * @param taskId The ID of the task.
      * @return A list of comments for the task.
      */
+    @Transactional(readOnly = true)
     public List<TaskComment> getComments(Integer taskId) {
         return taskCommentRepository.findByTaskId(taskId);
     }
@@ -302,7 +736,10 @@ public class TaskService {
      * @return The number of tasks assigned to the user.
      */
     public Integer countTasksByUser(Integer userId) {
-        return taskRepository.countByAssignedTo(userId);
+        if (taskCube.isReady()) {
+            return taskCube.countByUser(userId);
+        }
+        return Math.toIntExact(taskStatsRepository.sumByAssignedTo(userId));
     }
 
     /**
@@ -313,7 +750,10 @@ public class TaskService {
      * @return The number of tasks with the given status assigned to the user.
      */
     public Integer countTasksByUserAndStatus(Integer userId, Task.TaskStatus status) {
-        return taskRepository.countByAssignedToAndStatus(userId, status);
+        if (taskCube.isReady()) {
+            return taskCube.countByUserAndStatus(userId, status);
+        }
+        return Math.toIntExact(taskStatsRepository.sumByAssignedToAndStatus(userId, status));
     }
 
     /**
@@ -323,7 +763,10 @@ public class TaskService {
      * @return The number of tasks in the department.
      */
     public Integer countTasksByDepartment(Integer departmentId) {
-        return taskRepository.countByDepartment(departmentId);
+        if (taskCube.isReady()) {
+            return taskCube.countByDepartment(departmentId);
+        }
+        return Math.toIntExact(taskStatsRepository.sumByDepartment(departmentId));
     }
 
     /**
@@ -334,7 +777,10 @@ public class TaskService {
      * @return The number of tasks with the given status in the department.
      */
     public Integer countTasksByDepartmentAndStatus(Integer departmentId, Task.TaskStatus status) {
-        return taskRepository.countByDepartmentAndStatus(departmentId, status);
+        if (taskCube.isReady()) {
+            return taskCube.countByDepartmentAndStatus(departmentId, status);
+        }
+        return Math.toIntExact(taskStatsRepository.sumByDepartmentAndStatus(departmentId, status));
     }
 
     /**
@@ -343,7 +789,10 @@ public class TaskService {
      * @return The total number of tasks.
      */
     public Integer countAllTasks() {
-        return Math.toIntExact(taskRepository.count());
+        if (taskCube.isReady()) {
+            return taskCube.countAll();
+        }
+        return Math.toIntExact(taskStatsRepository.sumAll());
     }
 
     /**
@@ -353,7 +802,48 @@ public class TaskService {
      * @return The number of tasks with the given status.
      */
     public Integer countTasksByStatus(Task.TaskStatus status) {
-        return taskRepository.countByStatus(status);
+        if (taskCube.isReady()) {
+            return taskCube.countByStatus(status);
+        }
+        return Math.toIntExact(taskStatsRepository.sumByStatus(status));
+    }
+
+    /**
+     * Counts the tasks assigned to a specific user, in total and per status.
+     *
+     * @param userId The user ID.
+     * @return The task counts for the user.
+     */
+    public TaskStatusCounts getTaskStatusCountsByUser(Integer userId) {
+        if (taskCube.isReady()) {
+            return taskCube.statusCountsByUser(userId);
+        }
+        return taskStatsRepository.sumStatusesByAssignedTo(userId);
+    }
+
+    /**
+     * Counts the tasks in a specific department, in total and per status.
+     *
+     * @param departmentId The department ID.
+     * @return The task counts for the department.
+     */
+    public TaskStatusCounts getTaskStatusCountsByDepartment(Integer departmentId) {
+        if (taskCube.isReady()) {
+            return taskCube.statusCountsByDepartment(departmentId);
+        }
+        return taskStatsRepository.sumStatusesByDepartment(departmentId);
+    }
+
+    /**
+     * Counts all tasks in the system, in total and per status.
+     *
+     * @return The task counts for the whole system.
+     */
+    public TaskStatusCounts getTaskStatusCounts() {
+        if (taskCube.isReady()) {
+            return taskCube.statusCounts();
+        }
+        return taskStatsRepository.sumStatuses();
     }
 
     /**
@@ -362,7 +852,8 @@ public class TaskService {
      * @param userId The user ID.
      * @return A list of high-priority tasks assigned to the user.
      */
-    public List<Task> findHighPriorityTasksByUser(Integer userId) {
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findHighPriorityTasksByUser(Integer userId) {
         return taskRepository.findByAssignedToAndPriority(userId, Task.TaskPriority.HIGH);
     }
 
@@ -372,7 +863,8 @@ public class TaskService {
      * @param departmentId The department ID.
      * @return A list of high-priority tasks assigned to the department.
      */
-    public List<Task> findHighPriorityTasksByDepartment(Integer departmentId) {
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findHighPriorityTasksByDepartment(Integer departmentId) {
         return taskRepository.findByDepartmentAndPriority(departmentId, Task.TaskPriority.HIGH);
     }
 
@@ -381,8 +873,9 @@ public class TaskService {
      *
      * @return A list of all high-priority tasks.
      */
-    public List<Task> findAllHighPriorityTasks() {
-        return taskRepository.findByPriority(Task.TaskPriority.HIGH);
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findAllHighPriorityTasks() {
+        return taskRepository.findSummariesByPriority(Task.TaskPriority.HIGH);
     }
 
     /**
@@ -391,7 +884,8 @@ public class TaskService {
      * @param userId The user ID.
      * @return A list of overdue tasks assigned to the user.
      */
-    public List<Task> findOverdueTasksByUser(Integer userId) {
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findOverdueTasksByUser(Integer userId) {
         return taskRepository.findOverdueTasksByUser(userId, LocalDate.now());
     }
 
@@ -401,7 +895,8 @@ public class TaskService {
      * @param departmentId The department ID.
      * @return A list of overdue tasks assigned to the department.
      */
-    public List<Task> findOverdueTasksByDepartment(Integer departmentId) {
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findOverdueTasksByDepartment(Integer departmentId) {
         return taskRepository.findOverdueTasksByDepartment(departmentId, LocalDate.now());
     }
 
@@ -410,7 +905,8 @@ public class TaskService {
      *
      * @return A list of all overdue tasks.
      */
-    public List<Task> findAllOverdueTasks() {
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findAllOverdueTasks() {
         return taskRepository.findAllOverdueTasks(LocalDate.now());
     }
 
@@ -421,7 +917,10 @@ public class TaskService {
      * @return A list of user task load data for the department.
      */
     public List<Map<String, Object>> getUserTaskLoadByDepartment(Integer departmentId) {
-        List<Object[]> results = taskRepository.getUserTaskLoadByDepartment(departmentId);
+        if (taskCube.isReady()) {
+            return toUserTaskLoads(userRepository.findIdAndUsernameByDepartmentId(departmentId));
+        }
+        List<Object[]> results = taskStatsRepository.getUserTaskLoadByDepartment(departmentId);
         List<Map<String, Object>> userTaskLoadList = new ArrayList<>();
 
         for (Object[] row : results) {
@@ -441,8 +940,10 @@ public class TaskService {
      * @return A list of user task load data for all departments.
      */
     public List<Map<String, Object>> getUserTaskLoadForAllDepartments() {
-
-        List<Object[]> results = taskRepository.getUserTaskLoadForAllDepartments();
+        if (taskCube.isReady()) {
+            return toUserTaskLoads(userRepository.findAllIdsAndUsernames());
+        }
+        List<Object[]> results = taskStatsRepository.getUserTaskLoadForAllDepartments();
         List<Map<String, Object>> userTaskLoadList = new ArrayList<>();
 
         for (Object[] row : results) {
@@ -455,4 +956,23 @@ public class TaskService {
 
         return userTaskLoadList;
     }
+
+    /**
+     * Builds the task load entries for a list of users, taking the task counts from the task cube.
+     *
+     * @param users Rows of user ID and username.
+     * @return A list of user task load data.
+     */
+    private List<Map<String, Object>> toUserTaskLoads(List<Object[]> users) {
+        List<Map<String, Object>> userTaskLoadList = new ArrayList<>(users.size());
+        for (Object[] row : users) {
+            Integer userId = (Integer) row[0];
+            Map<String, Object> userData = new HashMap<>();
+            userData.put("userId", userId);
+            userData.put("username", row[1]);
+            userData.put("taskCount", (long) taskCube.countByUser(userId));
+            userTaskLoadList.add(userData);
+        }
+        return userTaskLoadList;
+    }
 }
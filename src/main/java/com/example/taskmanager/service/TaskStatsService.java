@@ -0,0 +1,54 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.repository.TaskStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service that keeps the task_stats summary table honest.
+ * The table is maintained incrementally by a trigger on tasks; this service periodically
+ * compares it with a fresh aggregation and rebuilds it if the two have drifted apart,
+ * for example after manual data fixes with the trigger disabled.
+ */
+@Service
+public class TaskStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private final TaskStatsRepository taskStatsRepository;
+
+    public TaskStatsService(TaskStatsRepository taskStatsRepository) {
+        this.taskStatsRepository = taskStatsRepository;
+    }
+
+    /**
+     * Scheduled check that runs every night at 3 AM.
+     * Rebuilds the summary table if any of its counts differ from the tasks table.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    @Transactional
+    public void verify() {
+        long drifted = taskStatsRepository.countDriftedKeys();
+        if (drifted > 0) {
+            logger.warn("task_stats has drifted on {} keys, rebuilding", drifted);
+            rebuild();
+        } else {
+            logger.info("task_stats is consistent with tasks");
+        }
+    }
+
+    /**
+     * Recomputes the summary table from the tasks table in one transaction.
+     * Task changes made while the rebuild runs wait for it and are applied on top of the new counts.
+     */
+    @Transactional
+    public void rebuild() {
+        taskStatsRepository.lockForRebuild();
+        taskStatsRepository.deleteAllStats();
+        int keys = taskStatsRepository.insertStatsFromTasks();
+        logger.info("Rebuilt task_stats with {} keys", keys);
+    }
+}
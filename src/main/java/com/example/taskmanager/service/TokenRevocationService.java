@@ -0,0 +1,196 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.config.JwtUtil;
+import com.example.taskmanager.entity.RevokedToken;
+import com.example.taskmanager.repository.RevokedTokenRepository;
+import com.example.taskmanager.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that keeps track of revoked tokens so that the per-request authorization check
+ * never has to go to the database.
+ * Revocations are persisted in the revoked_tokens table and mirrored in memory: a bloom filter
+ * answers the common "not revoked" case, and exact sets confirm its positive answers.
+ * The in-memory copy is refreshed from the table every few seconds, so revocations made by
+ * other instances take effect shortly after they are written.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int EXPECTED_REVOCATIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long SYNC_OVERLAP_SECONDS = 30; // Re-reads recent rows to tolerate late commits and clock skew
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Set<String> revokedTokenIds = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Long> revokedUsers = new ConcurrentHashMap<>(); // user ID -> revocation time in epoch seconds
+    private volatile BloomFilter bloomFilter = new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * Loads all unexpired revocations into memory when the application starts.
+     */
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Checks whether a token has been revoked, either by its own ID or because
+     * all tokens of its user issued before a certain time were revoked.
+     *
+     * @param tokenId  the unique ID (jti) of the token
+     * @param userId   the ID of the user the token was issued to
+     * @param issuedAt the time the token was issued
+     * @return true if the token must be rejected, false otherwise
+     */
+    public boolean isRevoked(String tokenId, Integer userId, Date issuedAt) {
+        BloomFilter filter = bloomFilter;
+        if (tokenId != null && filter.mightContain(tokenKey(tokenId)) && revokedTokenIds.contains(tokenId)) {
+            return true;
+        }
+        if (userId != null && filter.mightContain(userKey(userId))) {
+            Long revokedAt = revokedUsers.get(userId);
+            return revokedAt != null && (issuedAt == null || issuedAt.getTime() / 1000 <= revokedAt);
+        }
+        return false;
+    }
+
+    /**
+     * Revokes a single token until it expires.
+     * A token ID can be revoked only once: the revoked_tokens table has a unique index on it, so of two concurrent
+     * calls for the same token exactly one inserts the revocation and returns true. Exchanging a refresh token
+     * relies on this to make sure the token is used only once, whatever the in-memory state says.
+     *
+     * @param tokenId   the unique ID (jti) of the token
+     * @param userId    the ID of the user the token was issued to
+     * @param expiresAt the expiration time of the token
+     * @return true if this call revoked the token, false if it had already been revoked
+     */
+    public boolean revokeToken(String tokenId, Integer userId, Date expiresAt) {
+        LocalDateTime expiration = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        RevokedToken revokedToken = new RevokedToken(tokenId, userId, LocalDateTime.now(), expiration);
+        try {
+            revokedTokenRepository.save(revokedToken);
+        } catch (DataIntegrityViolationException e) {
+            apply(revokedToken);
+            logger.info("Token {} of user {} was already revoked", tokenId, userId);
+            return false;
+        }
+        apply(revokedToken);
+        logger.info("Revoked token {} of user {}", tokenId, userId);
+        return true;
+    }
+
+    /**
+     * Revokes every token issued to a user up to now.
+     * The revocation is kept for the lifetime of a refresh token, after which all matching tokens have expired anyway.
+     *
+     * @param userId the ID of the user whose tokens are revoked
+     */
+    public void revokeUser(Integer userId) {
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken revokedToken = new RevokedToken(null, userId, now, now.plusNanos(JwtUtil.REFRESH_TOKEN_VALIDITY_MS * 1_000_000));
+        revokedTokenRepository.save(revokedToken);
+        apply(revokedToken);
+        logger.info("Revoked all tokens of user {}", userId);
+    }
+
+    /**
+     * Pulls revocations written since the last sync, including those made by other instances.
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync == null ? now : lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now);
+        recent.forEach(this::apply);
+        lastSync = now;
+    }
+
+    /**
+     * Deletes expired revocations and rebuilds the in-memory structures,
+     * since entries cannot be removed from a bloom filter.
+     */
+    @Scheduled(cron = "0 0 * * * *") // Triggered every hour
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.info("Purged {} expired token revocations", deleted);
+        reload();
+    }
+
+    /**
+     * Replaces the in-memory structures with the unexpired rows of the revoked_tokens table.
+     */
+    private synchronized void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+
+        BloomFilter filter = new BloomFilter(Math.max(EXPECTED_REVOCATIONS, active.size() * 2), FALSE_POSITIVE_RATE);
+        Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        Map<Integer, Long> users = new ConcurrentHashMap<>();
+        for (RevokedToken revokedToken : active) {
+            if (revokedToken.getTokenId() != null) {
+                tokenIds.add(revokedToken.getTokenId());
+                filter.put(tokenKey(revokedToken.getTokenId()));
+            } else if (revokedToken.getUserId() != null) {
+                users.merge(revokedToken.getUserId(), toEpochSecond(revokedToken.getRevokedAt()), Math::max);
+                filter.put(userKey(revokedToken.getUserId()));
+            }
+        }
+
+        // Exact sets are filled before the new filter is published, so a positive answer can always be confirmed
+        revokedTokenIds.addAll(tokenIds);
+        revokedTokenIds.retainAll(tokenIds);
+        revokedUsers.putAll(users);
+        revokedUsers.keySet().retainAll(users.keySet());
+        bloomFilter = filter;
+        lastSync = now;
+        logger.info("Loaded {} token revocations, bloom filter size {} bytes", active.size(), filter.sizeInBytes());
+    }
+
+    /**
+     * Adds a single revocation to the in-memory structures.
+     */
+    private void apply(RevokedToken revokedToken) {
+        if (revokedToken.getTokenId() != null) {
+            revokedTokenIds.add(revokedToken.getTokenId());
+            bloomFilter.put(tokenKey(revokedToken.getTokenId()));
+        } else if (revokedToken.getUserId() != null) {
+            revokedUsers.merge(revokedToken.getUserId(), toEpochSecond(revokedToken.getRevokedAt()), Math::max);
+            bloomFilter.put(userKey(revokedToken.getUserId()));
+        }
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userKey(Integer userId) {
+        return "uid:" + userId;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.taskmanager.service;
+
+import com.example.taskmanager.dto.UserImportResult;
+import com.example.taskmanager.entity.Department;
+import com.example.taskmanager.entity.Notification;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.DepartmentRepository;
+import com.example.taskmanager.repository.UserRepository;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Service that creates many users at once from a CSV file, for example when a new office is onboarded.
+ * The file is read in chunks, so its size does not matter. For each chunk the rows are validated against
+ * the same constraints as the user entity, usernames and emails are checked against the database with one
+ * query, the passwords are hashed in parallel on the password hashing executor, and the qualifications and
+ * users are written with one batched insert each. The hashing happens before the chunk's transaction begins,
+ * so no connection is held while BCrypt runs.
+ * Each chunk commits on its own: if an import fails halfway, the chunks before the failure stay imported
+ * and importing the same file again rejects their rows as existing users.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Columns of an import file, in the order the header line must list them.
+     */
+    public static final List<String> COLUMNS = List.of("username", "email", "password", "firstName", "lastName", "role",
+            "departmentId", "qualification", "technologies", "experienceYears");
+
+    // Reserves the IDs of a whole chunk at once, from the sequences the entities are generated from
+    private static final String RESERVE_USER_IDS = "SELECT nextval('users_id_seq') FROM generate_series(1, ?)";
+    private static final String RESERVE_QUALIFICATION_IDS = "SELECT nextval('qualifications_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_QUALIFICATION = "INSERT INTO qualifications (id, experience_years, technologies, " +
+            "qualification, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    // The role is bound as its uppercase Java name, the label of the user_role type, and cast explicitly since a varchar
+    // parameter does not convert to an enum column by itself; qualifications.qualification is a plain varchar column
+    private static final String INSERT_USER = "INSERT INTO users (id, username, password, email, first_name, last_name, role, " +
+            "created_at, updated_at, version, qualification_id, department_id, last_login) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?::user_role, ?, ?, 0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final Validator validator;
+    private final SkillIndex skillIndex;
+    private final NotificationService notificationService;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, UserRepository userRepository,
+                             DepartmentRepository departmentRepository, BCryptPasswordEncoder passwordEncoder,
+                             @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                             Validator validator, SkillIndex skillIndex, NotificationService notificationService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.departmentRepository = departmentRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.validator = validator;
+        this.skillIndex = skillIndex;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Imports users from a CSV file.
+     * The file starts with a header line listing {@link #COLUMNS} in that order. Every row needs a username,
+     * email, password, role, department and qualification type; a missing experienceYears counts as 0.
+     * Rows whose username or email already exists, or appears on an earlier row, are rejected.
+     * Invalid rows are skipped and reported.
+     *
+     * @param in The file contents; read to the end but not closed.
+     * @return What was imported and which rows were rejected.
+     * @throws IllegalArgumentException if the file cannot be parsed or the header does not match.
+     * @throws IOException if reading the file fails.
+     */
+    public UserImportResult importUsers(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        checkHeader(reader.read());
+
+        Set<Integer> departmentIds = departmentRepository.findAll().stream().map(Department::getId).collect(Collectors.toSet());
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportResult.RowError> errors = new ArrayList<>();
+        long received = 0;
+        long inserted = 0;
+        long rejected = 0;
+
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> fields;
+        do {
+            fields = reader.read();
+            if (fields != null && !(fields.size() == 1 && fields.get(0).isBlank())) {
+                received++;
+                Row row = parseRow(reader.recordLine(), fields, departmentIds, seenUsernames, seenEmails);
+                if (row.error() != null) {
+                    rejected++;
+                    report(errors, row);
+                } else {
+                    chunk.add(row);
+                }
+            }
+            if (chunk.size() == CHUNK_SIZE || (fields == null && !chunk.isEmpty())) {
+                List<Row> accepted = rejectExisting(chunk);
+                for (Row row : chunk) {
+                    if (row.error() != null) {
+                        rejected++;
+                        report(errors, row);
+                    }
+                }
+                inserted += insert(accepted, hashPasswords(accepted));
+                chunk.clear();
+            }
+        } while (fields != null);
+
+        if (inserted > 0) {
+            // Imported users bypass the entity callbacks, so the skill index is rebuilt once instead of per user
+            skillIndex.rebuild();
+            notificationService.sendAdminNotification(inserted + " users have been imported", Notification.NotificationType.USER, null);
+        }
+
+        errors.sort(Comparator.comparingLong(UserImportResult.RowError::line));
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long rowsPerSecond = received * 1000 / elapsedMillis;
+        logger.info("Imported {} user rows in {} ms ({} rows/s): {} created, {} rejected",
+                received, elapsedMillis, rowsPerSecond, inserted, rejected);
+        return new UserImportResult(received, inserted, rejected, errors, elapsedMillis, rowsPerSecond);
+    }
+
+    /**
+     * Checks that the header line lists the expected columns in order.
+     */
+    private static void checkHeader(List<String> header) {
+        String expected = String.join(",", COLUMNS);
+        String actual = header == null ? "" : String.join(",", header).replace("\uFEFF", "").replace(" ", "");
+        if (!actual.equalsIgnoreCase(expected)) {
+            throw new IllegalArgumentException("CSV header must be: " + expected);
+        }
+    }
+
+    /**
+     * Converts a CSV record to a row and validates it, except for the uniqueness checks against the database.
+     */
+    private Row parseRow(long line, List<String> fields, Set<Integer> departmentIds, Set<String> seenUsernames, Set<String> seenEmails) {
+        if (fields.size() != COLUMNS.size()) {
+            return Row.rejected(line, "expected " + COLUMNS.size() + " columns but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            String value = fields.get(i).trim();
+            values.put(COLUMNS.get(i), value.isEmpty() ? null : value);
+        }
+
+        User user = new User();
+        user.setUsername(values.get("username"));
+        user.setEmail(values.get("email"));
+        user.setPassword(values.get("password"));
+        user.setFirstName(values.get("firstName"));
+        user.setLastName(values.get("lastName"));
+        Qualification qualification = new Qualification();
+        qualification.setTechnologies(values.get("technologies"));
+
+        String role = values.get("role");
+        if (role == null) {
+            return Row.rejected(line, "role is required");
+        }
+        try {
+            user.setRole(User.UserRole.valueOf(role.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Row.rejected(line, "unknown role " + role);
+        }
+        String departmentId = values.get("departmentId");
+        if (departmentId == null || !departmentId.matches("\\d{1,9}")) {
+            return Row.rejected(line, "departmentId must be a department ID");
+        }
+        if (!departmentIds.contains(Integer.valueOf(departmentId))) {
+            return Row.rejected(line, "department " + departmentId + " does not exist");
+        }
+        String qualificationType = values.get("qualification");
+        if (qualificationType == null) {
+            return Row.rejected(line, "qualification is required");
+        }
+        try {
+            qualification.setQualification(Qualification.QualificationType.valueOf(qualificationType.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Row.rejected(line, "unknown qualification " + qualificationType);
+        }
+        String experienceYears = values.get("experienceYears");
+        if (experienceYears != null && !experienceYears.matches("-?\\d{1,9}")) {
+            return Row.rejected(line, "experienceYears must be a number");
+        }
+        qualification.setExperienceYears(experienceYears == null ? 0 : Integer.parseInt(experienceYears));
+
+        // The same constraints as for users created one by one
+        Set<String> violations = new TreeSet<>();
+        validator.validate(user).forEach(violation -> violations.add(violation.getMessage()));
+        validator.validate(qualification).forEach(violation -> violations.add(violation.getMessage()));
+        if (!violations.isEmpty()) {
+            return Row.rejected(line, String.join(", ", violations));
+        }
+        if (!seenUsernames.add(user.getUsername())) {
+            return Row.rejected(line, "username " + user.getUsername() + " is already used by an earlier row");
+        }
+        if (!seenEmails.add(user.getEmail())) {
+            return Row.rejected(line, "email " + user.getEmail() + " is already used by an earlier row");
+        }
+        return new Row(line, user, qualification, Integer.valueOf(departmentId), null);
+    }
+
+    /**
+     * Rejects the rows whose username or email already belongs to a user, looking them all up with one query.
+     *
+     * @return the rows that are still accepted
+     */
+    private List<Row> rejectExisting(List<Row> chunk) {
+        Set<String> usernames = chunk.stream().map(row -> row.user().getUsername()).collect(Collectors.toSet());
+        Set<String> emails = chunk.stream().map(row -> row.user().getEmail()).collect(Collectors.toSet());
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        for (Object[] existing : userRepository.findUsernamesAndEmails(usernames, emails)) {
+            existingUsernames.add((String) existing[0]);
+            existingEmails.add((String) existing[1]);
+        }
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            if (existingUsernames.contains(row.user().getUsername())) {
+                chunk.set(i, Row.rejected(row.line(), "username " + row.user().getUsername() + " already exists"));
+            } else if (existingEmails.contains(row.user().getEmail())) {
+                chunk.set(i, Row.rejected(row.line(), "email " + row.user().getEmail() + " already exists"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Hashes the passwords of the rows in parallel on the password hashing executor.
+     *
+     * @return the hashes in the order of the rows
+     */
+    private List<String> hashPasswords(List<Row> rows) {
+        List<Future<String>> futures = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String password = row.user().getPassword();
+            futures.add(passwordHashingExecutor.submit(() -> passwordEncoder.encode(password)));
+        }
+        List<String> hashes = new ArrayList<>(rows.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Hashing a password failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    /**
+     * Writes the qualifications and users of the rows with one batched insert each, in one transaction.
+     *
+     * @return the number of users created
+     */
+    private int insert(List<Row> rows, List<String> passwordHashes) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Integer inserted = transaction.execute(status -> {
+            List<Integer> qualificationIds = jdbcTemplate.queryForList(RESERVE_QUALIFICATION_IDS, Integer.class, rows.size());
+            List<Integer> userIds = jdbcTemplate.queryForList(RESERVE_USER_IDS, Integer.class, rows.size());
+            // Truncated to the precision of database timestamps, as the entity callbacks do
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            Timestamp createdAt = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+
+            List<Object[]> qualifications = new ArrayList<>(rows.size());
+            List<Object[]> users = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                User user = rows.get(i).user();
+                Qualification qualification = rows.get(i).qualification();
+                qualifications.add(new Object[]{qualificationIds.get(i), qualification.getExperienceYears(), qualification.getTechnologies(),
+                        qualification.getQualification().name(), Timestamp.valueOf(now)});
+                users.add(new Object[]{userIds.get(i), user.getUsername(), passwordHashes.get(i), user.getEmail(), user.getFirstName(),
+                        user.getLastName(), user.getRole().name(), createdAt, createdAt, qualificationIds.get(i),
+                        rows.get(i).departmentId(), Timestamp.valueOf(now)});
+            }
+            jdbcTemplate.batchUpdate(INSERT_QUALIFICATION, qualifications);
+            jdbcTemplate.batchUpdate(INSERT_USER, users);
+            return rows.size();
+        });
+        return inserted == null ? 0 : inserted;
+    }
+
+    private static void report(List<UserImportResult.RowError> errors, Row row) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new UserImportResult.RowError(row.line(), row.error()));
+        }
+    }
+
+    /**
+     * A row of the file, either accepted with the user it creates or rejected with the reason.
+     */
+    private record Row(long line, User user, Qualification qualification, Integer departmentId, String error) {
+
+        static Row rejected(long line, String error) {
+            return new Row(line, null, null, null, error);
+        }
+    }
+
+    /**
+     * Reads RFC 4180 records one at a time: fields are separated by commas, may be quoted with double quotes,
+     * and quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static final class CsvReader {
+
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the next record.
+         *
+         * @return the fields of the record, or null at the end of the file
+         */
+        List<String> read() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (c == -1) {
+                    if (quoted) {
+                        throw new IllegalArgumentException("Invalid import file: unterminated quoted field on line " + recordLine);
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue; // The character after the closing quote is read as unquoted
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+
+        /**
+         * Returns the line the last record read starts on.
+         */
+        long recordLine() {
+            return recordLine;
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.example.taskmanager.service;
 
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.FieldSet;
+import com.example.taskmanager.dto.UserDirectoryCursor;
+import com.example.taskmanager.dto.UserDirectoryEntry;
+import com.example.taskmanager.dto.UserField;
+import com.example.taskmanager.dto.UserPatch;
+import com.example.taskmanager.dto.UserSummary;
 import com.example.taskmanager.entity.*;
+import com.example.taskmanager.event.UserSkillsChangedEvent;
+import com.example.taskmanager.exception.PreconditionFailedException;
 import com.example.taskmanager.exception.ResourceNotFoundException;
-import com.example.taskmanager.repository.TaskRepository;
 import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,28 +40,33 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    public static final int MAX_DIRECTORY_PAGE_SIZE = 100;
+    public static final int MAX_DIRECTORY_QUERY_LENGTH = 100;
+
     private final UserRepository userRepository;
-    private final QualificationService qualificationService;
     private final DepartmentService departmentService;
-    private final TaskRepository taskRepository;
+    private final TaskService taskService;
     private final NotificationService notificationService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserService(UserRepository userRepository,
-                       QualificationService qualificationService,
-                       DepartmentService departmentService, TaskRepository taskRepository, BCryptPasswordEncoder passwordEncoder, NotificationService notificationService) {
+                       DepartmentService departmentService, TaskService taskService, BCryptPasswordEncoder passwordEncoder, NotificationService notificationService,
+                       TokenRevocationService tokenRevocationService, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.qualificationService = qualificationService;
         this.departmentService = departmentService;
-        this.taskRepository = taskRepository;
+        this.taskService = taskService;
         this.notificationService = notificationService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
     /**
-     * Saves a new user to the repository with password encryption.
+     * Saves a new user to the repository with password encryption and updates the skill index.
      * @param user User entity to be saved
      * @return Saved user
      */
@@ -55,7 +74,20 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserSkillsChangedEvent.saved(savedUser));
+        return savedUser;
+    }
+
+    /**
+     * Saves changes a user made to their own profile and updates the skill index.
+     * @param user User entity with the changed profile
+     * @return Saved user
+     */
+    public User saveProfile(User user) {
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserSkillsChangedEvent.saved(savedUser));
+        return savedUser;
     }
 
     /**
@@ -66,83 +98,137 @@ public class UserService {
      * @throws IllegalArgumentException if username or email already exists
      */
     public User createUser(Map<String, Object> userData) {
-        User user = processUser(userData, null);
-        if (userRepository.existsByUsername(user.getUsername())) {
+        // Checked before anything is written, so a rejected user leaves no qualification behind
+        if (userRepository.existsByUsername((String) userData.get("username"))) {
             throw new IllegalArgumentException("Username already exists");
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userRepository.existsByEmail((String) userData.get("email"))) {
             throw new IllegalArgumentException("Email already exists");
         }
+        User user = processUser(userData, null);
         return saveUser(user);
     }
 
     /**
-     * Updates an existing user based on the provided data.
+     * Applies a partial update to a user.
+     * The user is read once with its qualification and department, and only the columns whose values actually
+     * change are written. A new password is hashed; the stored hash is never hashed again.
+     * The update is conditional on the version that was read, so concurrent edits fail instead of overwriting each other.
      * @param id ID of the user to be updated
-     * @param userData Data to update the user
+     * @param patch Fields to change
+     * @param ifMatch If-Match header of the request, or null to update whatever the current state
      * @return Updated user
-     * @throws ResourceNotFoundException if user is not found
+     * @throws ResourceNotFoundException if the user or the new department is not found
+     * @throws IllegalArgumentException if the new username or email already belongs to another user
+     * @throws PreconditionFailedException if the user no longer matches the If-Match header
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the user was changed concurrently
      */
-    public User updateUser(Integer id, Map<String, Object> userData) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id " + id);
+    @Transactional
+    public User patchUser(Integer id, UserPatch patch, String ifMatch) {
+        User user = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found with id " + id));
+        if (ifMatch != null && !ETags.matches(ifMatch, getUserETag(user))) {
+            throw new PreconditionFailedException("User " + id + " has changed since it was read");
+        }
+
+        if (patch.username() != null && !patch.username().equals(user.getUsername())) {
+            if (userRepository.existsByUsername(patch.username())) {
+                throw new IllegalArgumentException("Username already exists");
+            }
+            user.setUsername(patch.username());
+        }
+        if (patch.email() != null && !patch.email().equals(user.getEmail())) {
+            if (userRepository.existsByEmail(patch.email())) {
+                throw new IllegalArgumentException("Email already exists");
+            }
+            user.setEmail(patch.email());
+        }
+        if (patch.password() != null && !patch.password().isEmpty()) {
+            user.setPassword(passwordEncoder.encode(patch.password()));
+        }
+        if (patch.firstName() != null) user.setFirstName(patch.firstName());
+        if (patch.lastName() != null) user.setLastName(patch.lastName());
+        if (patch.role() != null) user.setRole(patch.role());
+
+        if (patch.qualification() != null) {
+            Qualification qualification = user.getQualification();
+            if (qualification == null) {
+                qualification = new Qualification(); // Inserted by cascade when the transaction commits
+                qualification.setExperienceYears(0);
+                user.setQualification(qualification);
+            }
+            UserPatch.QualificationData data = patch.qualification();
+            if (data.qualification() != null) qualification.setQualification(data.qualification());
+            if (data.technologies() != null) qualification.setTechnologies(data.technologies());
+            if (data.experienceYears() != null) qualification.setExperienceYears(data.experienceYears());
         }
-        User existingUser = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found with id " + id));
-        updateExistingUser(existingUser, userData);
 
-        return saveUser(existingUser);
+        if (patch.department() != null && (user.getDepartment() == null || !user.getDepartment().getId().equals(patch.department().id()))) {
+            Department department = departmentService.findDepartmentById(patch.department().id())
+                    .orElseThrow(() -> new ResourceNotFoundException("Department not found with that ID"));
+            user.setDepartment(department);
+        }
+
+        eventPublisher.publishEvent(UserSkillsChangedEvent.saved(user));
+        return user;
     }
 
     /**
      * Retrieves all users from the repository.
      * @return List of all users
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    /**
+     * Retrieves a list view of all users, without passwords or nested entities.
+     * @return List of summaries of all users
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
     /**
      * Retrieves a user by ID.
      * @param userId ID of the user to be retrieved
      * @return User with the specified ID
      * @throws ResourceNotFoundException if user is not found
      */
+    @Transactional(readOnly = true)
     public User getUserById(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ResourceNotFoundException("User not found with id " + userId);
-        }
-        return userRepository.findById(userId).get();
+        return userRepository.findById(userId).orElseThrow(() ->
+                new ResourceNotFoundException("User not found with id " + userId));
     }
 
     /**
-     * Deletes a user by ID, removing task assignments and sending a notification.
+     * Deletes a user by ID, removing task assignments, revoking the user's tokens and sending a notification.
+     * Tasks and notifications are released with bulk statements in the same transaction as the deletion,
+     * so the cost does not grow with the number of tasks and a failure leaves nothing half done.
      * @param id ID of the user to be deleted
+     * @param reassignTasks whether the user's tasks are assigned automatically to other employees instead of left unassigned
      * @throws ResourceNotFoundException if user is not found
      */
-    public void deleteUser(Integer id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id " + id);
-        }
-
+    @Transactional
+    public void deleteUser(Integer id, boolean reassignTasks) {
         User user = userRepository.findById(id).orElseThrow(() ->
                 new ResourceNotFoundException("User not found with id " + id)
         );
 
-        // Unassign tasks from the user
-        List<Task> tasks = user.getTasks();
-        for (Task task : tasks) {
-            task.setAssignedTo(null);  // Unassign task
-        }
-        taskRepository.saveAll(tasks);
-
-        // Delete user's notifications
-        List<Notification> notifications = user.getNotifications();
-        for (Notification notification : notifications) {
-            notificationService.deleteNotification(notification.getId());
-        }
+        Map<Integer, Integer> reassigned = taskService.releaseTasks(id, reassignTasks);
+        notificationService.deleteNotificationsByUserId(id);
 
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(UserSkillsChangedEvent.removed(id));
+        tokenRevocationService.revokeUser(id);
         notificationService.sendAdminNotification("User deleted: " + user.getUsername(), Notification.NotificationType.USER, user.getId());
+        if (!reassigned.isEmpty()) {
+            Map<Integer, String> messages = new HashMap<>();
+            reassigned.forEach((assigneeId, count) ->
+                    messages.put(assigneeId, "You have been assigned " + count + " tasks of " + user.getUsername()));
+            notificationService.sendNotifications(messages, Notification.NotificationType.TASK, null);
+        }
     }
 
     /**
@@ -158,9 +244,6 @@ public class UserService {
         qualification.setTechnologies((String) qualificationData.get("technologies"));
         qualification.setExperienceYears((Integer) qualificationData.get("experienceYears"));
 
-        qualificationService.createQualification(qualification);
-        logger.info("Created qualification: " + qualification.toString());
-
         User user = new User();
         user.setUsername((String) userData.get("username"));
         user.setEmail((String) userData.get("email"));
@@ -168,7 +251,7 @@ public class UserService {
         user.setFirstName((String) userData.get("firstName"));
         user.setLastName((String) userData.get("lastName"));
         user.setRole(User.UserRole.valueOf((String) userData.get("role")));
-        user.setQualification(qualification);
+        user.setQualification(qualification); // Inserted by cascade together with the user
         user.setLastLogin(LocalDateTime.now());
 
         Map<String, Object> departmentData = (Map<String, Object>) userData.get("department");
@@ -184,47 +267,69 @@ public class UserService {
     }
 
     /**
-     * Updates an existing user with the provided data.
-     * @param user User to be updated
-     * @param userData Data to update the user
+     * Retrieves all users belonging to a specific department.
+     * @param departmentId ID of the department
+     * @return List of users in the specified department
      */
-    private void updateExistingUser(User user, Map<String, Object> userData) {
-        if (userData.containsKey("username")) user.setUsername((String) userData.get("username"));
-        if (userData.containsKey("email")) user.setEmail((String) userData.get("email"));
-        if (userData.containsKey("password")) user.setPassword((String) userData.get("password"));
-        if (userData.containsKey("firstName")) user.setFirstName((String) userData.get("firstName"));
-        if (userData.containsKey("lastName")) user.setLastName((String) userData.get("lastName"));
-        if (userData.containsKey("role")) user.setRole(User.UserRole.valueOf((String) userData.get("role")));
-
-        if (userData.containsKey("qualification")) {
-            Map<String, Object> qualificationData = (Map<String, Object>) userData.get("qualification");
-            Qualification qualification = user.getQualification();
-            if (qualification == null) {
-                qualification = new Qualification();
-            }
-            qualification.setQualification(Qualification.QualificationType.valueOf((String) qualificationData.get("qualification")));
-            qualification.setTechnologies((String) qualificationData.get("technologies"));
-            qualification.setExperienceYears((Integer) qualificationData.get("experienceYears"));
+    @Transactional(readOnly = true)
+    public List<User> findUsersByDepartment(Integer departmentId) {
+        return userRepository.findByDepartmentId(departmentId);
+    }
 
-            qualificationService.createQualification(qualification);
-            user.setQualification(qualification);
+    /**
+     * Retrieves a list view of the users belonging to a specific department, without passwords or nested entities.
+     * @param departmentId ID of the department
+     * @return List of summaries of the users in the specified department
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> findUserSummariesByDepartment(Integer departmentId) {
+        return userRepository.findSummariesByDepartmentId(departmentId);
+    }
+
+    /**
+     * Retrieves one page of the user directory visible to a user, in username order, for pickers that search
+     * users as the user types. Admins see all users, optionally of one department; department heads see the users
+     * of their own department. Only the columns of the directory entries are read.
+     * @param currentUser The user requesting the directory
+     * @param query Prefix of the username, first name or last name to match, ignoring case; "first last" matches both names; null or blank for all users
+     * @param departmentId Only users of this department, null for all; ignored for department heads
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The maximum number of users on the page
+     * @return The page of directory entries and the cursor for the next page
+     * @throws IllegalArgumentException if the query is too long, the limit is out of range or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserDirectoryEntry> findDirectoryPage(User currentUser, String query, Integer departmentId, String cursor, int limit) {
+        if (query != null && query.length() > MAX_DIRECTORY_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_DIRECTORY_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_DIRECTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_DIRECTORY_PAGE_SIZE);
         }
+        if (currentUser.getRole() == User.UserRole.DEPARTMENT_HEAD) {
+            departmentId = currentUser.getDepartment().getId();
+        }
+        String prefix = query != null && !query.isBlank() ? query : null;
+        UserDirectoryCursor after = cursor != null ? UserDirectoryCursor.decode(cursor) : null;
 
-        if (userData.containsKey("department")) {
-            Map<String, Object> departmentData = (Map<String, Object>) userData.get("department");
-            Department department = departmentService.findDepartmentById((Integer) departmentData.get("id"))
-                    .orElseThrow(() -> new ResourceNotFoundException("Department not found with that ID"));
-            user.setDepartment(department);
+        // One extra row tells whether there is a next page
+        List<UserDirectoryEntry> entries = userRepository.findDirectoryPage(prefix, departmentId, after, limit + 1);
+        if (entries.size() <= limit) {
+            return new CursorPage<>(entries, null);
         }
+        List<UserDirectoryEntry> page = new ArrayList<>(entries.subList(0, limit));
+        return new CursorPage<>(page, UserDirectoryCursor.after(page.get(limit - 1)).encode());
     }
 
     /**
-     * Retrieves all users belonging to a specific department.
-     * @param departmentId ID of the department
-     * @return List of users in the specified department
+     * Retrieves some fields of all users or of the users of a department, reading only their columns.
+     * @param fields The fields to return
+     * @param departmentId ID of the department, or null for all users
+     * @return The requested fields of each user by name, ordered by user ID
      */
-    public List<User> findUsersByDepartment(Integer departmentId) {
-        return userRepository.findByDepartmentId(departmentId);
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findUserFields(FieldSet<UserField> fields, Integer departmentId) {
+        return userRepository.findFields(fields, departmentId).stream().map(fields::toMap).toList();
     }
 
     /**
@@ -252,10 +357,35 @@ public class UserService {
      * @param username Username of the user
      * @return User with the specified username
      */
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * Computes the ETag of a user from the version and update time of the user and the update times of their
+     * qualification and department,
+     * without loading the user.
+     * @param username Username of the user
+     * @return The strong ETag of the user, or null if there is no such user
+     */
+    @Transactional(readOnly = true)
+    public String getUserETag(String username) {
+        List<Object[]> stamps = userRepository.findVersionStampsByUsername(username);
+        return stamps.isEmpty() ? null : ETags.of("user", Arrays.asList(stamps.get(0)));
+    }
+
+    /**
+     * Computes the ETag of a loaded user, from the same stamps as {@link #getUserETag(String)}.
+     * @param user The user with qualification and department loaded
+     * @return The strong ETag of the user as loaded
+     */
+    public String getUserETag(User user) {
+        return ETags.of("user", Arrays.asList(user.getId(), user.getVersion(), user.getUpdatedAt(),
+                user.getQualification() != null ? user.getQualification().getUpdatedAt() : null,
+                user.getDepartment() != null ? user.getDepartment().getUpdatedAt() : null));
+    }
+
     /**
      * Updates the last login time for the user.
      * @param username Username of the user
@@ -272,6 +402,7 @@ public class UserService {
      * Counts the total number of users in the system.
      * @return Total number of users
      */
+    @Transactional(readOnly = true)
     public Integer countAllUsers() {
         return Math.toIntExact(userRepository.count());
     }
@@ -281,6 +412,7 @@ public class UserService {
      * @param departmentId ID of the department
      * @return Number of active users in the department
      */
+    @Transactional(readOnly = true)
     public Integer countActiveUsersByDepartment(Integer departmentId) {
         return userRepository.countActiveUsersByDepartment(departmentId);
     }
@@ -289,7 +421,8 @@ public class UserService {
      * Retrieves users who have been inactive for over a month.
      * @return List of inactive users
      */
-    public List<User> findInactiveUsers() {
+    @Transactional(readOnly = true)
+    public List<UserSummary> findInactiveUsers() {
         return userRepository.findInactiveUsers(LocalDateTime.now().minusMonths(1));
     }
 }
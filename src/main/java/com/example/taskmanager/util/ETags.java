@@ -0,0 +1,57 @@
+package com.example.taskmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Builds strong entity tags from version stamps, such as the update times and row counts
+ * a resource is rendered from. Equal stamps give equal tags, so a tag can be checked against
+ * If-None-Match before the resource is loaded or serialized.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Builds the quoted entity tag of a resource.
+     *
+     * @param resource a name for the kind of resource, so equal stamps of different resources give different tags
+     * @param stamps   the version stamps of everything the representation is built from; nulls are allowed
+     * @return the entity tag, e.g. {@code "task-3f2a9c0d17b4e6a1"}
+     */
+    public static String of(String resource, Object... stamps) {
+        StringBuilder key = new StringBuilder(resource);
+        for (Object stamp : stamps) {
+            key.append('|').append(stamp);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return '"' + resource + '-' + HexFormat.of().formatHex(digest, 0, 8) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Evaluates an If-Match header against the current tag of a resource, with the strong comparison
+     * that If-Match requires: weak tags never match.
+     *
+     * @param ifMatch the header value: "*" or a comma-separated list of entity tags
+     * @param eTag    the current entity tag of the resource
+     * @return true if the header matches the current tag
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        if (ifMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
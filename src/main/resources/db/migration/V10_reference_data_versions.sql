@@ -0,0 +1,5 @@
+-- Version stamps for conditional GETs: departments and qualifications get the updated_at column
+-- that users and tasks already have, so ETags can be derived from it without loading the rows.
+ALTER TABLE departments ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE qualifications ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
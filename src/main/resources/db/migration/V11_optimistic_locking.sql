@@ -0,0 +1,4 @@
+-- Optimistic locking: every update of a task or user increments its version and is made conditional on the
+-- version it was read with, so concurrent edits fail instead of silently overwriting each other.
+ALTER TABLE tasks ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Indexes for the user directory, GET /api/users/directory.
+-- Prefix search compares lower-cased names with LIKE 'prefix%'. With text_pattern_ops the planner can turn that
+-- into a btree range scan whatever the database collation; a search over all three names combines them with a bitmap OR,
+-- and a "first last" search combines the first and last name indexes with a bitmap AND.
+CREATE INDEX idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX idx_users_first_name_prefix ON users (lower(first_name) text_pattern_ops);
+CREATE INDEX idx_users_last_name_prefix ON users (lower(last_name) text_pattern_ops);
+
+-- Department heads page through their department in username order; admins use the unique index on username
+CREATE INDEX idx_users_department_username ON users (department_id, username);
@@ -0,0 +1,8 @@
+-- A token ID can be revoked only once. Exchanging a refresh token inserts its revocation and is rejected when the
+-- insert conflicts, so two concurrent refreshes with the same token cannot both succeed.
+-- Revoking the same token twice was possible before, for example by logging out twice; keep the first row.
+DELETE FROM revoked_tokens r
+    USING revoked_tokens earlier
+    WHERE r.token_id = earlier.token_id AND r.id > earlier.id;
+
+CREATE UNIQUE INDEX uq_revoked_tokens_token_id ON revoked_tokens (token_id);
@@ -0,0 +1,21 @@
+-- The entities store enums by their Java names (@Enumerated(STRING)), and the seed data, JPQL filters and
+-- task_stats readers all use those uppercase names, while V1 declared the PostgreSQL enum types with lowercase
+-- labels. Renaming the labels makes the uppercase Java names the single convention: every writer binds or casts
+-- the uppercase name, and the task_stats trigger, which copies status::TEXT and priority::TEXT, now writes the
+-- same casing the TaskStats entity reads. Column defaults refer to the labels and follow the rename.
+ALTER TYPE task_priority RENAME VALUE 'low' TO 'LOW';
+ALTER TYPE task_priority RENAME VALUE 'medium' TO 'MEDIUM';
+ALTER TYPE task_priority RENAME VALUE 'high' TO 'HIGH';
+
+ALTER TYPE task_status RENAME VALUE 'pending' TO 'PENDING';
+ALTER TYPE task_status RENAME VALUE 'in_progress' TO 'IN_PROGRESS';
+ALTER TYPE task_status RENAME VALUE 'completed' TO 'COMPLETED';
+ALTER TYPE task_status RENAME VALUE 'delayed' TO 'DELAYED';
+
+ALTER TYPE user_role RENAME VALUE 'employee' TO 'EMPLOYEE';
+ALTER TYPE user_role RENAME VALUE 'department_head' TO 'DEPARTMENT_HEAD';
+ALTER TYPE user_role RENAME VALUE 'admin' TO 'ADMIN';
+
+-- Rows the trigger and the V4 seed wrote with the old labels
+UPDATE task_stats SET status = upper(status), priority = upper(priority)
+    WHERE status <> upper(status) OR priority <> upper(priority);
@@ -0,0 +1,5 @@
+-- Keyset indexes for the creation time sort order, which V5 left out of the department and employee views.
+-- Without them a page sorted by creation time filtered the scope's tasks and sorted them instead of reading
+-- one index range. The employee view's update time index already exists, from V9.
+CREATE INDEX idx_tasks_department_created_at_id ON tasks (department_id, created_at, id);
+CREATE INDEX idx_tasks_assigned_to_created_at_id ON tasks (assigned_to, created_at, id);
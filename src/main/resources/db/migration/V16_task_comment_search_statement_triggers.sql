@@ -0,0 +1,60 @@
+-- Keeps the comment part of the task search vectors current with statement-level triggers instead of V6's row trigger.
+-- The row trigger rebuilt the whole search document of a task, aggregating all its comments, once per changed comment,
+-- so adding or deleting the n comments of a task took time quadratic in n. A new comment is now appended to the vector
+-- of its task; updates and deletes rebuild each affected task once per statement, found through the transition tables.
+DROP TRIGGER trg_task_comment_search ON task_comments;
+DROP FUNCTION task_comment_search_trigger();
+
+CREATE FUNCTION task_comments_inserted_search_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE tasks t SET search_vector = COALESCE(t.search_vector, ''::TSVECTOR) || setweight(to_tsvector('english', n.comments), 'C')
+    FROM (SELECT task_id, string_agg(comment, ' ') AS comments FROM new_comments WHERE comment IS NOT NULL GROUP BY task_id) n
+    WHERE t.id = n.task_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION task_comments_changed_search_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        -- Only comments whose text or task changed; an update of other columns leaves the documents as they are
+        UPDATE tasks t SET search_vector = task_search_document(t.id, t.title, t.description)
+        WHERE t.id IN (SELECT o.task_id FROM old_comments o JOIN new_comments n ON n.id = o.id
+                       WHERE n.comment IS DISTINCT FROM o.comment OR n.task_id <> o.task_id
+                       UNION
+                       SELECT n.task_id FROM old_comments o JOIN new_comments n ON n.id = o.id
+                       WHERE n.comment IS DISTINCT FROM o.comment OR n.task_id <> o.task_id);
+    ELSE
+        UPDATE tasks t SET search_vector = task_search_document(t.id, t.title, t.description)
+        WHERE t.id IN (SELECT task_id FROM old_comments);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A trigger with transition tables can only fire on one event
+CREATE TRIGGER trg_task_comment_search_insert
+    AFTER INSERT ON task_comments
+    REFERENCING NEW TABLE AS new_comments
+    FOR EACH STATEMENT EXECUTE FUNCTION task_comments_inserted_search_trigger();
+
+CREATE TRIGGER trg_task_comment_search_update
+    AFTER UPDATE ON task_comments
+    REFERENCING OLD TABLE AS old_comments NEW TABLE AS new_comments
+    FOR EACH STATEMENT EXECUTE FUNCTION task_comments_changed_search_trigger();
+
+CREATE TRIGGER trg_task_comment_search_delete
+    AFTER DELETE ON task_comments
+    REFERENCING OLD TABLE AS old_comments
+    FOR EACH STATEMENT EXECUTE FUNCTION task_comments_changed_search_trigger();
+
+-- Same trigger as in V6. The title and description columns are written by statements that set them to their
+-- current values, such as the import upsert, so the WHEN clause keeps those from rebuilding the document.
+DROP TRIGGER trg_task_search_update ON tasks;
+CREATE TRIGGER trg_task_search_update
+    BEFORE UPDATE OF title, description ON tasks
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title OR OLD.description IS DISTINCT FROM NEW.description)
+    EXECUTE FUNCTION task_search_trigger();
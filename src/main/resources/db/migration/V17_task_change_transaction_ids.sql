@@ -0,0 +1,66 @@
+-- Delta sync of tasks (GET /api/tasks/changes) by commit order instead of by time.
+-- Every task write and every tombstone is stamped with the ID of the transaction that made it. The sync
+-- only reads stamps below the oldest transaction still running, pg_snapshot_xmin(pg_current_snapshot()):
+-- all transactions below it have ended, and any transaction that writes later gets a higher ID, so rows
+-- behind the cursor can no longer appear however long the transaction that wrote them ran.
+-- Transaction IDs are stored as BIGINT, which holds the 64-bit xid8 including its epoch.
+
+ALTER TABLE tasks ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks ALTER COLUMN change_xid DROP DEFAULT;
+
+ALTER TABLE task_tombstones ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE task_tombstones ALTER COLUMN change_xid DROP DEFAULT;
+
+CREATE INDEX idx_tasks_change_xid_id ON tasks (change_xid, id);
+CREATE INDEX idx_tasks_department_change_xid_id ON tasks (department_id, change_xid, id);
+CREATE INDEX idx_tasks_assigned_to_change_xid_id ON tasks (assigned_to, change_xid, id);
+-- The sync no longer reads update times. Employees sorting their own task list by update time sort the few
+-- tasks idx_tasks_assigned_to_id finds, which is not worth maintaining an index on every task write.
+DROP INDEX idx_tasks_assigned_to_updated_at_id;
+
+DROP INDEX idx_task_tombstones_deleted_removed_at_id;
+DROP INDEX idx_task_tombstones_department_removed_at_id;
+DROP INDEX idx_task_tombstones_assigned_to_removed_at_id;
+CREATE INDEX idx_task_tombstones_deleted_change_xid_id ON task_tombstones (change_xid, id) WHERE deleted;
+CREATE INDEX idx_task_tombstones_department_change_xid_id ON task_tombstones (department_id, change_xid, id);
+CREATE INDEX idx_task_tombstones_assigned_to_change_xid_id ON task_tombstones (assigned_to, change_xid, id);
+-- Used by the nightly purge of old tombstones
+CREATE INDEX idx_task_tombstones_removed_at ON task_tombstones (removed_at);
+
+-- Every change the sync reports moves updated_at: entity saves, bulk statements and the import all set it.
+-- Updates that only maintain derived columns, like the comment triggers on search_vector, are not reported.
+CREATE FUNCTION task_change_xid_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::TEXT::BIGINT;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_change_xid_insert
+    BEFORE INSERT ON tasks
+    FOR EACH ROW EXECUTE FUNCTION task_change_xid_trigger();
+
+CREATE TRIGGER trg_task_change_xid_update
+    BEFORE UPDATE OF updated_at ON tasks
+    FOR EACH ROW
+    WHEN (OLD.updated_at IS DISTINCT FROM NEW.updated_at)
+    EXECUTE FUNCTION task_change_xid_trigger();
+
+CREATE OR REPLACE FUNCTION task_tombstones_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO task_tombstones (task_id, department_id, assigned_to, deleted, removed_at, change_xid)
+        VALUES (OLD.id, OLD.department_id, OLD.assigned_to, TRUE, clock_timestamp()::TIMESTAMP,
+                pg_current_xact_id()::TEXT::BIGINT);
+    ELSE
+        INSERT INTO task_tombstones (task_id, department_id, assigned_to, deleted, removed_at, change_xid)
+        VALUES (OLD.id,
+                CASE WHEN OLD.department_id IS DISTINCT FROM NEW.department_id THEN OLD.department_id END,
+                CASE WHEN OLD.assigned_to IS DISTINCT FROM NEW.assigned_to THEN OLD.assigned_to END,
+                FALSE, clock_timestamp()::TIMESTAMP, pg_current_xact_id()::TEXT::BIGINT);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
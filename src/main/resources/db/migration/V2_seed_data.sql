@@ -24,42 +24,48 @@ VALUES (1, 10, 'System Administration, Security, IT Management', 'SENIOR'),
        (16, 4, 'Payroll, HR Software', 'MID_LEVEL'),
        (17, 5, 'Talent Acquisition', 'MID_LEVEL'),
        (18, 9, 'HR Strategy, Compliance', 'SENIOR'),
-       (19, 10, 'Organizational Development', 'SENIOR');
+       (19, 10, 'Organizational Development', 'SENIOR'),
+       (20, 1, 'Bookkeeping, Excel', 'JUNIOR'),
+       (21, 2, 'Accounts Payable, Invoicing', 'JUNIOR'),
+       (22, 4, 'Budgeting, Financial Reporting', 'MID_LEVEL'),
+       (23, 5, 'Tax Accounting, Reconciliation', 'MID_LEVEL'),
+       (24, 8, 'Financial Planning, Forecasting', 'SENIOR'),
+       (25, 9, 'Treasury, Controlling', 'SENIOR');
 
 -- 3) Users
 INSERT INTO users (id, username, password, email, role, first_name, last_name, created_at, updated_at, department_id,
                    qualification_id, last_login)
-VALUES (0, 'admin2', '—hash—', 'admin2@example.com', 'ADMIN', NULL, NULL, NOW(), NOW(), 1, 0,
+VALUES (0, 'admin2', '—hash—', 'admin2@example.com', 'admin', NULL, NULL, NOW(), NOW(), 1, NULL,
         '2025-02-13 12:02:25.551574'),
-       (1, 'admin_1', '—hash—', 'admin@example.com', 'ADMIN', 'Alex', 'Johnson', NOW(), NOW(), 1, 1,
+       (1, 'admin_1', '—hash—', 'admin@example.com', 'admin', 'Alex', 'Johnson', NOW(), NOW(), 1, 1,
         '2025-02-13 12:29:25.676306'),
-       (2, 'it_head_1', '—hash—', 'it.head1@example.com', 'DEPARTMENT_HEAD', 'John', 'Smith', NOW(), NOW(), 1, 2, NULL),
-       (3, 'it_head_2', '—hash—', 'it.head2@example.com', 'DEPARTMENT_HEAD', 'Jane', 'Brown', NOW(), NOW(), 1, 3, NULL),
-       (4, 'hr_head_1', '—hash—', 'hr.head1@example.com', 'DEPARTMENT_HEAD', 'Emily', 'Davis', NOW(), NOW(), 2, 4,
+       (2, 'it_head_1', '—hash—', 'it.head1@example.com', 'department_head', 'John', 'Smith', NOW(), NOW(), 1, 2, NULL),
+       (3, 'it_head_2', '—hash—', 'it.head2@example.com', 'department_head', 'Jane', 'Brown', NOW(), NOW(), 1, 3, NULL),
+       (4, 'hr_head_1', '—hash—', 'hr.head1@example.com', 'department_head', 'Emily', 'Davis', NOW(), NOW(), 2, 4,
         NULL),
-       (5, 'hr_head_2', '—hash—', 'hr.head2@example.com', 'DEPARTMENT_HEAD', 'Michael', 'Wilson', NOW(), NOW(), 2, 5,
+       (5, 'hr_head_2', '—hash—', 'hr.head2@example.com', 'department_head', 'Michael', 'Wilson', NOW(), NOW(), 2, 5,
         NULL),
-       (6, 'fin_head_1', '—hash—', 'fin.head1@example.com', 'DEPARTMENT_HEAD', 'David', 'Garcia', NOW(), NOW(), 3, 6,
+       (6, 'fin_head_1', '—hash—', 'fin.head1@example.com', 'department_head', 'David', 'Garcia', NOW(), NOW(), 3, 6,
         NULL),
-       (7, 'fin_head_2', '—hash—', 'fin.head2@example.com', 'DEPARTMENT_HEAD', 'Sarah', 'Miller', NOW(), NOW(), 3, 7,
+       (7, 'fin_head_2', '—hash—', 'fin.head2@example.com', 'department_head', 'Sarah', 'Miller', NOW(), NOW(), 3, 7,
         NULL),
-       (8, 'dev_senior_1', '—hash—', 'dev.senior1@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 1, 8, NULL),
-       (9, 'dev_senior_2', '—hash—', 'dev.senior2@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 1, 9, NULL),
-       (10, 'dev_mid_1', '—hash—', 'dev.mid1@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 1, 10, NULL),
-       (11, 'dev_mid_2', '—hash—', 'dev.mid2@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 1, 11, NULL),
-       (12, 'dev_senior_3', '—hash—', 'dev.senior3@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 1, 12, NULL),
-       (13, 'hr_junior_1', '—hash—', 'hr.junior1@example.com', 'JUNIOR', NULL, NULL, NOW(), NOW(), 2, 14, NULL),
-       (14, 'hr_junior_2', '—hash—', 'hr.junior2@example.com', 'JUNIOR', NULL, NULL, NOW(), NOW(), 2, 15, NULL),
-       (15, 'hr_mid_1', '—hash—', 'hr.mid1@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 2, 16, NULL),
-       (16, 'hr_mid_2', '—hash—', 'hr.mid2@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 2, 17, NULL),
-       (17, 'hr_senior_1', '—hash—', 'hr.senior1@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 2, 18, NULL),
-       (18, 'hr_senior_2', '—hash—', 'hr.senior2@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 2, 19, NULL),
-       (19, 'fin_junior_1', '—hash—', 'fin.junior1@example.com', 'JUNIOR', NULL, NULL, NOW(), NOW(), 3, 20, NULL),
-       (20, 'fin_junior_2', '—hash—', 'fin.junior2@example.com', 'JUNIOR', NULL, NULL, NOW(), NOW(), 3, 21, NULL),
-       (21, 'fin_mid_1', '—hash—', 'fin.mid1@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 3, 22, NULL),
-       (22, 'fin_mid_2', '—hash—', 'fin.mid2@example.com', 'MID_LEVEL', NULL, NULL, NOW(), NOW(), 3, 23, NULL),
-       (23, 'fin_senior_1', '—hash—', 'fin.senior1@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 3, 24, NULL),
-       (24, 'fin_senior_2', '—hash—', 'fin.senior2@example.com', 'SENIOR', NULL, NULL, NOW(), NOW(), 3, 25, NULL);
+       (8, 'dev_senior_1', '—hash—', 'dev.senior1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 1, 8, NULL),
+       (9, 'dev_senior_2', '—hash—', 'dev.senior2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 1, 9, NULL),
+       (10, 'dev_mid_1', '—hash—', 'dev.mid1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 1, 10, NULL),
+       (11, 'dev_mid_2', '—hash—', 'dev.mid2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 1, 11, NULL),
+       (12, 'dev_senior_3', '—hash—', 'dev.senior3@example.com', 'employee', NULL, NULL, NOW(), NOW(), 1, 12, NULL),
+       (13, 'hr_junior_1', '—hash—', 'hr.junior1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 14, NULL),
+       (14, 'hr_junior_2', '—hash—', 'hr.junior2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 15, NULL),
+       (15, 'hr_mid_1', '—hash—', 'hr.mid1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 16, NULL),
+       (16, 'hr_mid_2', '—hash—', 'hr.mid2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 17, NULL),
+       (17, 'hr_senior_1', '—hash—', 'hr.senior1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 18, NULL),
+       (18, 'hr_senior_2', '—hash—', 'hr.senior2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 2, 19, NULL),
+       (19, 'fin_junior_1', '—hash—', 'fin.junior1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 20, NULL),
+       (20, 'fin_junior_2', '—hash—', 'fin.junior2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 21, NULL),
+       (21, 'fin_mid_1', '—hash—', 'fin.mid1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 22, NULL),
+       (22, 'fin_mid_2', '—hash—', 'fin.mid2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 23, NULL),
+       (23, 'fin_senior_1', '—hash—', 'fin.senior1@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 24, NULL),
+       (24, 'fin_senior_2', '—hash—', 'fin.senior2@example.com', 'employee', NULL, NULL, NOW(), NOW(), 3, 25, NULL);
 
 -- 4) Tasks
 INSERT INTO tasks (id, title, description, priority, status, due_date, assigned_to, created_at, updated_at,
@@ -83,4 +89,10 @@ VALUES (1, 'Develop New API', 'Create and document REST API.', 'high', 'in_progr
        (9, 'Organize Training Program', 'Plan employee development training.', 'medium', 'pending', '2025-05-20', 16,
         NOW(), NOW(), 'MID_LEVEL', 2),
        (10, 'Onboard New Employees', 'Onboard new employees and provide orientation.', 'medium', 'pending',
-        '2025-05-25', 17, NOW(), NOW(), 'MID_LEVEL', 2);
\ No newline at end of file
+        '2025-05-25', 17, NOW(), NOW(), 'MID_LEVEL', 2);
+
+-- 5) The rows above were inserted with explicit IDs, which do not advance the identity sequences
+SELECT setval(pg_get_serial_sequence('departments', 'id'), (SELECT MAX(id) FROM departments));
+SELECT setval(pg_get_serial_sequence('qualifications', 'id'), (SELECT MAX(id) FROM qualifications));
+SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users));
+SELECT setval(pg_get_serial_sequence('tasks', 'id'), (SELECT MAX(id) FROM tasks));
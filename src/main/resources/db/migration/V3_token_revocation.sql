@@ -0,0 +1,12 @@
+-- Table revoked_tokens
+CREATE TABLE revoked_tokens (
+                        id         INTEGER PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+                        token_id   VARCHAR(64),
+                        user_id    INTEGER,
+                        revoked_at TIMESTAMP NOT NULL,
+                        expires_at TIMESTAMP NOT NULL
+);
+
+-- Incremental sync reads recent revocations, cleanup drops expired ones
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
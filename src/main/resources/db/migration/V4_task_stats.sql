@@ -0,0 +1,55 @@
+-- Table task_stats: task counts per (department, assignee, status, priority),
+-- maintained by a trigger in the same transaction as every change to tasks
+CREATE TABLE task_stats (
+                        id            INTEGER PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+                        department_id INTEGER,
+                        assigned_to   INTEGER,
+                        status        VARCHAR(20) NOT NULL,
+                        priority      VARCHAR(20) NOT NULL,
+                        task_count    INTEGER     NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX ux_task_stats_key ON task_stats (COALESCE(department_id, -1), COALESCE(assigned_to, -1), status, priority);
+CREATE INDEX idx_task_stats_assigned_to ON task_stats (assigned_to);
+CREATE INDEX idx_task_stats_department_id ON task_stats (department_id);
+
+-- Adds a delta to one task_stats row, creating the row if needed
+CREATE FUNCTION task_stats_apply(p_department_id INTEGER, p_assigned_to INTEGER, p_status VARCHAR, p_priority VARCHAR, p_delta INTEGER)
+    RETURNS VOID AS $$
+BEGIN
+    INSERT INTO task_stats (department_id, assigned_to, status, priority, task_count)
+    VALUES (p_department_id, p_assigned_to, p_status, p_priority, p_delta)
+    ON CONFLICT (COALESCE(department_id, -1), COALESCE(assigned_to, -1), status, priority)
+        DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION task_stats_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.department_id IS NOT DISTINCT FROM NEW.department_id
+        AND OLD.assigned_to IS NOT DISTINCT FROM NEW.assigned_to
+        AND OLD.status = NEW.status
+        AND OLD.priority = NEW.priority THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM task_stats_apply(OLD.department_id, OLD.assigned_to, OLD.status::TEXT, OLD.priority::TEXT, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM task_stats_apply(NEW.department_id, NEW.assigned_to, NEW.status::TEXT, NEW.priority::TEXT, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_stats
+    AFTER INSERT OR UPDATE OR DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION task_stats_trigger();
+
+-- Initial contents for existing tasks
+INSERT INTO task_stats (department_id, assigned_to, status, priority, task_count)
+SELECT department_id, assigned_to, status::TEXT, priority::TEXT, COUNT(*)
+FROM tasks
+GROUP BY department_id, assigned_to, status, priority;
@@ -0,0 +1,27 @@
+-- Composite indexes for keyset pagination of GET /api/tasks.
+-- Each index starts with the equality filters of a common list view and ends with the sort key
+-- and the task ID, so a page is read as one contiguous index range of page-size entries.
+-- Tasks without a due date are indexed under DATE '9999-12-31', the sort key the queries use for them.
+
+-- Admin views: whole table, optionally by status and priority
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+CREATE INDEX idx_tasks_updated_at_id ON tasks (updated_at, id);
+CREATE INDEX idx_tasks_due_date_key_id ON tasks (COALESCE(due_date, DATE '9999-12-31'), id);
+CREATE INDEX idx_tasks_status_priority_id ON tasks (status, priority, id);
+
+-- Department head views
+CREATE INDEX idx_tasks_department_id_id ON tasks (department_id, id);
+CREATE INDEX idx_tasks_department_status_id ON tasks (department_id, status, id);
+CREATE INDEX idx_tasks_department_due_date_key_id ON tasks (department_id, COALESCE(due_date, DATE '9999-12-31'), id);
+CREATE INDEX idx_tasks_department_updated_at_id ON tasks (department_id, updated_at, id);
+
+-- Employee views
+CREATE INDEX idx_tasks_assigned_to_id ON tasks (assigned_to, id);
+CREATE INDEX idx_tasks_assigned_to_status_id ON tasks (assigned_to, status, id);
+CREATE INDEX idx_tasks_assigned_to_due_date_key_id ON tasks (assigned_to, COALESCE(due_date, DATE '9999-12-31'), id);
+
+-- Timestamps are always set by the application; make that explicit so the sort keys are never null
+UPDATE tasks SET created_at = COALESCE(created_at, CURRENT_TIMESTAMP), updated_at = COALESCE(updated_at, created_at, CURRENT_TIMESTAMP)
+WHERE created_at IS NULL OR updated_at IS NULL;
+ALTER TABLE tasks ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE tasks ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1,52 @@
+-- Full-text search over tasks: one tsvector per task covering its title, description and comments,
+-- kept current by triggers on tasks and task_comments and searched through a GIN index
+ALTER TABLE tasks ADD COLUMN search_vector TSVECTOR;
+
+-- Builds the search document of a task; title matches rank above description matches, which rank above comment matches
+CREATE FUNCTION task_search_document(p_task_id INTEGER, p_title VARCHAR, p_description TEXT)
+    RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('english', COALESCE(p_title, '')), 'A')
+        || setweight(to_tsvector('english', COALESCE(p_description, '')), 'B')
+        || setweight(to_tsvector('english', COALESCE((SELECT string_agg(c.comment, ' ') FROM task_comments c WHERE c.task_id = p_task_id), '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE FUNCTION task_search_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := task_search_document(NEW.id, NEW.title, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_search_insert
+    BEFORE INSERT ON tasks
+    FOR EACH ROW EXECUTE FUNCTION task_search_trigger();
+
+-- Hibernate writes every column on update, so only recompute when the text actually changed
+CREATE TRIGGER trg_task_search_update
+    BEFORE UPDATE OF title, description ON tasks
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title OR OLD.description IS DISTINCT FROM NEW.description)
+    EXECUTE FUNCTION task_search_trigger();
+
+CREATE FUNCTION task_comment_search_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE tasks SET search_vector = task_search_document(id, title, description) WHERE id = OLD.task_id;
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.task_id <> OLD.task_id) THEN
+        UPDATE tasks SET search_vector = task_search_document(id, title, description) WHERE id = NEW.task_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_comment_search
+    AFTER INSERT OR UPDATE OF task_id, comment OR DELETE ON task_comments
+    FOR EACH ROW EXECUTE FUNCTION task_comment_search_trigger();
+
+-- Initial contents for existing tasks
+UPDATE tasks SET search_vector = task_search_document(id, title, description);
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
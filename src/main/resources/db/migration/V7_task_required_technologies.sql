@@ -0,0 +1,2 @@
+-- Optional technologies a task requires, as a comma-separated list like qualifications.technologies
+ALTER TABLE tasks ADD COLUMN required_technologies TEXT;
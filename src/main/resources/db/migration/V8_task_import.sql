@@ -0,0 +1,15 @@
+-- Bulk task import: tasks can carry the ID they had in the system they were imported from,
+-- so importing the same file again updates those tasks instead of duplicating them
+ALTER TABLE tasks ADD COLUMN external_ref VARCHAR(100);
+CREATE UNIQUE INDEX ux_tasks_external_ref ON tasks (external_ref) WHERE external_ref IS NOT NULL;
+
+-- Tells whether a text is a valid ISO date, so imported rows can be validated without aborting the statement
+CREATE FUNCTION task_import_is_date(p_value TEXT)
+    RETURNS BOOLEAN AS $$
+BEGIN
+    PERFORM p_value::DATE;
+    RETURN p_value ~ '^\d{4}-\d{2}-\d{2}$';
+EXCEPTION WHEN others THEN
+    RETURN FALSE;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
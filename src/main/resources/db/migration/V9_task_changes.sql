@@ -0,0 +1,51 @@
+-- Delta sync of tasks (GET /api/tasks/changes): changed tasks are found by their updated_at,
+-- and tasks that disappeared from a scope leave a tombstone behind.
+
+-- Employee view of recently changed tasks; the admin and department head views use the V5 indexes
+CREATE INDEX idx_tasks_assigned_to_updated_at_id ON tasks (assigned_to, updated_at, id);
+
+-- Table task_tombstones: one row per task that was deleted, or that left a department or an assignee.
+-- department_id and assigned_to hold the scope the task left, null where that part of the scope is unchanged.
+CREATE TABLE task_tombstones (
+                        id            INTEGER PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY,
+                        task_id       INTEGER   NOT NULL,
+                        department_id INTEGER,
+                        assigned_to   INTEGER,
+                        deleted       BOOLEAN   NOT NULL,
+                        removed_at    TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_task_tombstones_deleted_removed_at_id ON task_tombstones (removed_at, id) WHERE deleted;
+CREATE INDEX idx_task_tombstones_department_removed_at_id ON task_tombstones (department_id, removed_at, id);
+CREATE INDEX idx_task_tombstones_assigned_to_removed_at_id ON task_tombstones (assigned_to, removed_at, id);
+
+-- Written by a trigger so that every path that deletes or moves tasks leaves tombstones,
+-- including bulk statements that bypass the application. clock_timestamp() rather than the
+-- transaction start keeps removed_at close to the commit time the sync cursor relies on.
+CREATE FUNCTION task_tombstones_trigger()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO task_tombstones (task_id, department_id, assigned_to, deleted, removed_at)
+        VALUES (OLD.id, OLD.department_id, OLD.assigned_to, TRUE, clock_timestamp()::TIMESTAMP);
+    ELSE
+        INSERT INTO task_tombstones (task_id, department_id, assigned_to, deleted, removed_at)
+        VALUES (OLD.id,
+                CASE WHEN OLD.department_id IS DISTINCT FROM NEW.department_id THEN OLD.department_id END,
+                CASE WHEN OLD.assigned_to IS DISTINCT FROM NEW.assigned_to THEN OLD.assigned_to END,
+                FALSE, clock_timestamp()::TIMESTAMP);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_tombstones_delete
+    AFTER DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION task_tombstones_trigger();
+
+CREATE TRIGGER trg_task_tombstones_move
+    AFTER UPDATE OF department_id, assigned_to ON tasks
+    FOR EACH ROW
+    WHEN ((OLD.department_id IS NOT NULL AND OLD.department_id IS DISTINCT FROM NEW.department_id)
+        OR (OLD.assigned_to IS NOT NULL AND OLD.assigned_to IS DISTINCT FROM NEW.assigned_to))
+    EXECUTE FUNCTION task_tombstones_trigger();
@@ -0,0 +1,36 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.service.TokenRevocationService;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Base of the integration tests, which call the API through MockMvc against the in-memory database.
+ * The configuration is the same for every subclass, so they all share one application context and its database;
+ * each test class creates its own users and departments with {@link TestData} and only asserts on those.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@Import(TestData.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class IntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected TestData testData;
+
+    // Keeps the scheduled revocation sync from issuing statements while a request is measured
+    @MockitoBean
+    protected TokenRevocationService tokenRevocationService;
+}
@@ -0,0 +1,219 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.dto.TaskPatch;
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.event.TaskChangedEvent;
+import com.example.taskmanager.exception.PreconditionFailedException;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that concurrent task edits are neither lost nor serialized by locks.
+ * An edit made with an outdated If-Match is refused with 412 Precondition Failed, an edit overtaken by another one
+ * committing while it is in progress is refused with 409 Conflict, and an edit of one task is not held up
+ * by an open transaction that changed another.
+ */
+class OptimisticLockingTests extends IntegrationTest {
+
+    private static final int TASKS = 4;
+    // Clients all editing the same task
+    private static final int HOT_CLIENTS = 4;
+    private static final int HOT_SESSIONS_PER_CLIENT = 25;
+    private static final String ADMIN = "optimistic_locking_admin";
+    private static final String COUNTER = "count:";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Integer> taskIds = new ArrayList<>();
+
+    @BeforeAll
+    void createDataset() {
+        Department department = testData.department("Optimistic locking");
+        User admin = testData.user(ADMIN, User.UserRole.ADMIN, department);
+        for (int t = 0; t < TASKS; t++) {
+            Task task = testData.newTask(COUNTER + 0, admin, LocalDate.now().plusDays(7));
+            task.setAssignedTo(null);
+            taskIds.add(taskRepository.save(task).getId());
+        }
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String uri = "/api/tasks/" + taskIds.get(0);
+        String eTag = readETag(uri);
+
+        MockHttpServletResponse first = edit(uri, eTag, "{\"status\":\"IN_PROGRESS\"}");
+        assertEquals(200, first.getStatus());
+        String newETag = first.getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        assertEquals(412, edit(uri, eTag, "{\"status\":\"COMPLETED\"}").getStatus());
+        mockMvc.perform(get(uri).with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newETag));
+    }
+
+    @Test
+    void editOvertakenWhileInProgressIsRejected() throws Exception {
+        String uri = "/api/tasks/" + taskIds.get(1);
+        String eTag = readETag(uri);
+        AtomicBoolean overtaken = new AtomicBoolean();
+        AtomicReference<MockHttpServletResponse> competing = new AtomicReference<>();
+        // Once the second writer has passed the If-Match check, the first writer commits with the same ETag
+        ApplicationListener<ApplicationEvent> firstWriter = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof TaskChangedEvent
+                    && overtaken.compareAndSet(false, true)) {
+                competing.set(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return edit(uri, eTag, "{\"status\":\"IN_PROGRESS\"}");
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }).join());
+            }
+        };
+
+        applicationContext.addApplicationListener(firstWriter);
+        MockHttpServletResponse second;
+        try {
+            second = edit(uri, eTag, "{\"status\":\"COMPLETED\"}");
+        } finally {
+            applicationContext.removeApplicationListener(firstWriter);
+        }
+
+        assertEquals(200, competing.get().getStatus());
+        assertEquals(409, second.getStatus());
+        mockMvc.perform(get(uri).with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, competing.get().getHeader(HttpHeaders.ETAG)));
+    }
+
+    @Test
+    void editOfAnotherTaskIsNotBlocked() {
+        String uri = "/api/tasks/" + taskIds.get(3);
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            // Writes and keeps the row of one task locked until the transaction ends
+            taskService.patchTask(taskIds.get(2), new TaskPatch(Task.TaskStatus.IN_PROGRESS, null, null, null, null, null), null);
+            entityManager.flush();
+
+            // On another thread, so the request does not join this transaction
+            MockHttpServletResponse response = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> edit(uri, readETag(uri), "{\"status\":\"IN_PROGRESS\"}"));
+            assertEquals(200, response.getStatus());
+            transaction.setRollbackOnly();
+        });
+        assertEquals(Task.TaskStatus.PENDING, taskRepository.findById(taskIds.get(2)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void hotTaskLosesNoUpdates() throws Exception {
+        Integer taskId = taskIds.get(TASKS - 1);
+        int before = counter(taskRepository.findById(taskId).orElseThrow());
+        ExecutorService clients = Executors.newFixedThreadPool(HOT_CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < HOT_CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int s = 0; s < HOT_SESSIONS_PER_CLIENT; s++) {
+                        incrementCounter(taskId);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        assertEquals(HOT_CLIENTS * HOT_SESSIONS_PER_CLIENT, counter(taskRepository.findById(taskId).orElseThrow()) - before,
+                "Lost updates");
+    }
+
+    private void incrementCounter(Integer taskId) {
+        while (true) {
+            Task task = taskService.getTaskById(taskId);
+            String eTag = taskService.getTaskETag(task);
+            try {
+                taskService.patchTask(taskId, new TaskPatch(null, null, COUNTER + (counter(task) + 1), null, null, null), eTag);
+                return;
+            } catch (PreconditionFailedException | ConcurrencyFailureException e) {
+                // Somebody else won; read again
+            }
+        }
+    }
+
+    private String readETag(String uri) throws Exception {
+        String eTag = mockMvc.perform(get(uri).with(admin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private MockHttpServletResponse edit(String uri, String eTag, String body) throws Exception {
+        return mockMvc.perform(patch(uri).with(admin()).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse();
+    }
+
+    private static int counter(Task task) {
+        return Integer.parseInt(task.getTitle().substring(COUNTER.length()));
+    }
+
+    private static RequestPostProcessor admin() {
+        return user(ADMIN).authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.NotificationRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that task and user patches are validated like the entities they change: an invalid field is answered
+ * with 400 Bad Request and leaves the entity and the admins' notifications untouched, while fields left out stay valid.
+ */
+class PatchValidationTests extends IntegrationTest {
+
+    private static final String ADMIN = "patch_validation_admin";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private User admin;
+    private User employee;
+    private Integer taskId;
+
+    @BeforeAll
+    void createDataset() {
+        Department department = testData.department("Patch validation");
+        admin = testData.user(ADMIN, User.UserRole.ADMIN, department);
+        employee = testData.user("patch_validation_employee", User.UserRole.EMPLOYEE, department);
+        taskId = testData.tasks(employee, LocalDate.now().plusDays(5), 1).get(0);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "{\"title\":\"\"} | Title required",
+            "{\"title\":\"   \"} | Title required",
+            "{\"title\":\"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\"} | Size must be between 1 and 100 characters"
+    })
+    void invalidTaskPatchIsRejected(String body, String error) throws Exception {
+        int notifications = notificationRepository.findByUser(admin).size();
+        mockMvc.perform(patch("/api/tasks/" + taskId).with(admin()).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString(error)));
+        assertEquals("Task 0 of patch_validation_employee", taskRepository.findById(taskId).orElseThrow().getTitle());
+        assertEquals(notifications, notificationRepository.findByUser(admin).size());
+
+        mockMvc.perform(patch("/api/tasks/" + taskId).with(admin()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "{\"username\":\" \"}",
+            "{\"username\":\"ab\"}",
+            "{\"email\":\"not an address\"}",
+            "{\"password\":\"12345\"}",
+            "{\"qualification\":{\"qualification\":\"JUNIOR\",\"experienceYears\":-1}}"
+    })
+    void invalidUserPatchIsRejected(String body) throws Exception {
+        mockMvc.perform(patch("/api/users/" + employee.getId()).with(admin()).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RequestPostProcessor admin() {
+        return user(ADMIN).authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+}
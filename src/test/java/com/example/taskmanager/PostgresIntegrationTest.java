@@ -0,0 +1,45 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base of the integration tests of features built on PostgreSQL itself, like transaction IDs, COPY and full-text
+ * search, which the in-memory database cannot stand in for. The schema is created by the Flyway migrations.
+ * The container is a bean of the shared application context, so it is started once for all subclasses
+ * and stopped with the context; without Docker the tests are skipped.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestData.class, PostgresIntegrationTest.Postgres.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class PostgresIntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected TestData testData;
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Postgres {
+
+        @Bean
+        @ServiceConnection
+        PostgreSQLContainer<?> postgres() {
+            return new PostgreSQLContainer<>("postgres:16-alpine");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.SkillIndex;
+import com.example.taskmanager.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the skill index only sees changes to users once the transaction that made them has committed.
+ */
+class SkillIndexTests extends IntegrationTest {
+
+    @Autowired
+    private SkillIndex skillIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void changeIsIndexedOnCommit() {
+        Department department = testData.department("Skill index commit");
+        User employee = testData.user("skill_index_commit", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        skillIndex.rebuild();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            learnKotlin(employee.getId());
+            assertFalse(isCandidate(employee, "Kotlin"), "Indexed before commit");
+        });
+
+        assertTrue(isCandidate(employee, "Kotlin"));
+        assertFalse(isCandidate(employee, "Java"));
+    }
+
+    @Test
+    void rolledBackChangeIsNotIndexed() {
+        Department department = testData.department("Skill index rollback");
+        User employee = testData.user("skill_index_rollback", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        skillIndex.rebuild();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            learnKotlin(employee.getId());
+            transaction.setRollbackOnly();
+        });
+
+        assertFalse(isCandidate(employee, "Kotlin"));
+        assertTrue(isCandidate(employee, "Java"));
+    }
+
+    private void learnKotlin(Integer userId) {
+        User user = userRepository.findById(userId).orElseThrow();
+        user.getQualification().setTechnologies("Kotlin");
+        userService.saveProfile(user);
+    }
+
+    private boolean isCandidate(User employee, String technologies) {
+        return skillIndex.findCandidates(employee.getDepartment().getId(), Qualification.QualificationType.JUNIOR, technologies)
+                .get(employee.getId());
+    }
+}
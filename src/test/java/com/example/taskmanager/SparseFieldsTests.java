@@ -0,0 +1,156 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.NotificationRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the {@code fields} parameter narrows both the response and the query behind it.
+ * Tasks carry long descriptions, so reading or writing a description shows up in the payload size.
+ */
+class SparseFieldsTests extends IntegrationTest {
+
+    private static final int TASKS = 60;
+    private static final int DESCRIPTION_LENGTH = 8_000;
+    private static final String ADMIN = "sparse_fields_admin";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private Integer departmentId;
+    private Integer taskId;
+
+    @BeforeAll
+    void createDataset() {
+        Department department = testData.department("Mobile");
+        departmentId = department.getId();
+        User admin = testData.user(ADMIN, User.UserRole.ADMIN, department);
+
+        String description = "x".repeat(DESCRIPTION_LENGTH);
+        for (int t = 0; t < TASKS; t++) {
+            Task task = testData.newTask("Task " + t, admin, LocalDate.now().plusDays(t % 7));
+            task.setDescription(description);
+            taskId = taskRepository.save(task).getId();
+        }
+
+        for (int n = 0; n < 3; n++) {
+            notificationRepository.save(new Notification(admin, "Notification " + n, n == 0, LocalDateTime.now(),
+                    Notification.NotificationType.TASK, taskId));
+        }
+    }
+
+    @Test
+    void taskDetailReadsOnlyRequestedColumns() throws Exception {
+        String uri = "/api/tasks/" + taskId;
+        String fields = "?fields=id,title,status,dueDate";
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String sparse = fetch(uri + fields);
+        for (String query : statistics.getQueries()) {
+            assertFalse(query.contains("description"), "Sparse request read the description: " + query);
+        }
+
+        JsonNode task = objectMapper.readTree(sparse);
+        assertEquals(List.of("id", "title", "status", "dueDate"), fieldNames(task));
+        assertEquals(taskId.intValue(), task.get("id").asInt());
+
+        String full = fetch(uri);
+        assertTrue(sparse.length() * 20 < full.length(), "Sparse " + sparse.length() + " bytes, full " + full.length() + " bytes");
+    }
+
+    @Test
+    void taskListKeepsPagingWithSparseFields() throws Exception {
+        Set<Integer> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String uri = "/api/tasks?department=" + departmentId + "&sort=dueDate&limit=25&fields=title" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(fetch(uri));
+            for (JsonNode item : page.get("items")) {
+                assertEquals(List.of("title"), fieldNames(item));
+                assertTrue(seen.add(Integer.valueOf(item.get("title").asText().substring("Task ".length()))));
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(TASKS, seen.size());
+        assertEquals(3, pages);
+        String list = "/api/tasks?department=" + departmentId + "&limit=200";
+        String full = fetch(list);
+        String sparse = fetch(list + "&fields=id,title,status,dueDate");
+        assertTrue(sparse.length() * 2 < full.length(), "Sparse " + sparse.length() + " bytes, full " + full.length() + " bytes");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "/api/users?fields=id,username | id,username",
+            "/api/notifications?fields=id,message,read | id,message,read",
+            "/api/notifications/unread?fields=message | message"
+    })
+    void listsReturnOnlyRequestedFields(String uri, String expected) throws Exception {
+        JsonNode items = objectMapper.readTree(fetch(uri));
+        assertFalse(items.isEmpty());
+        for (JsonNode item : items) {
+            assertEquals(List.of(expected.split(",")), fieldNames(item));
+        }
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/users?fields=id,password").with(admin()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String fetch(String uri) throws Exception {
+        return mockMvc.perform(get(uri).with(admin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static RequestPostProcessor admin() {
+        return user(ADMIN).authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
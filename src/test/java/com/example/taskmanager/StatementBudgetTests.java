@@ -0,0 +1,95 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.TaskCommentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements the read endpoints issue.
+ * Each endpoint is called as an admin against a dataset with many users and tasks, and must stay within a fixed
+ * statement budget that does not grow with the number of rows, so an N+1 query pattern fails the build.
+ */
+class StatementBudgetTests extends IntegrationTest {
+
+    private static final int USERS_PER_DEPARTMENT = 10;
+    private static final int TASKS_PER_USER = 5;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCommentRepository taskCommentRepository;
+
+    private Integer departmentId;
+    private Integer taskId;
+
+    @BeforeAll
+    void createDataset() {
+        List<Department> departments = new ArrayList<>();
+        for (int d = 0; d < 2; d++) {
+            departments.add(testData.department("Department " + d));
+        }
+        departmentId = departments.get(0).getId();
+        testData.user("admin", User.UserRole.ADMIN, departments.get(0), Qualification.QualificationType.JUNIOR);
+
+        for (Department department : departments) {
+            for (int u = 0; u < USERS_PER_DEPARTMENT; u++) {
+                User employee = testData.user(department.getName().replace(' ', '_') + "_user" + u, User.UserRole.EMPLOYEE,
+                        department, Qualification.QualificationType.JUNIOR);
+                for (int t = 0; t < TASKS_PER_USER; t++) {
+                    Task task = testData.newTask("Task " + t + " of " + employee.getUsername(), employee, LocalDate.now().minusDays(t));
+                    task.setDescription("Description");
+                    task.setPriority(t % 2 == 0 ? Task.TaskPriority.HIGH : Task.TaskPriority.LOW);
+                    task = taskRepository.save(task);
+                    taskCommentRepository.save(new TaskComment(task, "First comment"));
+                    taskCommentRepository.save(new TaskComment(task, "Second comment"));
+                    taskId = task.getId();
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0} within {1} statements")
+    @CsvSource({
+            "/api/tasks, 4",
+            "/api/tasks?sort=dueDate&limit=200, 4",
+            "/api/tasks/{taskId}, 1",
+            "/api/users, 4",
+            "/api/users/directory?limit=100, 4",
+            "/api/users/directory?q=department_1, 4",
+            "/api/departments/{departmentId}/tasks, 2",
+            "/api/departments/{departmentId}/users, 2",
+            "/api/user/dashboard, 8"
+    })
+    void staysWithinStatementBudget(String path, int budget) throws Exception {
+        String uri = path.replace("{taskId}", taskId.toString()).replace("{departmentId}", departmentId.toString());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(uri).with(user("admin").authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget, uri + " issued " + statements + " SQL statements, budget is " + budget);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.NotificationRepository;
+import com.example.taskmanager.repository.TaskCommentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskCube;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that bulk task operations stay within the user's scope, change tasks with a fixed number of statements,
+ * and notify each affected user once.
+ */
+class TaskBulkOperationsTests extends IntegrationTest {
+
+    private static final int TASKS_PER_EMPLOYEE = 30;
+    // Selection, update, assignee and department head lookups, and one insert per notified user
+    private static final int STATEMENT_BUDGET = 12;
+    private static final String HEAD = "bulk_head";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCommentRepository taskCommentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TaskCube taskCube;
+
+    private Department department;
+    private Department otherDepartment;
+    private User head;
+    private User first;
+    private User second;
+    private User outsider;
+
+    @BeforeAll
+    void createUsers() {
+        department = testData.department("Bulk");
+        otherDepartment = testData.department("Bulk elsewhere");
+        head = testData.user(HEAD, User.UserRole.DEPARTMENT_HEAD, department);
+        first = testData.user("bulk_first", User.UserRole.EMPLOYEE, department);
+        second = testData.user("bulk_second", User.UserRole.EMPLOYEE, department);
+        outsider = testData.user("bulk_outsider", User.UserRole.EMPLOYEE, otherDepartment);
+    }
+
+    @Test
+    void statusChangeByFilterStaysInDepartmentAndNotifiesEachAssigneeOnce() throws Exception {
+        LocalDate due = LocalDate.now().plusDays(40);
+        List<Integer> ids = new ArrayList<>(testData.tasks(first, due, TASKS_PER_EMPLOYEE));
+        ids.addAll(testData.tasks(second, due, TASKS_PER_EMPLOYEE));
+        List<Integer> otherIds = testData.tasks(outsider, due, TASKS_PER_EMPLOYEE);
+        int firstNotifications = notificationCount(first);
+        int secondNotifications = notificationCount(second);
+        int firstCompleted = taskCube.countByUserAndStatus(first.getId(), Task.TaskStatus.COMPLETED);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode result = bulk(head(), "{\"operation\":\"SET_STATUS\",\"status\":\"COMPLETED\"," +
+                "\"filter\":{\"dueFrom\":\"" + due + "\",\"dueTo\":\"" + due + "\"}}", status().isOk());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(2 * TASKS_PER_EMPLOYEE, result.get("changed").asInt());
+        assertTrue(statements <= STATEMENT_BUDGET, "Bulk status change issued " + statements + " statements");
+        assertEquals(Set.of(Task.TaskStatus.COMPLETED), statuses(ids));
+        assertEquals(Set.of(Task.TaskStatus.PENDING), statuses(otherIds));
+        assertTrue(taskRepository.findAllById(ids).stream().allMatch(task -> task.getVersion() == 1));
+        assertEquals(firstNotifications + 1, notificationCount(first));
+        assertEquals(secondNotifications + 1, notificationCount(second));
+        assertEquals(firstCompleted + TASKS_PER_EMPLOYEE, taskCube.countByUserAndStatus(first.getId(), Task.TaskStatus.COMPLETED),
+                "The task cube applies the change of every task");
+
+        result = bulk(head(), "{\"operation\":\"SET_STATUS\",\"status\":\"COMPLETED\",\"ids\":" + ids + "}", status().isOk());
+        assertEquals(0, result.get("changed").asInt(), "Tasks already completed are not changed again");
+    }
+
+    @Test
+    void reassignChangesOnlyTasksInScope() throws Exception {
+        LocalDate due = LocalDate.now().plusDays(41);
+        List<Integer> ids = testData.tasks(first, due, 3);
+        List<Integer> otherIds = testData.tasks(outsider, due, 2);
+        List<Integer> all = new ArrayList<>(ids);
+        all.addAll(otherIds);
+
+        JsonNode result = bulk(head(), "{\"operation\":\"REASSIGN\",\"assignedToId\":" + second.getId() + ",\"ids\":" + all + "}", status().isOk());
+
+        assertEquals(3, result.get("matched").asInt());
+        assertEquals(3, result.get("changed").asInt());
+        assertEquals(Set.of(second.getId()), assignees(ids));
+        assertEquals(Set.of(outsider.getId()), assignees(otherIds));
+        bulk(head(), "{\"operation\":\"REASSIGN\",\"assignedToId\":" + outsider.getId() + ",\"ids\":" + ids + "}", status().isBadRequest());
+    }
+
+    @Test
+    void deleteRemovesTasksWithTheirComments() throws Exception {
+        List<Integer> ids = testData.tasks(first, LocalDate.now().plusDays(42), 4);
+        for (Integer id : ids) {
+            Task task = taskRepository.findById(id).orElseThrow();
+            taskCommentRepository.save(new TaskComment(task, "Comment on " + id));
+        }
+
+        JsonNode result = bulk(head(), "{\"operation\":\"DELETE\",\"ids\":" + ids + "}", status().isOk());
+
+        assertEquals(4, result.get("changed").asInt());
+        assertTrue(taskRepository.findAllById(ids).isEmpty());
+        assertTrue(ids.stream().allMatch(id -> taskCommentRepository.findByTaskId(id).isEmpty()));
+    }
+
+    @Test
+    void employeesMayOnlyChangeStatusOfTheirOwnTasks() throws Exception {
+        LocalDate due = LocalDate.now().plusDays(43);
+        List<Integer> own = testData.tasks(first, due, 2);
+        List<Integer> others = testData.tasks(second, due, 2);
+        List<Integer> all = new ArrayList<>(own);
+        all.addAll(others);
+        RequestPostProcessor employee = user(first.getUsername()).authorities(new SimpleGrantedAuthority("EMPLOYEE"));
+
+        bulk(employee, "{\"operation\":\"DELETE\",\"ids\":" + all + "}", status().isForbidden());
+        JsonNode result = bulk(employee, "{\"operation\":\"SET_STATUS\",\"status\":\"IN_PROGRESS\",\"ids\":" + all + "}", status().isOk());
+
+        assertEquals(2, result.get("changed").asInt());
+        assertEquals(Set.of(Task.TaskStatus.IN_PROGRESS), statuses(own));
+        assertEquals(Set.of(Task.TaskStatus.PENDING), statuses(others));
+    }
+
+    @Test
+    void unboundedSelectionIsRejected() throws Exception {
+        bulk(head(), "{\"operation\":\"DELETE\",\"filter\":{}}", status().isBadRequest());
+    }
+
+    private JsonNode bulk(RequestPostProcessor user, String body, ResultMatcher expectedStatus) throws Exception {
+        String response = mockMvc.perform(post("/api/tasks/bulk").with(user)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString();
+        return response.startsWith("{") ? objectMapper.readTree(response) : null;
+    }
+
+    private Set<Task.TaskStatus> statuses(List<Integer> ids) {
+        return taskRepository.findAllById(ids).stream().map(Task::getStatus).collect(Collectors.toSet());
+    }
+
+    private Set<Integer> assignees(List<Integer> ids) {
+        return taskRepository.findAllById(ids).stream().map(task -> task.getAssignedTo().getId()).collect(Collectors.toSet());
+    }
+
+    private int notificationCount(User user) {
+        return notificationRepository.findByUser(user).size();
+    }
+
+    private RequestPostProcessor head() {
+        return user(HEAD).authorities(new SimpleGrantedAuthority("DEPARTMENT_HEAD"));
+    }
+}
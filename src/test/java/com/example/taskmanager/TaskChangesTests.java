@@ -0,0 +1,133 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the task change feed reports every committed change once, in the scope of the user polling it,
+ * and that a cursor past the last change returns nothing.
+ */
+class TaskChangesTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    private User employee;
+    private User colleague;
+    private User head;
+
+    @BeforeAll
+    void createUsers() {
+        Department department = testData.department("Changes");
+        head = testData.user("changes_head", User.UserRole.DEPARTMENT_HEAD, department);
+        employee = testData.user("changes_employee", User.UserRole.EMPLOYEE, department);
+        colleague = testData.user("changes_colleague", User.UserRole.EMPLOYEE, department);
+    }
+
+    @Test
+    void changesSinceCursorReportUpdatesAndRemovals() throws Exception {
+        String cursor = changes(as(employee), null, 100).get("nextCursor").asText();
+        List<Integer> ids = testData.tasks(employee, LocalDate.now().plusDays(10), 3);
+
+        JsonNode created = changes(as(employee), cursor, 100);
+        assertEquals(Set.copyOf(ids), changedIds(created));
+        assertTrue(created.get("removed").isEmpty());
+        cursor = created.get("nextCursor").asText();
+
+        Task updated = taskRepository.findById(ids.get(0)).orElseThrow();
+        updated.setStatus(Task.TaskStatus.IN_PROGRESS);
+        taskRepository.save(updated);
+        taskService.deleteTask(ids.get(1));
+        Task reassigned = taskRepository.findById(ids.get(2)).orElseThrow();
+        reassigned.setAssignedTo(colleague);
+        taskRepository.save(reassigned);
+
+        JsonNode changed = changes(as(employee), cursor, 100);
+        assertEquals(Set.of(ids.get(0)), changedIds(changed));
+        assertEquals("IN_PROGRESS", changed.get("changed").get(0).get("status").asText());
+        assertEquals(Set.of(ids.get(1), ids.get(2)), removedIds(changed));
+        assertFalse(changed.get("hasMore").asBoolean());
+
+        JsonNode headChanges = changes(as(head), cursor, 100);
+        assertEquals(Set.of(ids.get(0), ids.get(2)), changedIds(headChanges), "The reassigned task stays in the department");
+        assertEquals(Set.of(ids.get(1)), removedIds(headChanges));
+
+        JsonNode nothing = changes(as(employee), changed.get("nextCursor").asText(), 100);
+        assertTrue(nothing.get("changed").isEmpty());
+        assertTrue(nothing.get("removed").isEmpty());
+        assertFalse(nothing.get("hasMore").asBoolean());
+    }
+
+    @Test
+    void changesArePagedWithoutGapsOrRepeats() throws Exception {
+        String cursor = changes(as(colleague), null, 100).get("nextCursor").asText();
+        List<Integer> ids = testData.tasks(colleague, LocalDate.now().plusDays(11), 5);
+
+        Set<Integer> seen = new HashSet<>();
+        JsonNode page;
+        do {
+            page = changes(as(colleague), cursor, 2);
+            for (Integer id : changedIds(page)) {
+                assertTrue(seen.add(id), "Task " + id + " reported twice");
+            }
+            cursor = page.get("nextCursor").asText();
+        } while (page.get("hasMore").asBoolean());
+
+        assertEquals(Set.copyOf(ids), seen);
+        assertTrue(changes(as(colleague), cursor, 2).get("changed").isEmpty());
+    }
+
+    private JsonNode changes(RequestPostProcessor user, String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/tasks/changes").with(user).param("limit", String.valueOf(limit));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static Set<Integer> changedIds(JsonNode changes) {
+        Set<Integer> ids = new HashSet<>();
+        changes.get("changed").forEach(task -> ids.add(task.get("id").asInt()));
+        return ids;
+    }
+
+    private static Set<Integer> removedIds(JsonNode changes) {
+        Set<Integer> ids = new HashSet<>();
+        changes.get("removed").forEach(id -> ids.add(id.asInt()));
+        return ids;
+    }
+
+    private static RequestPostProcessor as(User user) {
+        return user(user.getUsername()).authorities(new SimpleGrantedAuthority(user.getRole().name()));
+    }
+}
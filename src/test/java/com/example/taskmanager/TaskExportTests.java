@@ -0,0 +1,205 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the task export streams exactly the tasks in the user's scope, quotes CSV fields as RFC 4180
+ * describes, and writes one complete JSON object per NDJSON line.
+ */
+class TaskExportTests extends IntegrationTest {
+
+    private static final String TITLE = "Quote \"this\", please";
+    private static final String DESCRIPTION = "Line one\nLine two";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User head;
+    private User employee;
+    private Integer quotedId;
+    private final List<Integer> employeeIds = new ArrayList<>();
+    private final List<Integer> departmentIds = new ArrayList<>();
+    private List<Integer> otherIds;
+
+    @BeforeAll
+    void createTasks() {
+        Department department = testData.department("Export");
+        Department otherDepartment = testData.department("Export elsewhere");
+        head = testData.user("export_head", User.UserRole.DEPARTMENT_HEAD, department);
+        employee = testData.user("export_employee", User.UserRole.EMPLOYEE, department);
+        User colleague = testData.user("export_colleague", User.UserRole.EMPLOYEE, department);
+        User outsider = testData.user("export_outsider", User.UserRole.EMPLOYEE, otherDepartment);
+        LocalDate due = LocalDate.now().plusDays(50);
+
+        Task quoted = testData.newTask(TITLE, employee, due);
+        quoted.setDescription(DESCRIPTION);
+        quotedId = taskRepository.save(quoted).getId();
+        employeeIds.add(quotedId);
+        employeeIds.addAll(testData.tasks(employee, due, 2));
+        departmentIds.addAll(employeeIds);
+        departmentIds.addAll(testData.tasks(colleague, due, 2));
+        otherIds = testData.tasks(outsider, due, 2);
+    }
+
+    @Test
+    void employeeExportsOnlyTheirOwnTasks() throws Exception {
+        assertEquals(Set.copyOf(employeeIds), ndjsonIds(export(as(employee), "ndjson")));
+        assertEquals(Set.copyOf(employeeIds), csvIds(parseCsv(export(as(employee), "csv"))));
+    }
+
+    @Test
+    void departmentHeadExportsTheDepartmentsTasks() throws Exception {
+        assertEquals(Set.copyOf(departmentIds), ndjsonIds(export(as(head), "ndjson")));
+        assertEquals(Set.copyOf(departmentIds), csvIds(parseCsv(export(as(head), "csv"))));
+    }
+
+    @Test
+    void adminExportsAllTasks() throws Exception {
+        RequestPostProcessor admin = user("export_admin").authorities(new SimpleGrantedAuthority("ADMIN"));
+        testData.user("export_admin", User.UserRole.ADMIN, head.getDepartment());
+
+        Set<Integer> ids = ndjsonIds(export(admin, "ndjson"));
+        assertTrue(ids.containsAll(departmentIds));
+        assertTrue(ids.containsAll(otherIds));
+    }
+
+    @Test
+    void csvQuotesCommasQuotesAndLineBreaks() throws Exception {
+        String csv = export(as(employee), "csv");
+
+        assertTrue(csv.startsWith("id,title,description,status,priority,requiredQualification,requiredTechnologies," +
+                "dueDate,assignedToId,assignedToUsername,departmentId,createdAt,updatedAt\r\n"));
+        assertTrue(csv.contains("\r\n" + quotedId + ",\"Quote \"\"this\"\", please\",\"Line one\nLine two\",PENDING,MEDIUM,JUNIOR,,"),
+                "Fields with commas, quotes or line breaks are quoted, and their quotes doubled");
+        List<List<String>> records = parseCsv(csv);
+        for (List<String> record : records) {
+            assertEquals(13, record.size(), "Every record has a field per column: " + record);
+        }
+        List<String> quoted = records.stream().filter(record -> record.get(0).equals(quotedId.toString())).findFirst().orElseThrow();
+        assertEquals(TITLE, quoted.get(1));
+        assertEquals(DESCRIPTION, quoted.get(2));
+        assertEquals("", quoted.get(6), "A missing value is an empty field");
+        assertEquals(employee.getUsername(), quoted.get(9));
+    }
+
+    @Test
+    void ndjsonHasOneObjectPerLine() throws Exception {
+        String ndjson = export(as(employee), "ndjson");
+
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.split("\n");
+        assertEquals(employeeIds.size(), lines.length);
+        for (String line : lines) {
+            JsonNode task = objectMapper.readTree(line);
+            assertEquals(List.of("id", "title", "description", "status", "priority", "requiredQualification",
+                    "requiredTechnologies", "dueDate", "assignedToId", "assignedToUsername", "departmentId",
+                    "createdAt", "updatedAt"), fieldNames(task));
+            assertTrue(task.get("id").isInt());
+            assertEquals(employee.getId(), task.get("assignedToId").asInt());
+            assertTrue(task.get("requiredTechnologies").isNull());
+        }
+        JsonNode quoted = objectMapper.readTree(lines[0]);
+        assertEquals(quotedId, quoted.get("id").asInt());
+        assertEquals(TITLE, quoted.get("title").asText());
+        assertEquals(DESCRIPTION, quoted.get("description").asText());
+        assertEquals(LocalDate.now().plusDays(50).toString(), quoted.get("dueDate").asText());
+    }
+
+    private String export(RequestPostProcessor user, String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/export").param("format", format).with(user))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(format.equals("csv") ? "text/csv" : "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private Set<Integer> ndjsonIds(String ndjson) throws Exception {
+        Set<Integer> ids = new HashSet<>();
+        for (String line : ndjson.split("\n")) {
+            ids.add(objectMapper.readTree(line).get("id").asInt());
+        }
+        return ids;
+    }
+
+    private static Set<Integer> csvIds(List<List<String>> records) {
+        Set<Integer> ids = new HashSet<>();
+        records.subList(1, records.size()).forEach(record -> ids.add(Integer.parseInt(record.get(0))));
+        return ids;
+    }
+
+    /**
+     * Splits a CSV file into records and fields, following RFC 4180.
+     */
+    private static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                i++;
+            } else {
+                field.append(c);
+            }
+        }
+        return records;
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static RequestPostProcessor as(User user) {
+        return user(user.getUsername()).authorities(new SimpleGrantedAuthority(user.getRole().name()));
+    }
+}
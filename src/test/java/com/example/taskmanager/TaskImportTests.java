@@ -0,0 +1,124 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.service.SkillIndex;
+import com.example.taskmanager.service.TaskCube;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that a task import creates, updates, rejects and assigns the right rows, reports rejected rows
+ * by their line in the file, and keeps the task cube current.
+ */
+class TaskImportTests extends PostgresIntegrationTest {
+
+    private static final String HEADER = "externalRef,title,description,status,priority,requiredQualification," +
+            "requiredTechnologies,dueDate,assignedToId,departmentId\n";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SkillIndex skillIndex;
+
+    @Autowired
+    private TaskCube taskCube;
+
+    private Department department;
+    private User employee;
+
+    @BeforeAll
+    void createUsers() {
+        department = testData.department("Import");
+        testData.user("import_admin", User.UserRole.ADMIN, department);
+        employee = testData.user("import_employee", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        skillIndex.rebuild();
+    }
+
+    @Test
+    void importCreatesUpdatesAndRejectsRows() throws Exception {
+        int d = department.getId();
+        int e = employee.getId();
+        JsonNode result = importCsv(HEADER +
+                "import-1,First,,,,,,2030-01-31,," + d + "\n" +
+                "import-2,Second,\"With, a comma\",in_progress,high,,,," + e + "," + d + "\n" +
+                "import-3,,,,,,,,," + d + "\n" +
+                "import-4,Replaced,,,,,,,," + d + "\n" +
+                "import-4,Fourth,,,,,,,," + d + "\n" +
+                "import-5,Fifth,,,,,,31.01.2030,," + d + "\n");
+
+        assertEquals(6, result.get("received").asInt());
+        assertEquals(3, result.get("inserted").asInt());
+        assertEquals(0, result.get("updated").asInt());
+        assertEquals(3, result.get("rejected").asInt());
+        assertEquals(2, result.get("assigned").asInt(), "The tasks without an assignee go to the only candidate");
+        JsonNode errors = result.get("errors");
+        assertEquals(3, errors.size());
+        assertEquals(4, errors.get(0).get("line").asInt());
+        assertEquals("title is required", errors.get(0).get("error").asText());
+        assertEquals(5, errors.get(1).get("line").asInt());
+        assertEquals("externalRef import-4 is imported again by a later row", errors.get(1).get("error").asText());
+        assertEquals(7, errors.get(2).get("line").asInt());
+        assertEquals("dueDate must be a date like 2025-01-31", errors.get(2).get("error").asText());
+        assertEquals("Fourth", task("import-4").get("title"));
+        assertEquals(e, task("import-4").get("assigned_to"));
+
+        int inProgress = taskCube.countByUserAndStatus(e, Task.TaskStatus.IN_PROGRESS);
+        int completed = taskCube.countByUserAndStatus(e, Task.TaskStatus.COMPLETED);
+        result = importCsv(HEADER +
+                "import-2,Second again,,completed,,,,,," + d + "\n" +
+                "import-6,Sixth,,,,,,," + e + "," + d + "\n");
+
+        assertEquals(1, result.get("inserted").asInt());
+        assertEquals(1, result.get("updated").asInt());
+        assertEquals(0, result.get("rejected").asInt());
+        Map<String, Object> updated = task("import-2");
+        assertEquals("Second again", updated.get("title"));
+        assertEquals("COMPLETED", updated.get("status"));
+        assertEquals(e, updated.get("assigned_to"), "A row without an assignee keeps the current one");
+        assertEquals(1L, ((Number) updated.get("version")).longValue());
+        assertEquals(inProgress - 1, taskCube.countByUserAndStatus(e, Task.TaskStatus.IN_PROGRESS));
+        assertEquals(completed + 1, taskCube.countByUserAndStatus(e, Task.TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void fileWithWrongHeaderIsRejected() throws Exception {
+        mockMvc.perform(post("/api/tasks/import").param("format", "csv").with(admin())
+                        .contentType(MediaType.TEXT_PLAIN).content("title,departmentId\nFirst,1\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode importCsv(String csv) throws Exception {
+        String response = mockMvc.perform(post("/api/tasks/import").param("format", "csv").with(admin())
+                        .contentType(MediaType.TEXT_PLAIN).content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private Map<String, Object> task(String externalRef) {
+        return jdbcTemplate.queryForMap("SELECT title, status::TEXT AS status, assigned_to, version FROM tasks WHERE external_ref = ?",
+                externalRef);
+    }
+
+    private static RequestPostProcessor admin() {
+        return user("import_admin").authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.TaskCommentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that search ranks title matches above description matches above comment matches, pages through the
+ * ranked results, stays in the user's scope, and follows comments as they are added, changed and deleted.
+ */
+class TaskSearchTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCommentRepository taskCommentRepository;
+
+    private User employee;
+    private User outsider;
+    private User head;
+
+    @BeforeAll
+    void createUsers() {
+        Department department = testData.department("Search");
+        head = testData.user("search_head", User.UserRole.DEPARTMENT_HEAD, department);
+        employee = testData.user("search_employee", User.UserRole.EMPLOYEE, department);
+        outsider = testData.user("search_outsider", User.UserRole.EMPLOYEE, testData.department("Search elsewhere"));
+    }
+
+    @Test
+    void titleRanksAboveDescriptionAboveComment() throws Exception {
+        Task inComment = task("Paint the fence", "Two coats", employee);
+        Task inDescription = task("Order supplies", "Flamingo statues for the lobby", employee);
+        Task inTitle = task("Flamingo exhibit", "Plan the layout", employee);
+        taskCommentRepository.save(new TaskComment(inComment, "Use the flamingo pink"));
+        task("Flamingo exhibit elsewhere", null, outsider);
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId(), inComment.getId()), ids(search(as(head), "flamingo", 20)));
+
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = search(as(employee), "flamingo", 1, cursor);
+            paged.addAll(ids(page));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        assertEquals(List.of(inTitle.getId(), inDescription.getId(), inComment.getId()), paged);
+    }
+
+    @Test
+    void commentChangesAreSearchable() throws Exception {
+        Task task = task("Lobby plants", null, employee);
+
+        TaskComment comment = taskCommentRepository.save(new TaskComment(task, "Ask about the pelican"));
+        taskCommentRepository.save(new TaskComment(task, "And the cormorant"));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "pelican", 20)));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "cormorant", 20)));
+
+        comment.setComment("Ask about the heron");
+        taskCommentRepository.save(comment);
+        assertEquals(List.of(), ids(search(as(employee), "pelican", 20)));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "heron", 20)));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "cormorant", 20)), "Other comments are kept");
+
+        taskCommentRepository.delete(comment);
+        assertEquals(List.of(), ids(search(as(employee), "heron", 20)));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "cormorant", 20)));
+
+        Task renamed = taskRepository.findById(task.getId()).orElseThrow();
+        renamed.setTitle("Lobby albatross");
+        taskRepository.save(renamed);
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "albatross", 20)));
+        assertEquals(List.of(task.getId()), ids(search(as(employee), "cormorant", 20)), "Renaming keeps the comments");
+        JsonNode none = search(as(employee), "plants", 20);
+        assertEquals(List.of(), ids(none));
+        assertNull(none.get("nextCursor").textValue());
+    }
+
+    private Task task(String title, String description, User assignee) {
+        Task task = testData.newTask(title, assignee, LocalDate.now().plusDays(60));
+        task.setDescription(description);
+        return taskRepository.save(task);
+    }
+
+    private JsonNode search(RequestPostProcessor user, String query, int limit) throws Exception {
+        return search(user, query, limit, null);
+    }
+
+    private JsonNode search(RequestPostProcessor user, String query, int limit, String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/tasks/search").with(user)
+                .param("q", query).param("limit", String.valueOf(limit));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static List<Integer> ids(JsonNode page) {
+        List<Integer> ids = new ArrayList<>();
+        page.get("items").forEach(hit -> ids.add(hit.get("task").get("id").asInt()));
+        return ids;
+    }
+
+    private static RequestPostProcessor as(User user) {
+        return user(user.getUsername()).authorities(new SimpleGrantedAuthority(user.getRole().name()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.DepartmentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the departments, users and tasks the integration tests work on.
+ * Usernames double as email addresses, so they must be unique across all test classes sharing the database.
+ */
+@TestComponent
+class TestData {
+
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+
+    TestData(DepartmentRepository departmentRepository, UserRepository userRepository, TaskRepository taskRepository) {
+        this.departmentRepository = departmentRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    Department department(String name) {
+        Department department = new Department();
+        department.setName(name);
+        return departmentRepository.save(department);
+    }
+
+    User user(String username, User.UserRole role, Department department) {
+        return userRepository.save(newUser(username, role, department));
+    }
+
+    User user(String username, User.UserRole role, Department department, Qualification.QualificationType qualificationType) {
+        Qualification qualification = new Qualification();
+        qualification.setQualification(qualificationType);
+        qualification.setExperienceYears(1);
+        qualification.setTechnologies("Java");
+
+        User user = newUser(username, role, department);
+        user.setQualification(qualification);
+        return userRepository.save(user);
+    }
+
+    User user(String username, String firstName, String lastName, User.UserRole role, Department department) {
+        User user = newUser(username, role, department);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Creates pending, medium priority tasks in the assignee's department.
+     *
+     * @return the IDs of the tasks, in the order they were created
+     */
+    List<Integer> tasks(User assignee, LocalDate dueDate, int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int t = 0; t < count; t++) {
+            ids.add(taskRepository.save(newTask("Task " + t + " of " + assignee.getUsername(), assignee, dueDate)).getId());
+        }
+        return ids;
+    }
+
+    Task newTask(String title, User assignee, LocalDate dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDepartment(assignee.getDepartment());
+        task.setAssignedTo(assignee);
+        task.setDueDate(dueDate);
+        task.setStatus(Task.TaskStatus.PENDING);
+        task.setPriority(Task.TaskPriority.MEDIUM);
+        task.setRequiredQualification(Qualification.QualificationType.JUNIOR);
+        return task;
+    }
+
+    private static User newUser(String username, User.UserRole role, Department department) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        user.setDepartment(department);
+        return user;
+    }
+}
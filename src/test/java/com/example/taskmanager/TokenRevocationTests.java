@@ -0,0 +1,163 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.config.JwtUtil;
+import com.example.taskmanager.entity.Department;
+import com.example.taskmanager.entity.RevokedToken;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.RevokedTokenRepository;
+import com.example.taskmanager.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that refreshed, logged out and revoked tokens are rejected.
+ * Unlike {@link IntegrationTest}, this runs with the real {@link TokenRevocationService} and so in its own context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@Import(TestData.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TokenRevocationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private User employee;
+
+    @BeforeAll
+    void createUser() {
+        Department department = testData.department("Token revocation");
+        employee = testData.user("token_revocation_employee", User.UserRole.EMPLOYEE, department);
+    }
+
+    @Test
+    void refreshTokenCanBeUsedOnlyOnce() throws Exception {
+        String refreshToken = refreshToken();
+
+        JsonNode tokens = refresh(refreshToken, status().isOk());
+        refresh(refreshToken, status().isUnauthorized());
+
+        currentUser(tokens.get("token").asText(), status().isOk());
+        refresh(tokens.get("refreshToken").asText(), status().isOk());
+    }
+
+    @Test
+    void logoutRevokesAccessAndRefreshToken() throws Exception {
+        String accessToken = accessToken();
+        String refreshToken = refreshToken();
+        currentUser(accessToken, status().isOk());
+
+        mockMvc.perform(post("/api/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        currentUser(accessToken, status().isForbidden());
+        refresh(refreshToken, status().isUnauthorized());
+    }
+
+    @Test
+    void logoutNeedsNoValidAccessToken() throws Exception {
+        String refreshToken = refreshToken();
+
+        mockMvc.perform(post("/api/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        refresh(refreshToken, status().isUnauthorized());
+    }
+
+    @Test
+    void logoutRejectsMalformedRequests() throws Exception {
+        mockMvc.perform(post("/api/logout").header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/logout"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/logout").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        String refreshToken = refreshToken();
+        mockMvc.perform(post("/api/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isUnauthorized());
+        refresh(refreshToken, status().isOk());
+    }
+
+    @Test
+    void revocationByAnotherInstanceIsHonoredAfterSync() throws Exception {
+        String accessToken = accessToken();
+        Claims claims = jwtUtil.extractAllClaims(accessToken);
+        currentUser(accessToken, status().isOk());
+
+        // Written straight to the table, as another instance would
+        revokedTokenRepository.save(new RevokedToken(claims.getId(), employee.getId(), LocalDateTime.now(),
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())));
+        tokenRevocationService.sync();
+
+        currentUser(accessToken, status().isForbidden());
+    }
+
+    private String accessToken() {
+        return jwtUtil.generateToken(employee.getId(), employee.getUsername(), employee.getRole().toString());
+    }
+
+    private String refreshToken() {
+        return jwtUtil.generateRefreshToken(employee.getId(), employee.getUsername());
+    }
+
+    private void currentUser(String accessToken, ResultMatcher expectedStatus) throws Exception {
+        mockMvc.perform(get("/api/currentUser").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(expectedStatus);
+    }
+
+    private JsonNode refresh(String refreshToken, ResultMatcher expectedStatus) throws Exception {
+        String response = mockMvc.perform(post("/api/login/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString();
+        return response.startsWith("{") ? objectMapper.readTree(response) : null;
+    }
+}
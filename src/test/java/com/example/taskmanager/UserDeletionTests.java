@@ -0,0 +1,104 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.NotificationRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.example.taskmanager.service.SkillIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that deleting a user releases their tasks and notifications with a number of statements
+ * that does not depend on how many there are, and that released tasks can be spread over matching colleagues.
+ */
+class UserDeletionTests extends IntegrationTest {
+
+    private static final int TASKS = 40;
+    // User lookup, task selection and update, notification and user deletes, and the admin notification
+    private static final int STATEMENT_BUDGET = 12;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private SkillIndex skillIndex;
+
+    @Test
+    void deletionUnassignsTasksWithFixedNumberOfStatements() throws Exception {
+        Department department = testData.department("Deletion");
+        User leaving = testData.user("deletion_leaving", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        List<Integer> taskIds = testData.tasks(leaving, LocalDate.now().plusDays(7), TASKS);
+        for (int n = 0; n < TASKS; n++) {
+            notificationRepository.save(new Notification(leaving, "Notification " + n, false, LocalDateTime.now(),
+                    Notification.NotificationType.TASK, taskIds.get(n)));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(delete("/api/users/" + leaving.getId()).with(admin()))
+                .andExpect(status().isNoContent());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(statements <= STATEMENT_BUDGET, "Deleting a user with " + TASKS + " tasks issued " + statements + " statements");
+        assertFalse(userRepository.existsById(leaving.getId()));
+        List<Task> tasks = taskRepository.findAllById(taskIds);
+        assertEquals(TASKS, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getAssignedTo() == null && task.getVersion() == 1));
+    }
+
+    @Test
+    void reassignmentSpreadsTasksOverMatchingColleagues() throws Exception {
+        Department department = testData.department("Reassignment");
+        Department otherDepartment = testData.department("Reassignment elsewhere");
+        User leaving = testData.user("reassign_leaving", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        User first = testData.user("reassign_first", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        User second = testData.user("reassign_second", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.JUNIOR);
+        User senior = testData.user("reassign_senior", User.UserRole.EMPLOYEE, department, Qualification.QualificationType.SENIOR);
+        User outsider = testData.user("reassign_outsider", User.UserRole.EMPLOYEE, otherDepartment, Qualification.QualificationType.JUNIOR);
+        skillIndex.rebuild();
+        List<Integer> taskIds = testData.tasks(leaving, LocalDate.now().plusDays(7), TASKS);
+
+        mockMvc.perform(delete("/api/users/" + leaving.getId() + "?reassignTasks=true").with(admin()))
+                .andExpect(status().isNoContent());
+
+        Map<Integer, Long> counts = taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.groupingBy(task -> task.getAssignedTo().getId(), Collectors.counting()));
+        assertEquals(Map.of(first.getId(), (long) TASKS / 2, second.getId(), (long) TASKS / 2), counts);
+        assertEquals(1, notificationRepository.findByUser(first).size());
+        assertEquals(1, notificationRepository.findByUser(second).size());
+        assertTrue(notificationRepository.findByUser(senior).isEmpty());
+        assertTrue(notificationRepository.findByUser(outsider).isEmpty());
+    }
+
+    private static RequestPostProcessor admin() {
+        return user("admin").authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+}
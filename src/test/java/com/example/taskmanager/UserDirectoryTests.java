@@ -0,0 +1,123 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the user directory pages through users in username order, finds users by the prefix of any
+ * of their names, and only shows department heads their own department.
+ */
+class UserDirectoryTests extends IntegrationTest {
+
+    private static final int USERS = 60;
+    private static final String ADMIN = "directory_admin";
+    private static final String HEAD = "directory_head";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Integer departmentId;
+
+    @BeforeAll
+    void createDataset() {
+        Department department = testData.department("Directory");
+        Department otherDepartment = testData.department("Directory elsewhere");
+        departmentId = department.getId();
+        testData.user(ADMIN, "Ada", "Admin", User.UserRole.ADMIN, department);
+        testData.user(HEAD, "Hank", "Head", User.UserRole.DEPARTMENT_HEAD, department);
+        for (int u = 0; u < USERS; u++) {
+            testData.user(String.format("dir_user%02d", u), u % 2 == 0 ? "Anna" : "Boris", "Smith" + u, User.UserRole.EMPLOYEE,
+                    u < USERS / 2 ? department : otherDepartment);
+        }
+        testData.user("dir_under_score", "Una", "Underscore", User.UserRole.EMPLOYEE, department);
+    }
+
+    @Test
+    void pagesThroughMatchesInUsernameOrder() throws Exception {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = fetch(admin(), "/api/users/directory?q=DIR_user&limit=25" + (cursor != null ? "&cursor=" + cursor : ""));
+            for (JsonNode entry : page.get("items")) {
+                assertEquals(List.of("id", "username", "firstName", "lastName", "role", "departmentId"), fieldNames(entry));
+                usernames.add(entry.get("username").asText());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(USERS, usernames.size());
+        assertEquals(usernames.stream().sorted().toList(), usernames);
+        assertEquals(3, pages);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "anna | 30",
+            "SMITH1 | 11",
+            "anna smith1 | 5",
+            "dir_u | 61",
+            "dir_\\_ | 0",
+            "dir%u | 0"
+    })
+    void matchesPrefixesOfAnyName(String query, int expected) throws Exception {
+        String response = mockMvc.perform(get("/api/users/directory?limit=100").param("q", query).with(admin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(expected, objectMapper.readTree(response).get("items").size());
+    }
+
+    @Test
+    void departmentHeadsSeeOnlyTheirDepartment() throws Exception {
+        JsonNode page = fetch(user(HEAD).authorities(new SimpleGrantedAuthority("DEPARTMENT_HEAD")), "/api/users/directory?q=dir_user&limit=100");
+        assertEquals(USERS / 2, page.get("items").size());
+        for (JsonNode entry : page.get("items")) {
+            assertEquals(departmentId.intValue(), entry.get("departmentId").asInt());
+        }
+    }
+
+    @Test
+    void employeesAndBadRequestsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/users/directory").with(user("dir_user00").authorities(new SimpleGrantedAuthority("EMPLOYEE"))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/directory?limit=1000").with(admin()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/directory?cursor=%20").with(admin()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode fetch(RequestPostProcessor user, String uri) throws Exception {
+        String response = mockMvc.perform(get(uri).with(user))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static RequestPostProcessor admin() {
+        return user(ADMIN).authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.entity.*;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that a user import creates every valid row with a hashed password and its qualification,
+ * reports each invalid row with its line, and writes with a number of statements that does not depend on the rows.
+ */
+class UserImportTests extends IntegrationTest {
+
+    private static final int VALID_ROWS = 40;
+    private static final String HEADER = "username,email,password,firstName,lastName,role,departmentId,qualification,technologies,experienceYears\n";
+    // Department and uniqueness lookups, ID reservations, the two inserts, and the admin notification
+    private static final int STATEMENT_BUDGET = 12;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private Department department;
+
+    @BeforeAll
+    void createDepartment() {
+        department = testData.department("Import office");
+        testData.user("import_existing", User.UserRole.EMPLOYEE, department);
+    }
+
+    @Test
+    void importCreatesValidRowsAndReportsInvalidOnes() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int u = 0; u < VALID_ROWS; u++) {
+            csv.append("import_user").append(u).append(",import_user").append(u).append("@example.com,secret").append(u)
+                    .append(",First,\"Last, ").append(u).append("\",employee,").append(department.getId())
+                    .append(",mid_level,\"Java, \"\"Spring\"\"\",").append(u % 10).append('\n');
+        }
+        Map<Long, String> invalid = new HashMap<>();
+        int line = VALID_ROWS + 2; // After the header and the valid rows
+        invalid.put((long) line++, "username import_user0 is already used by an earlier row");
+        csv.append("import_user0,another@example.com,password,,,EMPLOYEE,").append(department.getId()).append(",JUNIOR,,\n");
+        invalid.put((long) line++, "username import_existing already exists");
+        csv.append("import_existing,new_address@example.com,password,,,EMPLOYEE,").append(department.getId()).append(",JUNIOR,,\n");
+        invalid.put((long) line++, "unknown role intern");
+        csv.append("import_intern,intern@example.com,password,,,intern,").append(department.getId()).append(",JUNIOR,,\n");
+        invalid.put((long) line++, "Password must be at least 6 characters");
+        csv.append("import_short,short@example.com,12345,,,EMPLOYEE,").append(department.getId()).append(",JUNIOR,,\n");
+        invalid.put((long) line++, "department 999999 does not exist");
+        csv.append("import_nowhere,nowhere@example.com,password,,,EMPLOYEE,999999,JUNIOR,,\n");
+        invalid.put((long) line, "email import_existing@example.com already exists");
+        csv.append("import_same_email,import_existing@example.com,password,,,EMPLOYEE,").append(department.getId()).append(",JUNIOR,,\n");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode result = importCsv(admin(), csv.toString(), status().isOk());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(VALID_ROWS + invalid.size(), result.get("received").asInt());
+        assertEquals(VALID_ROWS, result.get("inserted").asInt());
+        assertEquals(invalid.size(), result.get("rejected").asInt());
+        Map<Long, String> reported = new HashMap<>();
+        result.get("errors").forEach(error -> reported.put(error.get("line").asLong(), error.get("error").asText()));
+        assertEquals(invalid, reported);
+        assertTrue(statements <= STATEMENT_BUDGET, "Importing " + VALID_ROWS + " users issued " + statements + " statements");
+
+        User imported = userRepository.findByUsername("import_user7");
+        assertNotNull(imported);
+        assertTrue(passwordEncoder.matches("secret7", imported.getPassword()));
+        assertEquals("Last, 7", imported.getLastName());
+        assertEquals(User.UserRole.EMPLOYEE, imported.getRole());
+        assertEquals(department.getId(), imported.getDepartment().getId());
+        assertEquals(Qualification.QualificationType.MID_LEVEL, imported.getQualification().getQualification());
+        assertEquals("Java, \"Spring\"", imported.getQualification().getTechnologies());
+        assertEquals(7, imported.getQualification().getExperienceYears());
+        assertNull(userRepository.findByUsername("import_intern"));
+    }
+
+    @Test
+    void wrongHeaderIsRejected() throws Exception {
+        importCsv(admin(), "username,email,password\nimport_header,header@example.com,password\n", status().isBadRequest());
+        assertNull(userRepository.findByUsername("import_header"));
+    }
+
+    @Test
+    void onlyAdminsMayImport() throws Exception {
+        RequestPostProcessor head = user("import_head").authorities(new SimpleGrantedAuthority("DEPARTMENT_HEAD"));
+        importCsv(head, HEADER, status().isForbidden());
+    }
+
+    private JsonNode importCsv(RequestPostProcessor user, String csv, ResultMatcher expectedStatus) throws Exception {
+        String response = mockMvc.perform(post("/api/users/import").with(user)
+                        .contentType(MediaType.parseMediaType("text/csv")).content(csv))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString();
+        return response.startsWith("{") ? objectMapper.readTree(response) : null;
+    }
+
+    private static RequestPostProcessor admin() {
+        return user("import_admin").authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.dto.CursorPage;
+import com.example.taskmanager.dto.TaskSummary;
+import com.example.taskmanager.entity.*;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that clients asking for Smile or CBOR get the task list in that format from the application's converters,
+ * carrying the same page of task summaries as the JSON response.
+ */
+class WireFormatTests extends IntegrationTest {
+
+    private static final int TASKS = 30;
+    private static final String ADMIN = "wire_format_admin";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private String uri;
+
+    @BeforeAll
+    void createDataset() {
+        Department department = testData.department("Wire formats");
+        User admin = testData.user(ADMIN, User.UserRole.ADMIN, department);
+        testData.tasks(admin, LocalDate.now().plusDays(3), TASKS);
+        uri = "/api/tasks?department=" + department.getId() + "&limit=20";
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"application/x-jackson-smile", "application/cbor"})
+    void binaryFormatCarriesTheSamePageAsJson(String mediaType) throws Exception {
+        AbstractJackson2HttpMessageConverter converter = mediaType.equals("application/cbor") ? cborConverter : smileConverter;
+        MockHttpServletResponse json = fetch(MediaType.APPLICATION_JSON);
+        MockHttpServletResponse binary = fetch(MediaType.parseMediaType(mediaType));
+
+        assertEquals(mediaType, MediaType.parseMediaType(binary.getContentType()).toString());
+        CursorPage<TaskSummary> expected = read(objectMapper, json.getContentAsByteArray());
+        CursorPage<TaskSummary> actual = read(converter.getObjectMapper(), binary.getContentAsByteArray());
+        assertEquals(20, actual.items().size());
+        assertEquals(expected, actual);
+    }
+
+    private MockHttpServletResponse fetch(MediaType accept) throws Exception {
+        return mockMvc.perform(get(uri).accept(accept).with(user(ADMIN).authorities(new SimpleGrantedAuthority("ADMIN"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private static CursorPage<TaskSummary> read(ObjectMapper mapper, byte[] content) throws Exception {
+        JavaType type = mapper.getTypeFactory().constructParametricType(CursorPage.class, TaskSummary.class);
+        return mapper.readValue(content, type);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.TaskmanagerApplication;
+import com.example.taskmanager.dto.TaskFilter;
+import com.example.taskmanager.dto.TaskSort;
+import com.example.taskmanager.entity.Department;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.entity.TaskComment;
+import com.example.taskmanager.entity.User;
+import com.example.taskmanager.repository.DepartmentRepository;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the task and user lists loaded as entities, as the list endpoints returned them before,
+ * with the TaskSummary and UserSummary projections they return now. Each operation loads the whole list
+ * in a read-only transaction and serializes it with the application's ObjectMapper, like a request does.
+ * The dataset is 5,000 tasks with 1 KB descriptions and two comments each, assigned to 100 users,
+ * in an in-memory H2 database; the serialized size of each list is printed once per trial.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ListProjectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int TASKS = 5_000;
+    private static final int USERS = 100;
+    private static final int COMMENTS_PER_TASK = 2;
+    private static final int DESCRIPTION_LENGTH = 1024;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as command line arguments, which override application.properties
+        context = new SpringApplicationBuilder(TaskmanagerApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:list_projection_benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql=WARN");
+        taskRepository = context.getBean(TaskRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed());
+        System.out.printf("Task list: %d bytes as entities, %d bytes as summaries%n",
+                taskListAsEntities().length, taskListAsSummaries().length);
+        System.out.printf("User list: %d bytes as entities, %d bytes as summaries%n",
+                userListAsEntities().length, userListAsSummaries().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] taskListAsEntities() {
+        return readOnlyTransaction.execute(status -> serialize(taskRepository.findAll()));
+    }
+
+    @Benchmark
+    public byte[] taskListAsSummaries() {
+        TaskFilter all = new TaskFilter(null, null, null, null, null, null, null);
+        return readOnlyTransaction.execute(status -> serialize(taskRepository.findPage(all, TaskSort.ID, false, null, TASKS)));
+    }
+
+    @Benchmark
+    public byte[] userListAsEntities() {
+        return readOnlyTransaction.execute(status -> serialize(userRepository.findAll()));
+    }
+
+    @Benchmark
+    public byte[] userListAsSummaries() {
+        return readOnlyTransaction.execute(status -> serialize(userRepository.findAllSummaries()));
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void seed() {
+        Department department = new Department();
+        department.setName("Benchmark");
+        department = context.getBean(DepartmentRepository.class).save(department);
+
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            Qualification qualification = new Qualification();
+            qualification.setQualification(Qualification.QualificationType.values()[u % Qualification.QualificationType.values().length]);
+            qualification.setExperienceYears(u % 10);
+            qualification.setTechnologies("Java, Spring, PostgreSQL");
+
+            User user = new User();
+            user.setUsername("benchmark_user" + u);
+            user.setPassword("password");
+            user.setEmail("benchmark_user" + u + "@example.com");
+            user.setFirstName("First" + u);
+            user.setLastName("Last" + u);
+            user.setRole(User.UserRole.EMPLOYEE);
+            user.setDepartment(department);
+            user.setQualification(qualification);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        String description = "x".repeat(DESCRIPTION_LENGTH);
+        List<Task> tasks = new ArrayList<>();
+        for (int t = 0; t < TASKS; t++) {
+            Task task = new Task();
+            task.setTitle("Benchmark task " + t);
+            task.setDescription(description);
+            task.setDepartment(department);
+            task.setAssignedTo(users.get(t % USERS));
+            task.setDueDate(LocalDate.now().plusDays(t % 30));
+            task.setStatus(Task.TaskStatus.values()[t % Task.TaskStatus.values().length]);
+            task.setPriority(Task.TaskPriority.values()[t % Task.TaskPriority.values().length]);
+            task.setRequiredQualification(Qualification.QualificationType.JUNIOR);
+            task.setComments(new ArrayList<>());
+            for (int c = 0; c < COMMENTS_PER_TASK; c++) {
+                task.getComments().add(new TaskComment(task, "Comment " + c + " on task " + t));
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+    }
+}
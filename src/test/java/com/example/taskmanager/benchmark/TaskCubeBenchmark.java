@@ -0,0 +1,160 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.dto.TaskStatusCounts;
+import com.example.taskmanager.entity.Qualification;
+import com.example.taskmanager.entity.Task;
+import com.example.taskmanager.repository.TaskRepository;
+import com.example.taskmanager.service.TaskCube;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the department dashboard counts served by the {@link TaskCube} with the SQL aggregations it replaced:
+ * the COUNT(*) FILTER query over tasks and the sum over the task_stats summary table.
+ * The SQL side runs on an in-memory H2 database in the same process, so it measures query execution without a network
+ * round trip and is a lower bound for PostgreSQL. The cube is built with {@link TaskCube#rebuild()} from the same rows,
+ * and its memory footprint is printed once per trial.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TaskCubeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskCubeBenchmark {
+
+    private static final String COUNT_TASKS = "SELECT COUNT(*), COUNT(*) FILTER (WHERE status = 'PENDING'), " +
+            "COUNT(*) FILTER (WHERE status = 'IN_PROGRESS'), COUNT(*) FILTER (WHERE status = 'COMPLETED') " +
+            "FROM tasks WHERE department_id = ?";
+    private static final String SUM_TASK_STATS = "SELECT COALESCE(SUM(task_count), 0), " +
+            "COALESCE(SUM(task_count) FILTER (WHERE status = 'PENDING'), 0), " +
+            "COALESCE(SUM(task_count) FILTER (WHERE status = 'IN_PROGRESS'), 0), " +
+            "COALESCE(SUM(task_count) FILTER (WHERE status = 'COMPLETED'), 0) " +
+            "FROM task_stats WHERE department_id = ?";
+
+    @Param({"100000"})
+    private int tasks;
+
+    @Param({"500"})
+    private int users;
+
+    @Param({"20"})
+    private int departments;
+
+    private Connection connection;
+    private PreparedStatement countTasks;
+    private PreparedStatement sumTaskStats;
+    private TaskCube cube;
+    private int nextDepartment;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:task_cube_benchmark;DB_CLOSE_DELAY=-1");
+        connection = dataSource.getConnection();
+        List<Object[]> rows = new ArrayList<>(tasks);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE tasks (id INTEGER PRIMARY KEY, department_id INTEGER, assigned_to INTEGER, " +
+                    "status VARCHAR(20) NOT NULL, priority VARCHAR(20) NOT NULL, required_qualification VARCHAR(20) NOT NULL)");
+            statement.execute("CREATE INDEX idx_tasks_department_id ON tasks (department_id)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tasks VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= tasks; id++) {
+                Object[] row = {id, 1 + id % departments, id % 10 == 0 ? null : 1 + id % users,
+                        Task.TaskStatus.values()[id % Task.TaskStatus.values().length],
+                        Task.TaskPriority.values()[id % Task.TaskPriority.values().length],
+                        Qualification.QualificationType.values()[id % Qualification.QualificationType.values().length]};
+                rows.add(row);
+                for (int column = 0; column < row.length; column++) {
+                    insert.setObject(column + 1, row[column] instanceof Enum<?> value ? value.name() : row[column]);
+                }
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE task_stats AS SELECT department_id, assigned_to, status, priority, " +
+                    "COUNT(*) AS task_count FROM tasks GROUP BY department_id, assigned_to, status, priority");
+            statement.execute("CREATE INDEX idx_task_stats_department_id ON task_stats (department_id)");
+        }
+        countTasks = connection.prepareStatement(COUNT_TASKS);
+        sumTaskStats = connection.prepareStatement(SUM_TASK_STATS);
+
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.streamTaskDimensions()).thenAnswer(invocation -> rows.stream());
+        cube = new TaskCube(taskRepository, new DataSourceTransactionManager(dataSource));
+        cube.rebuild();
+        System.out.printf("Task cube over %d tasks, %d users and %d departments: %d bytes%n",
+                tasks, users, departments, cube.memoryFootprint());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public TaskStatusCounts cube() {
+        return cube.statusCountsByDepartment(nextDepartment());
+    }
+
+    @Benchmark
+    public TaskStatusCounts sqlOverTasks() throws SQLException {
+        return query(countTasks);
+    }
+
+    @Benchmark
+    public TaskStatusCounts sqlOverTaskStats() throws SQLException {
+        return query(sumTaskStats);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void cubeRebuild() {
+        cube.rebuild();
+    }
+
+    private TaskStatusCounts query(PreparedStatement statement) throws SQLException {
+        statement.setInt(1, nextDepartment());
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return new TaskStatusCounts(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4));
+        }
+    }
+
+    private int nextDepartment() {
+        nextDepartment = nextDepartment % departments + 1;
+        return nextDepartment;
+    }
+}
@@ -0,0 +1,2 @@
+-- Stand-ins for the PostgreSQL enum types, so native statements that cast to them also run on the H2 test database
+CREATE DOMAIN IF NOT EXISTS user_role AS VARCHAR(20);